@@ -0,0 +1,204 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer backed by a single hashed timing wheel. Scheduling and stopping a timer is O(1) and a tick only touches the
+ * timers of one bucket, in contrast to FrameRateTimer where each MasterTimer tick runs all timers.
+ * The wheel thread only hands the expired timers over to the UserThread, the runnable is executed at the UserThread.
+ * <p>
+ * New and stopped timers are passed to the wheel thread by queues, so the buckets are only accessed from the wheel
+ * thread and don't need any locking.
+ */
+public class HashedWheelTimer implements Timer {
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    public static final long TICK_MS = 10;
+    // 512 buckets of 10 ms cover about 5 sec. Timers with a longer delay stay in their bucket for several rounds.
+    private static final int WHEEL_SIZE = 512;
+    private static final int MASK = WHEEL_SIZE - 1;
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(TICK_MS);
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final long startTime = System.nanoTime();
+    private static final Queue<HashedWheelTimer> scheduledTimers = new ConcurrentLinkedQueue<>();
+    private static final Queue<HashedWheelTimer> stoppedTimers = new ConcurrentLinkedQueue<>();
+
+    // Only accessed from the wheel thread
+    @SuppressWarnings("unchecked")
+    private static final Set<HashedWheelTimer>[] wheel = new Set[WHEEL_SIZE];
+    private static long tick;
+
+    static {
+        for (int i = 0; i < WHEEL_SIZE; i++)
+            wheel[i] = new HashSet<>();
+
+        Thread thread = new Thread(HashedWheelTimer::runWheel, "HashedWheelTimer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static void runWheel() {
+        while (true) {
+            try {
+                long deadline = waitForNextTick();
+                addScheduledTimers();
+                removeStoppedTimers();
+                expireTimers(wheel[(int) (tick & MASK)], deadline);
+                tick++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Throwable t) {
+                log.error("Error at HashedWheelTimer thread: " + t.toString());
+                t.printStackTrace();
+            }
+        }
+    }
+
+    // Returns the time of the current tick relative to startTime
+    private static long waitForNextTick() throws InterruptedException {
+        long deadline = TICK_NANOS * (tick + 1);
+        long sleepTimeMs;
+        while ((sleepTimeMs = TimeUnit.NANOSECONDS.toMillis(deadline - (System.nanoTime() - startTime) + 999_999)) > 0)
+            Thread.sleep(sleepTimeMs);
+        return deadline;
+    }
+
+    private static void addScheduledTimers() {
+        HashedWheelTimer timer;
+        while ((timer = scheduledTimers.poll()) != null) {
+            if (timer.stopped)
+                continue;
+
+            long calculatedTick = timer.deadline / TICK_NANOS;
+            timer.remainingRounds = (calculatedTick - tick) / WHEEL_SIZE;
+            // Timers which are already due go to the current bucket
+            timer.bucket = wheel[(int) (Math.max(calculatedTick, tick) & MASK)];
+            timer.bucket.add(timer);
+        }
+    }
+
+    private static void removeStoppedTimers() {
+        HashedWheelTimer timer;
+        while ((timer = stoppedTimers.poll()) != null) {
+            if (timer.bucket != null) {
+                timer.bucket.remove(timer);
+                timer.bucket = null;
+            }
+        }
+    }
+
+    private static void expireTimers(Set<HashedWheelTimer> bucket, long deadline) {
+        Iterator<HashedWheelTimer> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            HashedWheelTimer timer = iterator.next();
+            if (timer.remainingRounds <= 0) {
+                if (timer.deadline <= deadline) {
+                    iterator.remove();
+                    timer.bucket = null;
+                    UserThread.execute(timer::fire);
+                }
+            } else {
+                timer.remainingRounds--;
+            }
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Instance fields
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Runnable runnable;
+    private long interval;
+    private boolean isPeriodically;
+    private volatile boolean stopped;
+    // Deadline relative to startTime in nanoseconds
+    private volatile long deadline;
+
+    // Only accessed from the wheel thread
+    private long remainingRounds;
+    private Set<HashedWheelTimer> bucket;
+
+    public HashedWheelTimer() {
+    }
+
+    @Override
+    public Timer runLater(Duration delay, Runnable runnable) {
+        this.runnable = runnable;
+        this.interval = delay.toNanos();
+        schedule();
+        return this;
+    }
+
+    @Override
+    public Timer runPeriodically(Duration interval, Runnable runnable) {
+        this.runnable = runnable;
+        this.interval = interval.toNanos();
+        isPeriodically = true;
+        schedule();
+        return this;
+    }
+
+    @Override
+    public void stop() {
+        if (!stopped) {
+            stopped = true;
+            stoppedTimers.add(this);
+        }
+    }
+
+    private void schedule() {
+        deadline = System.nanoTime() - startTime + interval;
+        scheduledTimers.add(this);
+    }
+
+    // Called at the UserThread
+    private void fire() {
+        if (stopped)
+            return;
+
+        try {
+            runnable.run();
+        } catch (Throwable t) {
+            log.error(t.getMessage());
+            t.printStackTrace();
+            stop();
+            throw t;
+        }
+
+        // Like at FrameRateTimer the next interval starts after the execution
+        if (isPeriodically && !stopped)
+            schedule();
+    }
+}
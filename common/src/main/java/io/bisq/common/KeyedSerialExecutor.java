@@ -0,0 +1,90 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs the commands of the same key one after another in the order they have been passed to execute. Commands of
+ * different keys run in parallel at the threads of the given executor.
+ * A serial queue only exists as long as it has commands of its key, so keys like connection uids don't need to be
+ * removed.
+ */
+public class KeyedSerialExecutor {
+    private static final Logger log = LoggerFactory.getLogger(KeyedSerialExecutor.class);
+
+    private final Executor executor;
+    private final Map<Object, SerialQueue> serialQueues = new ConcurrentHashMap<>();
+
+    public KeyedSerialExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public void execute(Object key, Runnable command) {
+        serialQueues.compute(key, (k, serialQueue) -> {
+            if (serialQueue == null) {
+                serialQueue = new SerialQueue(k);
+                serialQueue.commands.add(command);
+                executor.execute(serialQueue);
+            } else {
+                serialQueue.commands.add(command);
+            }
+            return serialQueue;
+        });
+    }
+
+    // We run one command per task so a key with many commands does not block the other keys
+    private final class SerialQueue implements Runnable {
+        private final Object key;
+        // Commands are only added and removed inside of compute, so the check if the queue is empty cannot miss a
+        // command which gets added concurrently
+        private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+        SerialQueue(Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            Runnable command = commands.peek();
+            try {
+                command.run();
+            } catch (Throwable t) {
+                log.error("Error at executing command of key " + key + ": " + t.toString());
+                Thread thread = Thread.currentThread();
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+            } finally {
+                serialQueues.compute(key, (k, serialQueue) -> {
+                    commands.poll();
+                    if (commands.isEmpty())
+                        return null;
+
+                    executor.execute(this);
+                    return this;
+                });
+            }
+        }
+    }
+}
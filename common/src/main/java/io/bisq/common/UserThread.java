@@ -21,16 +21,22 @@ import com.google.common.util.concurrent.MoreExecutors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.time.Duration;
 import java.util.Random;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 // Helps run delayed and periodic actions in the caller thread.
 public class UserThread {
     private static final Logger log = LoggerFactory.getLogger(UserThread.class);
-    private static Class<? extends Timer> timerClass;
+    private static final Object DEFAULT_KEY = new Object();
+    private static Supplier<Timer> timerFactory;
+    private static KeyedSerialExecutor keyedExecutor;
 
     public static Executor getExecutor() {
         return executor;
@@ -38,16 +44,52 @@ public class UserThread {
 
     public static void setExecutor(Executor executor) {
         UserThread.executor = executor;
+        keyedExecutor = null;
     }
 
+    /**
+     * Only for headless apps. The UserThread gets backed by numThreads threads. All commands passed to
+     * execute(command) and the timers still run one after another. Commands passed to execute(key, command) run
+     * one after another with the other commands of the same key, but in parallel to other keys and to the commands
+     * without key. Those commands must therefore only access data of their key or thread safe data structures and
+     * pass their results back with execute(command).
+     * Without calling that method execute(key, command) runs the command at the UserThread like execute(command).
+     */
+    public static void setKeyedExecutor(int numThreads, ThreadFactory threadFactory) {
+        KeyedSerialExecutor keyedExecutor = new KeyedSerialExecutor(Executors.newFixedThreadPool(numThreads, threadFactory));
+        UserThread.executor = command -> keyedExecutor.execute(DEFAULT_KEY, command);
+        UserThread.keyedExecutor = keyedExecutor;
+    }
+
+    public static void setTimerFactory(Supplier<Timer> timerFactory) {
+        UserThread.timerFactory = timerFactory;
+    }
+
+    // We look up the constructor only once instead of at each new timer
     public static void setTimerClass(Class<? extends Timer> timerClass) {
-        UserThread.timerClass = timerClass;
+        try {
+            Constructor<? extends Timer> constructor = timerClass.getDeclaredConstructor();
+            setTimerFactory(() -> {
+                try {
+                    return constructor.newInstance();
+                } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
+                    String message = "Could not instantiate timer bsTimerClass=" + timerClass;
+                    log.error(message);
+                    e.printStackTrace();
+                    throw new RuntimeException(message);
+                }
+            });
+        } catch (NoSuchMethodException e) {
+            String message = "Timer class has no default constructor. bsTimerClass=" + timerClass;
+            log.error(message);
+            throw new RuntimeException(message);
+        }
     }
 
     static {
         // If not defined we use same thread as caller thread
         executor = MoreExecutors.directExecutor();
-        timerClass = FrameRateTimer.class;
+        timerFactory = HashedWheelTimer::new;
     }
 
     private static Executor executor;
@@ -56,6 +98,15 @@ public class UserThread {
         UserThread.executor.execute(command);
     }
 
+    // Key is e.g. the uid of a connection. See setKeyedExecutor.
+    public static void execute(Object key, Runnable command) {
+        KeyedSerialExecutor keyedExecutor = UserThread.keyedExecutor;
+        if (keyedExecutor != null)
+            keyedExecutor.execute(key, command);
+        else
+            UserThread.executor.execute(command);
+    }
+
 
     // Prefer FxTimer if a delay is needed in a JavaFx class (gui module) 
     public static Timer runAfterRandomDelay(Runnable runnable, long minDelayInSec, long maxDelayInSec) {
@@ -84,13 +135,6 @@ public class UserThread {
     }
 
     private static Timer getTimer() {
-        try {
-            return timerClass.getDeclaredConstructor().newInstance();
-        } catch (InstantiationException | NoSuchMethodException | InvocationTargetException | IllegalAccessException e) {
-            String message = "Could not instantiate timer bsTimerClass=" + timerClass;
-            log.error(message);
-            e.printStackTrace();
-            throw new RuntimeException(message);
-        }
+        return timerFactory.get();
     }
 }
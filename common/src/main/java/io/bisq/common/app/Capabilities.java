@@ -19,6 +19,8 @@ public class Capabilities {
         ACCOUNT_AGE_WITNESS,
         SEED_NODE,
         DAO_FULL_NODE,
+        GET_DATA_FILTER,
+        CHUNKED_GET_DATA_RESPONSE,
     }
 
     // Application need to set supported capabilities at startup
@@ -0,0 +1,99 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.crypto;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.NoSuchPaddingException;
+import java.security.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Thread local instances of the JCA primitives of the BouncyCastle provider. Getting them from the provider is
+ * expensive, so we keep one instance per algorithm and thread instead of getting a new one at each use.
+ * The instances keep their state between uses, so callers have to init them (init, initSign, initVerify) before each
+ * use and must not keep them while calling other code which might use the same algorithm. MessageDigest instances
+ * get reset before they are returned.
+ */
+final class CryptoPrimitives {
+    private static final String PROVIDER = "BC";
+
+    private static final ThreadLocal<Map<String, MessageDigest>> messageDigests = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, Signature>> signatures = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, Cipher>> ciphers = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, Mac>> macs = ThreadLocal.withInitial(HashMap::new);
+    private static final ThreadLocal<Map<String, KeyFactory>> keyFactories = ThreadLocal.withInitial(HashMap::new);
+
+    private CryptoPrimitives() {
+    }
+
+    static MessageDigest getMessageDigest(String algorithm) throws NoSuchAlgorithmException, NoSuchProviderException {
+        Map<String, MessageDigest> map = messageDigests.get();
+        MessageDigest messageDigest = map.get(algorithm);
+        if (messageDigest == null) {
+            messageDigest = MessageDigest.getInstance(algorithm, PROVIDER);
+            map.put(algorithm, messageDigest);
+        } else {
+            // In case a previous use got interrupted by an exception
+            messageDigest.reset();
+        }
+        return messageDigest;
+    }
+
+    static Signature getSignature(String algorithm) throws NoSuchAlgorithmException, NoSuchProviderException {
+        Map<String, Signature> map = signatures.get();
+        Signature signature = map.get(algorithm);
+        if (signature == null) {
+            signature = Signature.getInstance(algorithm, PROVIDER);
+            map.put(algorithm, signature);
+        }
+        return signature;
+    }
+
+    static Cipher getCipher(String transformation) throws NoSuchAlgorithmException, NoSuchProviderException,
+            NoSuchPaddingException {
+        Map<String, Cipher> map = ciphers.get();
+        Cipher cipher = map.get(transformation);
+        if (cipher == null) {
+            cipher = Cipher.getInstance(transformation, PROVIDER);
+            map.put(transformation, cipher);
+        }
+        return cipher;
+    }
+
+    static Mac getMac(String algorithm) throws NoSuchAlgorithmException, NoSuchProviderException {
+        Map<String, Mac> map = macs.get();
+        Mac mac = map.get(algorithm);
+        if (mac == null) {
+            mac = Mac.getInstance(algorithm, PROVIDER);
+            map.put(algorithm, mac);
+        }
+        return mac;
+    }
+
+    static KeyFactory getKeyFactory(String algorithm) throws NoSuchAlgorithmException, NoSuchProviderException {
+        Map<String, KeyFactory> map = keyFactories.get();
+        KeyFactory keyFactory = map.get(algorithm);
+        if (keyFactory == null) {
+            keyFactory = KeyFactory.getInstance(algorithm, PROVIDER);
+            map.put(algorithm, keyFactory);
+        }
+        return keyFactory;
+    }
+}
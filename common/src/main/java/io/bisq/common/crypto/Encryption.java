@@ -18,7 +18,6 @@
 package io.bisq.common.crypto;
 
 import io.bisq.common.util.Utilities;
-import org.bouncycastle.util.encoders.Hex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +43,7 @@ public class Encryption {
     private static final String SYM_CIPHER = "AES";
 
     private static final String HMAC = "HmacSHA256";
+    private static final int HMAC_LENGTH = 32;
 
     public static KeyPair generateKeyPair() {
         long ts = System.currentTimeMillis();
@@ -67,7 +67,7 @@ public class Encryption {
 
     private static byte[] encrypt(byte[] payload, SecretKey secretKey) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(SYM_CIPHER, "BC");
+            Cipher cipher = CryptoPrimitives.getCipher(SYM_CIPHER);
             cipher.init(Cipher.ENCRYPT_MODE, secretKey);
             return cipher.doFinal(payload);
         } catch (Throwable e) {
@@ -78,7 +78,7 @@ public class Encryption {
 
     private static byte[] decrypt(byte[] encryptedPayload, SecretKey secretKey) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(SYM_CIPHER, "BC");
+            Cipher cipher = CryptoPrimitives.getCipher(SYM_CIPHER);
             cipher.init(Cipher.DECRYPT_MODE, secretKey);
             return cipher.doFinal(encryptedPayload);
         } catch (Throwable e) {
@@ -136,7 +136,7 @@ public class Encryption {
     }
 
     private static byte[] getHmac(byte[] payload, SecretKey secretKey) throws NoSuchAlgorithmException, InvalidKeyException, NoSuchProviderException {
-        Mac mac = Mac.getInstance(HMAC, "BC");
+        Mac mac = CryptoPrimitives.getMac(HMAC);
         mac.init(secretKey);
         return mac.doFinal(payload);
     }
@@ -153,15 +153,15 @@ public class Encryption {
 
     public static byte[] decryptPayloadWithHmac(byte[] encryptedPayloadWithHmac, SecretKey secretKey) throws CryptoException {
         byte[] payloadWithHmac = decrypt(encryptedPayloadWithHmac, secretKey);
-        String payloadWithHmacAsHex = Hex.toHexString(payloadWithHmac);
-        // first part is raw message
-        int length = payloadWithHmacAsHex.length();
-        int sep = length - 64;
-        String payloadAsHex = payloadWithHmacAsHex.substring(0, sep);
-        // last 64 bytes is hmac
-        String hmacAsHex = payloadWithHmacAsHex.substring(sep, length);
-        if (verifyHmac(Hex.decode(payloadAsHex), Hex.decode(hmacAsHex), secretKey)) {
-            return Hex.decode(payloadAsHex);
+        // first part is raw message, last 32 bytes is hmac
+        int sep = payloadWithHmac.length - HMAC_LENGTH;
+        if (sep < 0)
+            throw new CryptoException("Payload is shorter than the hmac.");
+
+        byte[] payload = Arrays.copyOfRange(payloadWithHmac, 0, sep);
+        byte[] hmac = Arrays.copyOfRange(payloadWithHmac, sep, payloadWithHmac.length);
+        if (verifyHmac(payload, hmac, secretKey)) {
+            return payload;
         } else {
             throw new CryptoException("Hmac does not match.");
         }
@@ -174,7 +174,7 @@ public class Encryption {
 
     public static byte[] encryptSecretKey(SecretKey secretKey, PublicKey publicKey) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(ASYM_CIPHER, "BC");
+            Cipher cipher = CryptoPrimitives.getCipher(ASYM_CIPHER);
             cipher.init(Cipher.WRAP_MODE, publicKey);
             return cipher.wrap(secretKey);
         } catch (Throwable e) {
@@ -185,7 +185,7 @@ public class Encryption {
 
     public static SecretKey decryptSecretKey(byte[] encryptedSecretKey, PrivateKey privateKey) throws CryptoException {
         try {
-            Cipher cipher = Cipher.getInstance(ASYM_CIPHER, "BC");
+            Cipher cipher = CryptoPrimitives.getCipher(ASYM_CIPHER);
             cipher.init(Cipher.UNWRAP_MODE, privateKey);
             return (SecretKey) cipher.unwrap(encryptedSecretKey, "AES", Cipher.SECRET_KEY);
         } catch (Throwable e) {
@@ -226,7 +226,7 @@ public class Encryption {
      */
     public static PublicKey getPublicKeyFromBytes(byte[] encryptionPubKeyBytes) {
         try {
-            return KeyFactory.getInstance(Encryption.ASYM_KEY_ALGO, "BC").generatePublic(new X509EncodedKeySpec(encryptionPubKeyBytes));
+            return CryptoPrimitives.getKeyFactory(Encryption.ASYM_KEY_ALGO).generatePublic(new X509EncodedKeySpec(encryptionPubKeyBytes));
         } catch (InvalidKeySpecException | NoSuchAlgorithmException | NoSuchProviderException e) {
             log.error("Error creating sigPublicKey from bytes. sigPublicKeyBytes as hex={}, error={}", Utilities.bytesAsHexString(encryptionPubKeyBytes), e);
             e.printStackTrace();
@@ -71,7 +71,7 @@ public class Sig {
      */
     public static byte[] sign(PrivateKey privateKey, byte[] data) throws CryptoException {
         try {
-            Signature sig = Signature.getInstance(ALGO, "BC");
+            Signature sig = CryptoPrimitives.getSignature(ALGO);
             sig.initSign(privateKey);
             sig.update(data);
             return sig.sign();
@@ -104,7 +104,7 @@ public class Sig {
      */
     public static boolean verify(PublicKey publicKey, byte[] data, byte[] signature) throws CryptoException {
         try {
-            Signature sig = Signature.getInstance(ALGO, "BC");
+            Signature sig = CryptoPrimitives.getSignature(ALGO);
             sig.initVerify(publicKey);
             sig.update(data);
             return sig.verify(signature);
@@ -132,7 +132,7 @@ public class Sig {
      */
     public static PublicKey getPublicKeyFromBytes(byte[] sigPublicKeyBytes) {
         try {
-            return KeyFactory.getInstance(Sig.KEY_ALGO, "BC").generatePublic(new X509EncodedKeySpec(sigPublicKeyBytes));
+            return CryptoPrimitives.getKeyFactory(Sig.KEY_ALGO).generatePublic(new X509EncodedKeySpec(sigPublicKeyBytes));
         } catch (InvalidKeySpecException | NoSuchAlgorithmException | NoSuchProviderException e) {
             log.error("Error creating sigPublicKey from bytes. sigPublicKeyBytes as hex={}, error={}", Utilities.bytesAsHexString(sigPublicKeyBytes), e);
             e.printStackTrace();
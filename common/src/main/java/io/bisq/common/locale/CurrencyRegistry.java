@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.locale;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Immutable snapshot of all supported fiat and crypto currencies with lookups by currency code.
+ * The instances in the sorted lists and the ones returned by the lookups are the same, so callers get always the
+ * same TradeCurrency instance for a currency code.
+ * Gets built by CurrencyUtil and replaced if the base currency changes.
+ */
+final class CurrencyRegistry {
+    private final List<FiatCurrency> allSortedFiatCurrencies;
+    private final List<CryptoCurrency> allSortedCryptoCurrencies;
+    private final Map<String, FiatCurrency> fiatCurrenciesByCode;
+    private final Map<String, CryptoCurrency> cryptoCurrenciesByCode;
+
+    CurrencyRegistry(List<FiatCurrency> allSortedFiatCurrencies, List<CryptoCurrency> allSortedCryptoCurrencies) {
+        this.allSortedFiatCurrencies = Collections.unmodifiableList(new ArrayList<>(allSortedFiatCurrencies));
+        this.allSortedCryptoCurrencies = Collections.unmodifiableList(new ArrayList<>(allSortedCryptoCurrencies));
+        this.fiatCurrenciesByCode = Collections.unmodifiableMap(toMapByCode(this.allSortedFiatCurrencies));
+        this.cryptoCurrenciesByCode = Collections.unmodifiableMap(toMapByCode(this.allSortedCryptoCurrencies));
+    }
+
+    List<FiatCurrency> getAllSortedFiatCurrencies() {
+        return allSortedFiatCurrencies;
+    }
+
+    List<CryptoCurrency> getAllSortedCryptoCurrencies() {
+        return allSortedCryptoCurrencies;
+    }
+
+    @Nullable
+    FiatCurrency getFiatCurrency(@Nullable String currencyCode) {
+        return currencyCode != null ? fiatCurrenciesByCode.get(currencyCode) : null;
+    }
+
+    @Nullable
+    CryptoCurrency getCryptoCurrency(@Nullable String currencyCode) {
+        return currencyCode != null ? cryptoCurrenciesByCode.get(currencyCode) : null;
+    }
+
+    // If a code is in the list twice we keep the first instance like the former linear search did
+    private static <T extends TradeCurrency> Map<String, T> toMapByCode(List<T> currencies) {
+        Map<String, T> map = new HashMap<>(currencies.size() * 2);
+        currencies.forEach(currency -> map.putIfAbsent(currency.getCode(), currency));
+        return map;
+    }
+}
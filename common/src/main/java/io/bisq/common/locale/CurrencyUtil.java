@@ -21,6 +21,7 @@ import io.bisq.common.GlobalSettings;
 import io.bisq.common.app.DevEnv;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -28,11 +29,23 @@ import java.util.stream.Collectors;
 public class CurrencyUtil {
     private static String baseCurrencyCode = "BTC";
 
+    // Built lazily at first access and rebuilt if the base currency changes as the crypto currencies depend on it
+    @Nullable
+    private static volatile CurrencyRegistry currencyRegistry;
+
     public static void setBaseCurrencyCode(String baseCurrencyCode) {
         CurrencyUtil.baseCurrencyCode = baseCurrencyCode;
+        currencyRegistry = null;
     }
 
-    private static List<FiatCurrency> allSortedFiatCurrencies;
+    private static CurrencyRegistry getCurrencyRegistry() {
+        CurrencyRegistry registry = currencyRegistry;
+        if (registry == null) {
+            registry = new CurrencyRegistry(createAllSortedFiatCurrenciesList(), createAllSortedCryptoCurrenciesList());
+            currencyRegistry = registry;
+        }
+        return registry;
+    }
 
     private static List<FiatCurrency> createAllSortedFiatCurrenciesList() {
         Set<FiatCurrency> set = CountryUtil.getAllCountries().stream()
@@ -43,11 +56,9 @@ public class CurrencyUtil {
         return list;
     }
 
+    // Returns an unmodifiable list
     public static List<FiatCurrency> getAllSortedFiatCurrencies() {
-        if (Objects.isNull(allSortedFiatCurrencies)) {
-            allSortedFiatCurrencies = createAllSortedFiatCurrenciesList();
-        }
-        return allSortedFiatCurrencies;
+        return getCurrencyRegistry().getAllSortedFiatCurrencies();
     }
 
 
@@ -74,12 +85,9 @@ public class CurrencyUtil {
         return list;
     }
 
-    private static List<CryptoCurrency> allSortedCryptoCurrencies;
-
+    // Returns an unmodifiable list
     public static List<CryptoCurrency> getAllSortedCryptoCurrencies() {
-        if (allSortedCryptoCurrencies == null)
-            allSortedCryptoCurrencies = createAllSortedCryptoCurrenciesList();
-        return allSortedCryptoCurrencies;
+        return getCurrencyRegistry().getAllSortedCryptoCurrencies();
     }
 
     // Don't make a PR for adding a coin but follow the steps described here:
@@ -232,41 +240,43 @@ public class CurrencyUtil {
     }
 
     public static boolean isFiatCurrency(String currencyCode) {
+        CurrencyRegistry registry = getCurrencyRegistry();
+        if (registry.getCryptoCurrency(currencyCode) != null)
+            return false;
+        if (registry.getFiatCurrency(currencyCode) != null)
+            return true;
+
+        // Currencies which are not used in any country (e.g. XAU) are not in the registry
         try {
-            return currencyCode != null && !currencyCode.isEmpty() && !isCryptoCurrency(currencyCode) && Currency.getInstance(currencyCode) != null;
+            return currencyCode != null && !currencyCode.isEmpty() && Currency.getInstance(currencyCode) != null;
         } catch (Throwable t) {
             return false;
         }
     }
 
     public static Optional<FiatCurrency> getFiatCurrency(String currencyCode) {
-        return getAllSortedFiatCurrencies().stream().filter(e -> e.getCode().equals(currencyCode)).findAny();
+        return Optional.ofNullable(getCurrencyRegistry().getFiatCurrency(currencyCode));
     }
 
     @SuppressWarnings("WeakerAccess")
     public static boolean isCryptoCurrency(String currencyCode) {
-        return getCryptoCurrency(currencyCode).isPresent();
+        return getCurrencyRegistry().getCryptoCurrency(currencyCode) != null;
     }
 
     public static Optional<CryptoCurrency> getCryptoCurrency(String currencyCode) {
-        return getAllSortedCryptoCurrencies().stream().filter(e -> e.getCode().equals(currencyCode)).findAny();
+        return Optional.ofNullable(getCurrencyRegistry().getCryptoCurrency(currencyCode));
     }
 
     public static Optional<TradeCurrency> getTradeCurrency(String currencyCode) {
-        Optional<FiatCurrency> fiatCurrencyOptional = getFiatCurrency(currencyCode);
-        if (isFiatCurrency(currencyCode) && fiatCurrencyOptional.isPresent()) {
-            return Optional.of(fiatCurrencyOptional.get());
-        } else {
-            Optional<CryptoCurrency> cryptoCurrencyOptional = getCryptoCurrency(currencyCode);
-            if (isCryptoCurrency(currencyCode) && cryptoCurrencyOptional.isPresent()) {
-                return Optional.of(cryptoCurrencyOptional.get());
-            } else {
-                return Optional.<TradeCurrency>empty();
-            }
-        }
+        CurrencyRegistry registry = getCurrencyRegistry();
+        // A fiat currency is never a crypto currency as well (see isFiatCurrency)
+        CryptoCurrency cryptoCurrency = registry.getCryptoCurrency(currencyCode);
+        if (cryptoCurrency != null)
+            return Optional.of(cryptoCurrency);
+        else
+            return Optional.ofNullable(registry.getFiatCurrency(currencyCode));
     }
 
-
     public static FiatCurrency getCurrencyByCountryCode(String countryCode) {
         if (countryCode.equals("XK"))
             return new FiatCurrency("EUR");
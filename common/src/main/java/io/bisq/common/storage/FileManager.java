@@ -18,31 +18,21 @@
 package io.bisq.common.storage;
 
 import com.google.common.util.concurrent.CycleDetectingLockFactory;
-import io.bisq.common.UserThread;
 import io.bisq.common.proto.persistable.PersistableEnvelope;
 import io.bisq.common.proto.persistable.PersistenceProtoResolver;
-import io.bisq.common.util.Utilities;
 import io.bisq.generated.protobuffer.PB;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.*;
 import java.nio.file.Paths;
-import java.util.Random;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReentrantLock;
 
 @Slf4j
 public class FileManager<T extends PersistableEnvelope> {
     private final File dir;
     private final File storageFile;
-    private final ScheduledThreadPoolExecutor executor;
-    private final AtomicBoolean savePending;
     private final long delay;
-    private final Callable<Void> saveFileTask;
-    private T persistable;
+    private volatile T persistable;
     private final PersistenceProtoResolver persistenceProtoResolver;
     private final ReentrantLock writeLock = CycleDetectingLockFactory.newInstance(CycleDetectingLockFactory.Policies.THROW).newReentrantLock("writeLock");
 
@@ -55,29 +45,7 @@ public class FileManager<T extends PersistableEnvelope> {
         this.storageFile = storageFile;
         this.persistenceProtoResolver = persistenceProtoResolver;
 
-        executor = Utilities.getScheduledThreadPoolExecutor("FileManager", 1, 10, 5);
-
-        // File must only be accessed from the auto-save executor from now on, to avoid simultaneous access.
-        savePending = new AtomicBoolean();
         this.delay = delay;
-
-        saveFileTask = () -> {
-            try {
-                Thread.currentThread().setName("Save-file-task-" + new Random().nextInt(10000));
-                // Runs in an auto save thread.
-                if (!savePending.getAndSet(false)) {
-                    // Some other scheduled request already beat us to it.
-                    return null;
-                }
-                saveNowInternal(persistable);
-            } catch (Throwable e) {
-                log.error("Error during saveFileTask", e);
-            }
-            return null;
-        };
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            UserThread.execute(FileManager.this::shutDown);
-        }, "FileManager.ShutDownHook"));
     }
 
 
@@ -89,11 +57,13 @@ public class FileManager<T extends PersistableEnvelope> {
      * Actually write the wallet file to disk, using an atomic rename when possible. Runs on the current thread.
      */
     public void saveNow(T persistable) {
-        saveNowInternal(persistable);
+        StorageScheduler.saveNow(storageFile, () -> saveNowInternal(persistable));
     }
 
     /**
      * Queues up a save in the background. Useful for not very important wallet changes.
+     * Saves are executed at the StorageScheduler thread. Repeated calls before the save got executed only write the
+     * latest persistable.
      */
     public void saveLater(T persistable) {
         saveLater(persistable, delay);
@@ -101,11 +71,7 @@ public class FileManager<T extends PersistableEnvelope> {
 
     public void saveLater(T persistable, long delayInMilli) {
         this.persistable = persistable;
-
-        if (savePending.getAndSet(true))
-            return;   // Already pending.
-
-        executor.schedule(saveFileTask, delayInMilli, TimeUnit.MILLISECONDS);
+        StorageScheduler.saveLater(storageFile, delayInMilli, () -> saveNowInternal(this.persistable));
     }
 
     @SuppressWarnings("unchecked")
@@ -141,19 +107,6 @@ public class FileManager<T extends PersistableEnvelope> {
         }
     }
 
-
-    /**
-     * Shut down auto-saving.
-     */
-    void shutDown() {
-        executor.shutdown();
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
-    }
-
     public synchronized void removeAndBackupFile(String fileName) throws IOException {
         File corruptedBackupDir = new File(Paths.get(dir.getAbsolutePath(), "backup_of_corrupted_data").toString());
         if (!corruptedBackupDir.exists())
@@ -172,13 +125,16 @@ public class FileManager<T extends PersistableEnvelope> {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private void saveNowInternal(T persistable) {
+    // Returns the number of bytes written
+    private long saveNowInternal(T persistable) {
         long now = System.currentTimeMillis();
-        saveToFile(persistable, dir, storageFile);
+        long bytes = saveToFile(persistable, dir, storageFile);
         log.trace("Save {} completed in {} msec", storageFile, System.currentTimeMillis() - now);
+        return bytes;
     }
 
-    private synchronized void saveToFile(T persistable, File dir, File storageFile) {
+    private synchronized long saveToFile(T persistable, File dir, File storageFile) {
+        long bytes = 0;
         File tempFile = null;
         FileOutputStream fileOutputStream = null;
         PrintWriter printWriter = null;
@@ -200,7 +156,8 @@ public class FileManager<T extends PersistableEnvelope> {
                 log.warn("make dir failed");
 
             tempFile = File.createTempFile("temp", null, dir);
-            tempFile.deleteOnExit();
+            if (!StorageScheduler.isShuttingDown())
+                tempFile.deleteOnExit();
             fileOutputStream = new FileOutputStream(tempFile);
 
             log.debug("Writing protobuffer class:{} to file:{}", persistable.getClass(), storageFile.getName());
@@ -217,6 +174,7 @@ public class FileManager<T extends PersistableEnvelope> {
             // when rename temp file
             fileOutputStream.close();
             FileUtil.renameFile(tempFile, storageFile);
+            bytes = storageFile.length();
         } catch (Throwable t) {
             log.error("Error at saveToFile, storageFile=" + storageFile.toString(), t);
         } finally {
@@ -240,5 +198,6 @@ public class FileManager<T extends PersistableEnvelope> {
                 log.error("Cannot close resources." + e.getMessage());
             }
         }
+        return bytes;
     }
 }
@@ -17,7 +17,6 @@
 
 package io.bisq.common.storage;
 
-import io.bisq.common.UserThread;
 import io.bisq.common.util.Utilities;
 import lombok.extern.slf4j.Slf4j;
 import org.json.simple.parser.JSONParser;
@@ -27,13 +26,13 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.Arrays;
 
 @Slf4j
 public class JsonFileManager {
-    private final ThreadPoolExecutor executor = Utilities.getThreadPoolExecutor("saveToDiscExecutor", 5, 50, 60);
     private final File dir;
 
 
@@ -47,29 +46,38 @@ public class JsonFileManager {
         if (!dir.exists())
             if (!dir.mkdir())
                 log.warn("make dir failed");
-
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            UserThread.execute(JsonFileManager.this::shutDown);
-        }, "WriteOnlyFileManager.ShutDownHook"));
     }
 
+    // Writes all pending files of all JsonFileManager and FileManager instances
     public void shutDown() {
-        executor.shutdown();
-        try {
-            executor.awaitTermination(5, TimeUnit.SECONDS);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-        }
+        StorageScheduler.flush();
     }
 
+    // Files are written at the StorageScheduler thread. If the same file is written again before the previous write
+    // got executed only the latest json gets written.
     public void writeToDisc(String json, String fileName) {
-        executor.execute(() -> {
-            File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
+        writeToDisc(json, fileName, false);
+    }
+
+    // Like writeToDisc but the file is not written if it exists already with the same content
+    public void writeToDiscIfChanged(String json, String fileName) {
+        writeToDisc(json, fileName, true);
+    }
+
+    private void writeToDisc(String json, String fileName, boolean onlyIfChanged) {
+        File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
+        StorageScheduler.saveLater(jsonFile, 0, () -> {
+            if (onlyIfChanged && hasContent(jsonFile, json)) {
+                log.trace("{} is unchanged. We don't write it.", jsonFile);
+                return 0;
+            }
+
+            long bytes = 0;
             File tempFile = null;
             PrintWriter printWriter = null;
             try {
                 tempFile = File.createTempFile("temp", null, dir);
-                if (!executor.isShutdown() && !executor.isTerminated() && !executor.isTerminating())
+                if (!StorageScheduler.isShuttingDown())
                     tempFile.deleteOnExit();
 
                 printWriter = new PrintWriter(tempFile);
@@ -87,6 +95,7 @@ public class JsonFileManager {
                 } else if (!tempFile.renameTo(jsonFile)) {
                     throw new IOException("Failed to rename " + tempFile + " to " + jsonFile);
                 }
+                bytes = jsonFile.length();
             } catch (Throwable t) {
                 log.error("storageFile " + jsonFile.toString());
                 t.printStackTrace();
@@ -100,9 +109,27 @@ public class JsonFileManager {
                 if (printWriter != null)
                     printWriter.close();
             }
+            return bytes;
         });
     }
 
+    // The json is written with println, so the file ends with a line separator
+    private static boolean hasContent(File jsonFile, String json) {
+        if (!jsonFile.exists())
+            return false;
+
+        byte[] expected = (json + System.lineSeparator()).getBytes(Charset.defaultCharset());
+        if (jsonFile.length() != expected.length)
+            return false;
+
+        try {
+            return Arrays.equals(Files.readAllBytes(jsonFile.toPath()), expected);
+        } catch (IOException e) {
+            log.warn("Reading " + jsonFile + " failed. " + e.toString());
+            return false;
+        }
+    }
+
     public Object readJsonFromDisc(String fileName) {
         final File jsonFile = new File(Paths.get(dir.getAbsolutePath(), fileName + ".json").toString());
         JSONParser parser = new JSONParser();
@@ -0,0 +1,203 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.storage;
+
+import io.bisq.common.util.Utilities;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Single I/O thread shared by all FileManager and JsonFileManager instances.
+ * Repeated saves of the same file before the scheduled save got executed are coalesced, only the last save task
+ * gets executed. At shutdown all pending saves are executed in the order they have been scheduled.
+ * Saves are executed one after another, so we don't get many parallel fsync calls when several files get saved at
+ * the same time (e.g. at a trade step).
+ */
+@Slf4j
+public class StorageScheduler {
+    private static final long SHUT_DOWN_TIMEOUT_SEC = 10;
+
+    private static final ScheduledThreadPoolExecutor executor = Utilities.getScheduledThreadPoolExecutor("StorageScheduler", 1, 1, 60);
+    private static final Map<File, PendingSave> pendingSaves = new ConcurrentHashMap<>();
+    private static final Map<String, SaveMetrics> saveMetrics = new ConcurrentHashMap<>();
+    private static final AtomicLong sequenceNumber = new AtomicLong();
+    private static volatile boolean shuttingDown;
+
+    static {
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        // We want to know if a task got rejected so we can run it at the calling thread instead
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        Runtime.getRuntime().addShutdownHook(new Thread(StorageScheduler::shutDown, "StorageScheduler.ShutDownHook"));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Schedules a save of the file. If a save of the file is pending already we only replace its save task.
+     * Once the shutdown has started the save is executed at the calling thread.
+     *
+     * @param saveTask Writes the file and returns the number of bytes written
+     */
+    static void saveLater(File file, long delayInMilli, LongSupplier saveTask) {
+        if (!shuttingDown && !executor.isShutdown()) {
+            try {
+                pendingSaves.compute(file, (key, pendingSave) -> {
+                    if (pendingSave != null) {
+                        pendingSave.saveTask = saveTask;
+                        return pendingSave;
+                    }
+
+                    executor.schedule(() -> executePendingSave(file), delayInMilli, TimeUnit.MILLISECONDS);
+                    return new PendingSave(saveTask);
+                });
+                return;
+            } catch (RejectedExecutionException e) {
+                log.debug("StorageScheduler got shut down while scheduling the save of " + file);
+            }
+        }
+
+        pendingSaves.remove(file);
+        execute(file, saveTask);
+    }
+
+    // Runs the save task at the calling thread
+    static void saveNow(File file, LongSupplier saveTask) {
+        long ts = System.currentTimeMillis();
+        long bytes = saveTask.getAsLong();
+        saveMetrics.computeIfAbsent(file.getName(), k -> new SaveMetrics()).record(bytes, System.currentTimeMillis() - ts);
+    }
+
+    // Executes all pending saves now and waits until they are completed. If the executor is shut down already the
+    // remaining saves are executed at the calling thread.
+    public static void flush() {
+        if (!executor.isShutdown()) {
+            try {
+                executor.submit(StorageScheduler::executeAllPendingSaves).get(SHUT_DOWN_TIMEOUT_SEC, TimeUnit.SECONDS);
+                return;
+            } catch (RejectedExecutionException e) {
+                log.debug("StorageScheduler got shut down while flushing.");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException | TimeoutException e) {
+                log.error("Flushing pending saves failed. " + e.toString());
+                return;
+            }
+        }
+
+        executeAllPendingSaves();
+    }
+
+    public static void shutDown() {
+        shuttingDown = true;
+        flush();
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUT_DOWN_TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // File.deleteOnExit must not be called once the JVM shutdown has started
+    static boolean isShuttingDown() {
+        return shuttingDown;
+    }
+
+    // Number of saves, bytes written and save duration per file name. Used by seed nodes for logging.
+    public static String getSaveMetricsAsString() {
+        StringBuilder sb = new StringBuilder("Saved files (number of saves, bytes written, duration in ms):");
+        new TreeMap<>(saveMetrics).forEach((fileName, metrics) -> sb.append("\n")
+                .append(fileName).append(": ").append(metrics));
+        return sb.toString();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static void executePendingSave(File file) {
+        PendingSave pendingSave = pendingSaves.remove(file);
+        if (pendingSave != null)
+            execute(file, pendingSave.saveTask);
+    }
+
+    private static void executeAllPendingSaves() {
+        List<Map.Entry<File, PendingSave>> entries = pendingSaves.entrySet().stream()
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().sequenceNumber))
+                .collect(Collectors.toList());
+        entries.forEach(entry -> {
+            if (pendingSaves.remove(entry.getKey(), entry.getValue()))
+                execute(entry.getKey(), entry.getValue().saveTask);
+        });
+    }
+
+    private static void execute(File file, LongSupplier saveTask) {
+        try {
+            saveNow(file, saveTask);
+        } catch (Throwable t) {
+            log.error("Error at saving " + file, t);
+        }
+    }
+
+    private static final class PendingSave {
+        private final long sequenceNumber = StorageScheduler.sequenceNumber.incrementAndGet();
+        private volatile LongSupplier saveTask;
+
+        PendingSave(LongSupplier saveTask) {
+            this.saveTask = saveTask;
+        }
+    }
+
+    private static final class SaveMetrics {
+        private final LongAdder numSaves = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder duration = new LongAdder();
+        private final AtomicLong maxDuration = new AtomicLong();
+
+        void record(long bytes, long duration) {
+            numSaves.increment();
+            this.bytes.add(bytes);
+            this.duration.add(duration);
+            maxDuration.accumulateAndGet(duration, Math::max);
+        }
+
+        @Override
+        public String toString() {
+            long numSaves = this.numSaves.sum();
+            return "saves=" + numSaves +
+                    ", bytes=" + bytes.sum() +
+                    ", avgDuration=" + (numSaves > 0 ? duration.sum() / numSaves : 0) +
+                    ", maxDuration=" + maxDuration.get();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+
+public class HashedWheelTimerTest {
+
+    @Test
+    public void testRunLater() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long ts = System.currentTimeMillis();
+        new HashedWheelTimer().runLater(Duration.ofMillis(50), latch::countDown);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - ts >= 50);
+    }
+
+    @Test
+    public void testRunLaterLongerThanOneRound() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        long ts = System.currentTimeMillis();
+        new HashedWheelTimer().runLater(Duration.ofMillis(5500), latch::countDown);
+        assertTrue(latch.await(7, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - ts >= 5500);
+    }
+
+    @Test
+    public void testStop() throws InterruptedException {
+        AtomicInteger counter = new AtomicInteger();
+        Timer timer = new HashedWheelTimer().runLater(Duration.ofMillis(50), counter::incrementAndGet);
+        timer.stop();
+        Thread.sleep(200);
+        assertEquals(0, counter.get());
+    }
+
+    @Test
+    public void testRunPeriodically() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(3);
+        Timer timer = new HashedWheelTimer().runPeriodically(Duration.ofMillis(20), latch::countDown);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        timer.stop();
+    }
+
+    // Compares scheduling, stopping and the latency of a short timer with 10000 active timers.
+    // Not run by default as it takes a few seconds.
+    @Ignore
+    @Test
+    public void benchmark() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            runBenchmark("FrameRateTimer", FrameRateTimer::new);
+            runBenchmark("HashedWheelTimer", HashedWheelTimer::new);
+        }
+    }
+
+    private void runBenchmark(String name, Supplier<Timer> timerFactory) throws InterruptedException {
+        int numTimers = 10000;
+        List<Timer> timers = new ArrayList<>(numTimers);
+        long ts = System.nanoTime();
+        for (int i = 0; i < numTimers; i++)
+            timers.add(timerFactory.get().runLater(Duration.ofMinutes(10), () -> {
+            }));
+        long scheduleTime = System.nanoTime() - ts;
+
+        long latency = 0;
+        int numSamples = 10;
+        for (int i = 0; i < numSamples; i++) {
+            CountDownLatch latch = new CountDownLatch(1);
+            ts = System.nanoTime();
+            timerFactory.get().runLater(Duration.ofMillis(20), latch::countDown);
+            latch.await();
+            latency += System.nanoTime() - ts;
+        }
+
+        ts = System.nanoTime();
+        timers.forEach(Timer::stop);
+        long stopTime = System.nanoTime() - ts;
+
+        System.out.println(name + ": schedule " + numTimers + " timers: " + TimeUnit.NANOSECONDS.toMicros(scheduleTime) +
+                " us, stop: " + TimeUnit.NANOSECONDS.toMicros(stopTime) +
+                " us, avg. firing time of a 20 ms timer: " + TimeUnit.NANOSECONDS.toMillis(latency / numSamples) + " ms");
+    }
+}
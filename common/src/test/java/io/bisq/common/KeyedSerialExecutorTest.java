@@ -0,0 +1,87 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeyedSerialExecutorTest {
+    private final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    private final KeyedSerialExecutor executor = new KeyedSerialExecutor(executorService);
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void testOrderPerKey() throws InterruptedException {
+        int numCommands = 1000;
+        List<Integer> resultA = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> resultB = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(2 * numCommands);
+        AtomicInteger runningA = new AtomicInteger();
+        AtomicInteger maxRunningA = new AtomicInteger();
+        for (int i = 0; i < numCommands; i++) {
+            int value = i;
+            executor.execute("A", () -> {
+                maxRunningA.accumulateAndGet(runningA.incrementAndGet(), Math::max);
+                resultA.add(value);
+                runningA.decrementAndGet();
+                latch.countDown();
+            });
+            executor.execute("B", () -> {
+                resultB.add(value);
+                latch.countDown();
+            });
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(1, maxRunningA.get());
+        for (int i = 0; i < numCommands; i++) {
+            assertEquals(i, (int) resultA.get(i));
+            assertEquals(i, (int) resultB.get(i));
+        }
+    }
+
+    @Test
+    public void testKeysRunInParallel() throws InterruptedException {
+        CountDownLatch blockA = new CountDownLatch(1);
+        CountDownLatch doneB = new CountDownLatch(1);
+        executor.execute("A", () -> {
+            try {
+                blockA.await();
+            } catch (InterruptedException ignore) {
+            }
+        });
+        executor.execute("B", doneB::countDown);
+        assertTrue(doneB.await(5, TimeUnit.SECONDS));
+        blockA.countDown();
+    }
+}
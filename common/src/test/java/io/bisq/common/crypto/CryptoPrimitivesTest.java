@@ -0,0 +1,139 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.crypto;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.BeforeClass;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.Security;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.*;
+
+public class CryptoPrimitivesTest {
+
+    @BeforeClass
+    public static void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    @Test
+    public void testInstancesPerThread() throws Exception {
+        MessageDigest messageDigest = CryptoPrimitives.getMessageDigest("SHA-256");
+        assertSame(messageDigest, CryptoPrimitives.getMessageDigest("SHA-256"));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertNotSame(messageDigest, executor.submit(() -> CryptoPrimitives.getMessageDigest("SHA-256")).get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // A digest which was left with pending data gets reset
+        messageDigest.update(new byte[]{1, 2, 3});
+        assertArrayEquals(MessageDigest.getInstance("SHA-256").digest(new byte[]{4}), Hash.getSha256Hash(new byte[]{4}));
+    }
+
+    @Test
+    public void testReusedInstances() throws CryptoException {
+        KeyPair signatureKeyPair = Sig.generateKeyPair();
+        KeyPair encryptionKeyPair = Encryption.generateKeyPair();
+        byte[] payload = new byte[1000];
+        new Random().nextBytes(payload);
+
+        // Each round uses the same thread local instances
+        for (int i = 0; i < 3; i++) {
+            byte[] signature = Sig.sign(signatureKeyPair.getPrivate(), payload);
+            assertTrue(Sig.verify(signatureKeyPair.getPublic(), payload, signature));
+            assertFalse(Sig.verify(signatureKeyPair.getPublic(), new byte[]{1}, signature));
+
+            SecretKey secretKey = Encryption.generateSecretKey();
+            byte[] encryptedSecretKey = Encryption.encryptSecretKey(secretKey, encryptionKeyPair.getPublic());
+            SecretKey decryptedSecretKey = Encryption.decryptSecretKey(encryptedSecretKey, encryptionKeyPair.getPrivate());
+            assertArrayEquals(secretKey.getEncoded(), decryptedSecretKey.getEncoded());
+
+            byte[] encryptedPayload = Encryption.encryptPayloadWithHmac(payload, secretKey);
+            assertArrayEquals(payload, Encryption.decryptPayloadWithHmac(encryptedPayload, decryptedSecretKey));
+        }
+    }
+
+    // Measures the throughput of the crypto operations at typical payload sizes, from small storage entries up to
+    // mailbox messages. Not run by default as it takes a while.
+    @Ignore
+    @Test
+    public void benchmark() throws CryptoException {
+        KeyPair signatureKeyPair = Sig.generateKeyPair();
+        KeyPair encryptionKeyPair = Encryption.generateKeyPair();
+        int numRuns = 1000;
+        for (int payloadSize : new int[]{100, 1_000, 10_000, 100_000}) {
+            byte[] payload = new byte[payloadSize];
+            new Random().nextBytes(payload);
+
+            long ts = System.nanoTime();
+            for (int i = 0; i < numRuns; i++)
+                Hash.getSha256Hash(payload);
+            long hashTime = System.nanoTime() - ts;
+
+            byte[] signature = null;
+            ts = System.nanoTime();
+            for (int i = 0; i < numRuns; i++)
+                signature = Sig.sign(signatureKeyPair.getPrivate(), payload);
+            long signTime = System.nanoTime() - ts;
+
+            ts = System.nanoTime();
+            for (int i = 0; i < numRuns; i++)
+                Sig.verify(signatureKeyPair.getPublic(), payload, signature);
+            long verifyTime = System.nanoTime() - ts;
+
+            SecretKey secretKey = Encryption.generateSecretKey();
+            byte[] encryptedSecretKey = null;
+            byte[] encryptedPayload = null;
+            ts = System.nanoTime();
+            for (int i = 0; i < numRuns; i++) {
+                encryptedSecretKey = Encryption.encryptSecretKey(secretKey, encryptionKeyPair.getPublic());
+                encryptedPayload = Encryption.encryptPayloadWithHmac(payload, secretKey);
+            }
+            long encryptTime = System.nanoTime() - ts;
+
+            ts = System.nanoTime();
+            for (int i = 0; i < numRuns; i++) {
+                SecretKey decryptedSecretKey = Encryption.decryptSecretKey(encryptedSecretKey, encryptionKeyPair.getPrivate());
+                Encryption.decryptPayloadWithHmac(encryptedPayload, decryptedSecretKey);
+            }
+            long decryptTime = System.nanoTime() - ts;
+
+            System.out.println("Payload size " + payloadSize + " bytes, operations per sec.: " +
+                    "hash=" + getOpsPerSec(numRuns, hashTime) +
+                    ", sign=" + getOpsPerSec(numRuns, signTime) +
+                    ", verify=" + getOpsPerSec(numRuns, verifyTime) +
+                    ", encrypt=" + getOpsPerSec(numRuns, encryptTime) +
+                    ", decrypt=" + getOpsPerSec(numRuns, decryptTime));
+        }
+    }
+
+    private static long getOpsPerSec(int numRuns, long nanos) {
+        return numRuns * 1_000_000_000L / Math.max(1, nanos);
+    }
+}
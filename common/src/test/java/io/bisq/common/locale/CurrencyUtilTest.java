@@ -0,0 +1,60 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.common.locale;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CurrencyUtilTest {
+
+    @After
+    public void tearDown() {
+        CurrencyUtil.setBaseCurrencyCode("BTC");
+    }
+
+    @Test
+    public void testLookups() {
+        assertTrue(CurrencyUtil.isFiatCurrency("EUR"));
+        assertFalse(CurrencyUtil.isCryptoCurrency("EUR"));
+        assertTrue(CurrencyUtil.isCryptoCurrency("XMR"));
+        assertFalse(CurrencyUtil.isFiatCurrency("XMR"));
+        assertFalse(CurrencyUtil.isFiatCurrency(null));
+        assertFalse(CurrencyUtil.isFiatCurrency("XYZ"));
+        assertFalse(CurrencyUtil.getTradeCurrency("XYZ").isPresent());
+
+        // Lookups return the instances of the sorted lists
+        TradeCurrency eur = CurrencyUtil.getTradeCurrency("EUR").get();
+        assertTrue(eur instanceof FiatCurrency);
+        assertSame(eur, CurrencyUtil.getFiatCurrency("EUR").get());
+        assertTrue(CurrencyUtil.getAllSortedFiatCurrencies().stream().anyMatch(e -> e == eur));
+        TradeCurrency xmr = CurrencyUtil.getTradeCurrency("XMR").get();
+        assertSame(xmr, CurrencyUtil.getCryptoCurrency("XMR").get());
+        assertTrue(CurrencyUtil.getAllSortedCryptoCurrencies().stream().anyMatch(e -> e == xmr));
+    }
+
+    @Test
+    public void testBaseCurrencyChange() {
+        assertFalse(CurrencyUtil.isCryptoCurrency("BTC"));
+        CurrencyUtil.setBaseCurrencyCode("LTC");
+        assertTrue(CurrencyUtil.isCryptoCurrency("BTC"));
+        CurrencyUtil.setBaseCurrencyCode("BTC");
+        assertFalse(CurrencyUtil.isCryptoCurrency("BTC"));
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.bisq.common.storage;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class StorageSchedulerTest {
+    private static final long DELAY = 60_000;
+
+    @Test
+    public void testCoalescedSaves() {
+        File file = new File("StorageSchedulerTest_coalesced");
+        List<String> saved = Collections.synchronizedList(new ArrayList<>());
+
+        StorageScheduler.saveLater(file, DELAY, () -> save(saved, "1"));
+        StorageScheduler.saveLater(file, DELAY, () -> save(saved, "2"));
+        StorageScheduler.saveLater(file, DELAY, () -> save(saved, "3"));
+        StorageScheduler.flush();
+
+        // Only the last save task got executed
+        assertEquals(Collections.singletonList("3"), saved);
+
+        // Nothing pending anymore
+        StorageScheduler.flush();
+        assertEquals(1, saved.size());
+    }
+
+    @Test
+    public void testFlushInScheduledOrder() {
+        File fileA = new File("StorageSchedulerTest_A");
+        File fileB = new File("StorageSchedulerTest_B");
+        File fileC = new File("StorageSchedulerTest_C");
+        List<String> saved = Collections.synchronizedList(new ArrayList<>());
+
+        StorageScheduler.saveLater(fileA, DELAY, () -> save(saved, "A1"));
+        StorageScheduler.saveLater(fileB, DELAY, () -> save(saved, "B"));
+        StorageScheduler.saveLater(fileC, DELAY, () -> save(saved, "C"));
+        // A replaced save task keeps the position of the first scheduled save
+        StorageScheduler.saveLater(fileA, DELAY, () -> save(saved, "A2"));
+        StorageScheduler.flush();
+
+        assertEquals(Arrays.asList("A2", "B", "C"), saved);
+    }
+
+    private static long save(List<String> saved, String id) {
+        saved.add(id);
+        return 0;
+    }
+}
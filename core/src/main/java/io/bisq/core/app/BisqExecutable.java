@@ -116,6 +116,11 @@ public abstract class BisqExecutable {
         parser.accepts(AppOptionKeys.MAX_MEMORY,
                 description("Max. permitted memory (used only at headless versions)", 600))
                 .withRequiredArg();
+        parser.accepts(AppOptionKeys.NUM_USER_THREADS,
+                description("Number of threads for the user thread. If more than 1 the work of independent " +
+                        "connections can run in parallel (used only at seed nodes)", 1))
+                .withRequiredArg()
+                .ofType(int.class);
         parser.accepts(AppOptionKeys.APP_DATA_DIR_KEY,
                 description("Application data directory", BisqEnvironment.DEFAULT_APP_DATA_DIR))
                 .withRequiredArg();
@@ -22,6 +22,7 @@ import com.google.protobuf.Message;
 import io.bisq.common.proto.persistable.PersistableEnvelope;
 import io.bisq.common.proto.persistable.PersistedDataHost;
 import io.bisq.common.storage.Storage;
+import io.bisq.common.util.Utilities;
 import io.bisq.generated.protobuffer.PB;
 import lombok.Getter;
 import lombok.ToString;
@@ -29,15 +30,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.bitcoinj.crypto.DeterministicKey;
 import org.bitcoinj.wallet.Wallet;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * The List supporting our persistence solution.
+ * Besides the persisted list we keep transient indexes by offerId, by context and by address so lookups don't need
+ * to iterate over all entries. Within a context the entries are keyed by their pubKeyHash as a key is used only once
+ * per context. The indexes are only changed in add and remove.
  */
-@ToString
+@ToString(exclude = {"entriesByOfferId", "entriesByContext", "entriesByAddress"})
 @Slf4j
 public final class AddressEntryList implements PersistableEnvelope, PersistedDataHost {
     transient private Storage<AddressEntryList> storage;
@@ -45,6 +48,11 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     @Getter
     private List<AddressEntry> list;
 
+    transient private final Map<String, List<AddressEntry>> entriesByOfferId = new HashMap<>();
+    transient private final Map<AddressEntry.Context, Map<String, AddressEntry>> entriesByContext = new EnumMap<>(AddressEntry.Context.class);
+    // Address strings are only available once the keys are set at onWalletReady
+    transient private final Map<String, List<AddressEntry>> entriesByAddress = new HashMap<>();
+
     @Inject
     public AddressEntryList(Storage<AddressEntryList> storage) {
         this.storage = storage;
@@ -53,8 +61,12 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     @Override
     public void readPersisted() {
         AddressEntryList persisted = storage.initAndGetPersisted(this, 50);
-        if (persisted != null)
-            list = new ArrayList<>(persisted.getList());
+        if (persisted != null) {
+            synchronized (this) {
+                list = new ArrayList<>(persisted.getList());
+                rebuildIndexes();
+            }
+        }
     }
 
 
@@ -64,6 +76,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
 
     private AddressEntryList(List<AddressEntry> list) {
         this.list = list;
+        rebuildIndexes();
     }
 
     public static AddressEntryList fromProto(PB.AddressEntryList proto) {
@@ -85,7 +98,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    public void onWalletReady(Wallet wallet) {
+    public synchronized void onWalletReady(Wallet wallet) {
         this.wallet = wallet;
 
         if (list != null) {
@@ -97,6 +110,7 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
                     log.error("Key from addressEntry not found in that wallet " + addressEntry.toString());
                 }
             });
+            rebuildIndexes();
         } else {
             list = new ArrayList<>();
             add(new AddressEntry(wallet.freshReceiveKey(), AddressEntry.Context.ARBITRATOR));
@@ -104,33 +118,49 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
         }
     }
 
-    private boolean add(AddressEntry addressEntry) {
-        return list.add(addressEntry);
-    }
-
-    private boolean remove(AddressEntry addressEntry) {
-        return list.remove(addressEntry);
-    }
-
-    public AddressEntry addAddressEntry(AddressEntry addressEntry) {
+    public synchronized AddressEntry addAddressEntry(AddressEntry addressEntry) {
         boolean changed = add(addressEntry);
         if (changed)
             persist();
         return addressEntry;
     }
 
-    public void swapTradeToSavings(String offerId) {
-        list.stream().filter(addressEntry -> offerId.equals(addressEntry.getOfferId()))
-                .findAny().ifPresent(this::swapToAvailable);
+    public synchronized void swapTradeToSavings(String offerId) {
+        List<AddressEntry> entries = entriesByOfferId.get(offerId);
+        if (entries != null && !entries.isEmpty())
+            swapToAvailable(entries.get(0));
     }
 
-    public void swapToAvailable(AddressEntry addressEntry) {
+    public synchronized void swapToAvailable(AddressEntry addressEntry) {
         boolean changed2 = remove(addressEntry);
         boolean changed1 = add(new AddressEntry(addressEntry.getKeyPair(), AddressEntry.Context.AVAILABLE));
         if (changed1 || changed2)
             persist();
     }
 
+    public synchronized Optional<AddressEntry> getAddressEntry(String offerId, AddressEntry.Context context) {
+        return entriesByOfferId.getOrDefault(offerId, Collections.emptyList()).stream()
+                .filter(e -> context == e.getContext())
+                .findAny();
+    }
+
+    public synchronized Optional<AddressEntry> findAddressEntry(String address, AddressEntry.Context context) {
+        return entriesByAddress.getOrDefault(address, Collections.emptyList()).stream()
+                .filter(e -> context == e.getContext())
+                .findAny();
+    }
+
+    public synchronized Optional<AddressEntry> findAnyAddressEntry(AddressEntry.Context context) {
+        return getEntriesOfContext(context).values().stream().findAny();
+    }
+
+    public synchronized List<AddressEntry> getAddressEntries(AddressEntry.Context... contexts) {
+        List<AddressEntry> result = new ArrayList<>();
+        for (AddressEntry.Context context : contexts)
+            result.addAll(getEntriesOfContext(context).values());
+        return result;
+    }
+
     public void persist() {
         storage.queueUpForSave(50);
     }
@@ -138,4 +168,73 @@ public final class AddressEntryList implements PersistableEnvelope, PersistedDat
     public Stream<AddressEntry> stream() {
         return list.stream();
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private boolean add(AddressEntry addressEntry) {
+        boolean changed = list.add(addressEntry);
+        if (changed)
+            addToIndexes(addressEntry);
+        return changed;
+    }
+
+    private boolean remove(AddressEntry addressEntry) {
+        boolean changed = list.remove(addressEntry);
+        if (changed)
+            removeFromIndexes(addressEntry);
+        return changed;
+    }
+
+    private void rebuildIndexes() {
+        entriesByOfferId.clear();
+        entriesByContext.clear();
+        entriesByAddress.clear();
+        if (list != null)
+            list.forEach(this::addToIndexes);
+    }
+
+    private void addToIndexes(AddressEntry addressEntry) {
+        if (addressEntry.getOfferId() != null)
+            entriesByOfferId.computeIfAbsent(addressEntry.getOfferId(), k -> new ArrayList<>(2)).add(addressEntry);
+        entriesByContext.computeIfAbsent(addressEntry.getContext(), k -> new LinkedHashMap<>())
+                .putIfAbsent(getKey(addressEntry), addressEntry);
+        String addressString = addressEntry.getAddressString();
+        if (addressString != null)
+            entriesByAddress.computeIfAbsent(addressString, k -> new ArrayList<>(2)).add(addressEntry);
+    }
+
+    private void removeFromIndexes(AddressEntry addressEntry) {
+        String offerId = addressEntry.getOfferId();
+        if (offerId != null)
+            removeFromList(entriesByOfferId, offerId, addressEntry);
+
+        Map<String, AddressEntry> entriesOfContext = entriesByContext.get(addressEntry.getContext());
+        if (entriesOfContext != null)
+            entriesOfContext.remove(getKey(addressEntry), addressEntry);
+
+        String addressString = addressEntry.getAddressString();
+        if (addressString != null)
+            removeFromList(entriesByAddress, addressString, addressEntry);
+    }
+
+    // The lists of the offerId and address indexes hold only a few entries
+    private static void removeFromList(Map<String, List<AddressEntry>> map, String key, AddressEntry addressEntry) {
+        List<AddressEntry> entries = map.get(key);
+        if (entries != null) {
+            entries.remove(addressEntry);
+            if (entries.isEmpty())
+                map.remove(key);
+        }
+    }
+
+    private Map<String, AddressEntry> getEntriesOfContext(AddressEntry.Context context) {
+        return entriesByContext.getOrDefault(context, Collections.emptyMap());
+    }
+
+    private static String getKey(AddressEntry addressEntry) {
+        return Utilities.encodeToHex(addressEntry.getPubKeyHash());
+    }
 }
@@ -82,7 +82,7 @@ public class BsqWalletService extends WalletService {
                 wallet = walletsSetup.getBsqWallet();
                 if (wallet != null) {
                     wallet.setCoinSelector(bsqCoinSelector);
-                    wallet.addEventListener(walletEventListener);
+                    addWalletEventListeners();
 
                     //noinspection deprecation
                     wallet.addEventListener(new AbstractWalletEventListener() {
@@ -70,7 +70,7 @@ public class BtcWalletService extends WalletService {
 
         walletsSetup.addSetupCompletedHandler(() -> {
             wallet = walletsSetup.getBtcWallet();
-            wallet.addEventListener(walletEventListener);
+            addWalletEventListeners();
         });
     }
 
@@ -280,37 +280,24 @@ public class BtcWalletService extends WalletService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public Optional<AddressEntry> getAddressEntry(String offerId, @SuppressWarnings("SameParameterValue") AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        return addressEntryList.getAddressEntry(offerId, context);
     }
 
     public AddressEntry getOrCreateAddressEntry(String offerId, AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        Optional<AddressEntry> addressEntry = addressEntryList.getAddressEntry(offerId, context);
         if (addressEntry.isPresent()) {
             return addressEntry.get();
         } else {
-            AddressEntry entry = addressEntryList.addAddressEntry(new AddressEntry(wallet.freshReceiveKey(),
-                    context, offerId));
-            saveAddressEntryList();
-            return entry;
+            return addressEntryList.addAddressEntry(new AddressEntry(wallet.freshReceiveKey(), context, offerId));
         }
     }
 
     public AddressEntry getOrCreateAddressEntry(AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> context == e.getContext())
-                .findAny();
-        return getOrCreateAddressEntry(context, addressEntry);
+        return getOrCreateAddressEntry(context, addressEntryList.findAnyAddressEntry(context));
     }
 
     public AddressEntry getOrCreateUnusedAddressEntry(AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntry = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> context == e.getContext())
+        Optional<AddressEntry> addressEntry = addressEntryList.getAddressEntries(context).stream()
                 .filter(e -> getNumTxOutputsForAddress(e.getAddress()) == 0)
                 .findAny();
         return getOrCreateAddressEntry(context, addressEntry);
@@ -320,43 +307,30 @@ public class BtcWalletService extends WalletService {
         if (addressEntry.isPresent()) {
             return addressEntry.get();
         } else {
-            AddressEntry entry = addressEntryList.addAddressEntry(new AddressEntry(wallet.freshReceiveKey(), context));
-            saveAddressEntryList();
-            return entry;
+            return addressEntryList.addAddressEntry(new AddressEntry(wallet.freshReceiveKey(), context));
         }
     }
 
     private Optional<AddressEntry> findAddressEntry(String address, AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(e -> address.equals(e.getAddressString()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        return addressEntryList.findAddressEntry(address, context);
     }
 
     public List<AddressEntry> getAvailableAddressEntries() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.AVAILABLE == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return addressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE);
     }
 
     public List<AddressEntry> getAddressEntriesForOpenOffer() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.OFFER_FUNDING == addressEntry.getContext() ||
-                        AddressEntry.Context.RESERVED_FOR_TRADE == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return addressEntryList.getAddressEntries(AddressEntry.Context.OFFER_FUNDING,
+                AddressEntry.Context.RESERVED_FOR_TRADE);
     }
 
     public List<AddressEntry> getAddressEntriesForTrade() {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> AddressEntry.Context.MULTI_SIG == addressEntry.getContext() ||
-                        AddressEntry.Context.TRADE_PAYOUT == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return addressEntryList.getAddressEntries(AddressEntry.Context.MULTI_SIG,
+                AddressEntry.Context.TRADE_PAYOUT);
     }
 
     public List<AddressEntry> getAddressEntries(AddressEntry.Context context) {
-        return getAddressEntryListAsImmutableList().stream()
-                .filter(addressEntry -> context == addressEntry.getContext())
-                .collect(Collectors.toList());
+        return addressEntryList.getAddressEntries(context);
     }
 
     public List<AddressEntry> getFundedAvailableAddressEntries() {
@@ -370,15 +344,11 @@ public class BtcWalletService extends WalletService {
     }
 
     public void swapTradeEntryToAvailableEntry(String offerId, AddressEntry.Context context) {
-        Optional<AddressEntry> addressEntryOptional = getAddressEntryListAsImmutableList().stream()
-                .filter(e -> offerId.equals(e.getOfferId()))
-                .filter(e -> context == e.getContext())
-                .findAny();
+        Optional<AddressEntry> addressEntryOptional = addressEntryList.getAddressEntry(offerId, context);
         addressEntryOptional.ifPresent(e -> {
             log.info("swap addressEntry with address {} and offerId {} from context {} to available",
                     e.getAddressString(), e.getOfferId(), context);
             addressEntryList.swapToAvailable(e);
-            saveAddressEntryList();
         });
     }
 
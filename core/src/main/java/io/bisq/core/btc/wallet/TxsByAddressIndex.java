@@ -0,0 +1,172 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.btc.wallet;
+
+import org.bitcoinj.core.*;
+import org.bitcoinj.utils.Threading;
+import org.bitcoinj.wallet.Wallet;
+import org.bitcoinj.wallet.listeners.AbstractWalletEventListener;
+import org.bitcoinj.wallet.listeners.WalletEventListener;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Index of the transactions of a wallet by the addresses of their outputs and of the outputs they spend, so we don't
+ * need to iterate all transactions of the wallet to find the ones of an address.
+ * The index is updated from the wallet events at the thread which changes the wallet, so it is consistent with the
+ * wallet directly after a change and not only after the listeners at the UserThread got notified.
+ * Dead transactions are not included, like at Wallet.getTransactions(false).
+ * The wallet calls the listener while holding its lock, so the lock order is always wallet lock before index lock.
+ * We must never call the wallet while holding the index lock.
+ */
+class TxsByAddressIndex {
+    private final Map<Address, Map<Sha256Hash, Transaction>> txsByAddress = new HashMap<>();
+    private final Map<Sha256Hash, Set<Address>> addressesByTxId = new HashMap<>();
+
+    @SuppressWarnings("deprecation")
+    private final WalletEventListener walletEventListener = new AbstractWalletEventListener() {
+        @Override
+        public void onCoinsReceived(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+            update(tx);
+        }
+
+        @Override
+        public void onCoinsSent(Wallet wallet, Transaction tx, Coin prevBalance, Coin newBalance) {
+            update(tx);
+        }
+
+        @Override
+        public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
+            update(tx);
+        }
+
+        @Override
+        public void onReorganize(Wallet wallet) {
+            rebuild(wallet.getTransactions(false));
+        }
+    };
+    @Nullable
+    private Wallet wallet;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @SuppressWarnings("deprecation")
+    void setWallet(Wallet wallet) {
+        removeWallet();
+        this.wallet = wallet;
+        // We register the listener before we read the txs so we don't miss a tx. Txs passed to the listener in
+        // between are added only once as update ignores txs we have already.
+        wallet.addEventListener(walletEventListener, Threading.SAME_THREAD);
+        addAll(wallet.getTransactions(false));
+    }
+
+    @SuppressWarnings("deprecation")
+    void removeWallet() {
+        if (wallet != null) {
+            wallet.removeEventListener(walletEventListener);
+            wallet = null;
+        }
+        clear();
+    }
+
+    synchronized List<Transaction> getTransactions(@Nullable Address address) {
+        Map<Sha256Hash, Transaction> txs = address != null ? txsByAddress.get(address) : null;
+        return txs != null ? new ArrayList<>(txs.values()) : new ArrayList<>();
+    }
+
+    // Addresses of the outputs and of the connected outputs of the inputs
+    static Set<Address> getAddresses(Transaction tx) {
+        Set<Address> addresses = new HashSet<>();
+        tx.getOutputs().forEach(output -> addAddress(addresses, output));
+        tx.getInputs().forEach(input -> addAddress(addresses, input.getConnectedOutput()));
+        return addresses;
+    }
+
+    synchronized void addAll(Collection<Transaction> txs) {
+        txs.forEach(this::update);
+    }
+
+    // Called with the txs of the wallet after a reorg
+    synchronized void rebuild(Collection<Transaction> txs) {
+        clear();
+        txs.forEach(this::add);
+    }
+
+    synchronized void update(Transaction tx) {
+        if (tx.getConfidence().getConfidenceType() == TransactionConfidence.ConfidenceType.DEAD)
+            remove(tx);
+        else if (!addressesByTxId.containsKey(tx.getHash()))
+            add(tx);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void clear() {
+        txsByAddress.clear();
+        addressesByTxId.clear();
+    }
+
+    private void add(Transaction tx) {
+        getAddresses(tx).forEach(address -> add(address, tx));
+
+        // Txs which spend our outputs but got added before this tx did not have their inputs connected to it
+        tx.getOutputs().forEach(output -> {
+            TransactionInput spentBy = output.getSpentBy();
+            Address address = WalletService.getAddressFromOutput(output);
+            if (spentBy != null && address != null) {
+                Transaction spendingTx = spentBy.getParentTransaction();
+                if (spendingTx.getConfidence().getConfidenceType() != TransactionConfidence.ConfidenceType.DEAD)
+                    add(address, spendingTx);
+            }
+        });
+    }
+
+    private void add(Address address, Transaction tx) {
+        txsByAddress.computeIfAbsent(address, k -> new HashMap<>()).put(tx.getHash(), tx);
+        addressesByTxId.computeIfAbsent(tx.getHash(), k -> new HashSet<>()).add(address);
+    }
+
+    private void remove(Transaction tx) {
+        Set<Address> addresses = addressesByTxId.remove(tx.getHash());
+        if (addresses != null) {
+            addresses.forEach(address -> {
+                Map<Sha256Hash, Transaction> txs = txsByAddress.get(address);
+                if (txs != null) {
+                    txs.remove(tx.getHash());
+                    if (txs.isEmpty())
+                        txsByAddress.remove(address);
+                }
+            });
+        }
+    }
+
+    private static void addAddress(Set<Address> addresses, @Nullable TransactionOutput output) {
+        if (output != null) {
+            Address address = WalletService.getAddressFromOutput(output);
+            if (address != null)
+                addresses.add(address);
+        }
+    }
+}
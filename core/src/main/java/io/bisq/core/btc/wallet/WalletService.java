@@ -49,9 +49,7 @@ import org.spongycastle.crypto.params.KeyParameter;
 
 import javax.annotation.Nullable;
 import javax.inject.Inject;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.stream.Collectors;
 
@@ -73,6 +71,7 @@ public abstract class WalletService {
     protected final CopyOnWriteArraySet<AddressConfidenceListener> addressConfidenceListeners = new CopyOnWriteArraySet<>();
     protected final CopyOnWriteArraySet<TxConfidenceListener> txConfidenceListeners = new CopyOnWriteArraySet<>();
     protected final CopyOnWriteArraySet<BalanceListener> balanceListeners = new CopyOnWriteArraySet<>();
+    private final TxsByAddressIndex txsByAddressIndex = new TxsByAddressIndex();
     protected Wallet wallet;
     protected KeyParameter aesKey;
 
@@ -101,6 +100,14 @@ public abstract class WalletService {
         if (wallet != null)
             //noinspection deprecation
             wallet.removeEventListener(walletEventListener);
+        txsByAddressIndex.removeWallet();
+    }
+
+    // Called by the subclasses once the wallet is set up
+    protected void addWalletEventListeners() {
+        //noinspection deprecation
+        wallet.addEventListener(walletEventListener);
+        txsByAddressIndex.setWallet(wallet);
     }
 
 
@@ -292,17 +299,12 @@ public abstract class WalletService {
     // TransactionConfidence
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    // The index contains only the txs which have an output or a connected output with that address
     @Nullable
     public TransactionConfidence getConfidenceForAddress(Address address) {
-        List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
-        if (wallet != null) {
-            Set<Transaction> transactions = wallet.getTransactions(false);
-            if (transactions != null) {
-                transactionConfidenceList.addAll(transactions.stream().map(tx ->
-                        getTransactionConfidence(tx, address)).collect(Collectors.toList()));
-            }
-        }
-        return getMostRecentConfidence(transactionConfidenceList);
+        return getMostRecentConfidence(txsByAddressIndex.getTransactions(address).stream()
+                .map(Transaction::getConfidence)
+                .collect(Collectors.toList()));
     }
 
     @Nullable
@@ -383,6 +385,19 @@ public abstract class WalletService {
         return wallet != null ? getBalance(wallet.calculateAllSpendCandidates(), address) : Coin.ZERO;
     }
 
+    // Balances of the given addresses with a single pass over the spend candidates
+    private Map<Address, Coin> getBalanceByAddress(Set<Address> addresses) {
+        Map<Address, Coin> balanceByAddress = new HashMap<>();
+        if (wallet != null) {
+            for (TransactionOutput output : wallet.calculateAllSpendCandidates()) {
+                Address address = getAddressFromOutput(output);
+                if (address != null && addresses.contains(address))
+                    balanceByAddress.merge(address, output.getValue(), Coin::add);
+            }
+        }
+        return balanceByAddress;
+    }
+
     protected Coin getBalance(List<TransactionOutput> transactionOutputs, Address address) {
         Coin balance = Coin.ZERO;
         for (TransactionOutput output : transactionOutputs) {
@@ -631,14 +646,15 @@ public abstract class WalletService {
             log.warn("onReorganize ");
         }
 
+        // We only notify the listeners of the addresses the tx has outputs or connected outputs for
         @Override
         public void onTransactionConfidenceChanged(Wallet wallet, Transaction tx) {
-            for (AddressConfidenceListener addressConfidenceListener : addressConfidenceListeners) {
-                List<TransactionConfidence> transactionConfidenceList = new ArrayList<>();
-                transactionConfidenceList.add(getTransactionConfidence(tx, addressConfidenceListener.getAddress()));
-
-                TransactionConfidence transactionConfidence = getMostRecentConfidence(transactionConfidenceList);
-                addressConfidenceListener.onTransactionConfidenceChanged(transactionConfidence);
+            if (!addressConfidenceListeners.isEmpty()) {
+                Set<Address> addresses = TxsByAddressIndex.getAddresses(tx);
+                addressConfidenceListeners.stream()
+                        .filter(addressConfidenceListener -> addresses.contains(addressConfidenceListener.getAddress()))
+                        .forEach(addressConfidenceListener ->
+                                addressConfidenceListener.onTransactionConfidenceChanged(tx.getConfidence()));
             }
             txConfidenceListeners.stream()
                     .filter(txConfidenceListener -> tx != null &&
@@ -649,15 +665,20 @@ public abstract class WalletService {
                             txConfidenceListener.onTransactionConfidenceChanged(tx.getConfidence()));
         }
 
+        // Only the balances of the addresses the tx has outputs or connected outputs for can change. We calculate
+        // the spend candidates only once for all listeners.
         void notifyBalanceListeners(Transaction tx) {
+            Set<Address> addresses = TxsByAddressIndex.getAddresses(tx);
+            Map<Address, Coin> balanceByAddress = null;
             for (BalanceListener balanceListener : balanceListeners) {
-                Coin balance;
-                if (balanceListener.getAddress() != null)
-                    balance = getBalanceForAddress(balanceListener.getAddress());
-                else
-                    balance = getAvailableBalance();
-
-                balanceListener.onBalanceChanged(balance, tx);
+                Address address = balanceListener.getAddress();
+                if (address == null) {
+                    balanceListener.onBalanceChanged(getAvailableBalance(), tx);
+                } else if (addresses.contains(address)) {
+                    if (balanceByAddress == null)
+                        balanceByAddress = getBalanceByAddress(addresses);
+                    balanceListener.onBalanceChanged(balanceByAddress.getOrDefault(address, Coin.ZERO), tx);
+                }
             }
         }
     }
@@ -19,7 +19,6 @@ package io.bisq.core.btc.wallet;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Splitter;
-import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.Service;
 import com.google.inject.Inject;
 import com.runjva.sourceforge.jsocks.protocol.Socks5Proxy;
@@ -495,8 +494,7 @@ public class WalletsSetup {
     }
 
     public Set<Address> getAddressesByContext(@SuppressWarnings("SameParameterValue") AddressEntry.Context context) {
-        return ImmutableList.copyOf(addressEntryList.getList()).stream()
-                .filter(addressEntry -> addressEntry.getContext() == context)
+        return addressEntryList.getAddressEntries(context).stream()
                 .map(AddressEntry::getAddress)
                 .collect(Collectors.toSet());
     }
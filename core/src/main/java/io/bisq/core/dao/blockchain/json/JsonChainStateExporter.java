@@ -20,7 +20,8 @@ package io.bisq.core.dao.blockchain.json;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.inject.Inject;
 import io.bisq.common.storage.FileUtil;
 import io.bisq.common.storage.JsonFileManager;
@@ -28,6 +29,7 @@ import io.bisq.common.storage.Storage;
 import io.bisq.common.util.Utilities;
 import io.bisq.core.dao.DaoOptionKeys;
 import io.bisq.core.dao.blockchain.parse.BsqChainState;
+import io.bisq.core.dao.blockchain.vo.BsqBlock;
 import io.bisq.core.dao.blockchain.vo.Tx;
 import io.bisq.core.dao.blockchain.vo.TxOutput;
 import io.bisq.core.dao.blockchain.vo.TxType;
@@ -41,16 +43,28 @@ import java.io.IOException;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class JsonChainStateExporter {
+    private static final long CHAIN_STATE_EXPORT_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final long SHUT_DOWN_TIMEOUT_SEC = 10;
+
     private final boolean dumpBlockchainData;
     private final BsqChainState bsqChainState;
 
-    private final ListeningExecutorService executor = Utilities.getListeningExecutorService("JsonExporter", 1, 1, 1200);
+    private final ListeningScheduledExecutorService executor = MoreExecutors.listeningDecorator(
+            Utilities.getScheduledThreadPoolExecutor("JsonExporter", 1, 1, 1200));
     private File txDir, txOutputDir, bsqChainStateDir;
     private JsonFileManager txFileManager, txOutputFileManager, bsqChainStateFileManager;
+    // Only accessed from the executor thread
+    private boolean allTxsExported;
+    private long lastChainStateExportTime;
+    private boolean chainStateExportPending;
+    private boolean trailingChainStateExportScheduled;
 
     @Inject
     public JsonChainStateExporter(BsqChainState bsqChainState,
@@ -95,17 +109,30 @@ public class JsonChainStateExporter {
 
     public void shutDown() {
         if (dumpBlockchainData) {
+            // We write a skipped chain state export now, so the dumped state is not older than the parsed one
+            try {
+                executor.submit(() -> {
+                    if (chainStateExportPending)
+                        exportChainState();
+                }).get(SHUT_DOWN_TIMEOUT_SEC, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                log.error("Exporting the chain state at shutdown failed. " + e.toString());
+            }
+
+            // All JsonFileManagers write at the StorageScheduler, so one call writes the pending files of all of them
             txFileManager.shutDown();
-            txOutputFileManager.shutDown();
-            bsqChainStateFileManager.shutDown();
         }
     }
 
-    public void maybeExport() {
+    // At the first call we export all txs, after that only the txs which got added or changed with the new block.
+    public void maybeExport(BsqBlock bsqBlock) {
         if (dumpBlockchainData) {
             ListenableFuture<Void> future = executor.submit(() -> {
-                final BsqChainState bsqChainStateClone = bsqChainState.getClone();
-                for (Tx tx : bsqChainStateClone.getTxMap().values()) {
+                final int fromBlockHeight = allTxsExported ? bsqBlock.getHeight() : 0;
+                allTxsExported = true;
+                for (Tx tx : bsqChainState.getClonedTxsChangedFrom(fromBlockHeight)) {
                     String txId = tx.getId();
                     JsonTxType txType = tx.getTxType() != TxType.UNDEFINED_TX_TYPE ? JsonTxType.valueOf(tx.getTxType().name()) : null;
                     List<JsonTxOutput> outputs = new ArrayList<>();
@@ -156,7 +183,7 @@ public class JsonChainStateExporter {
                     txFileManager.writeToDisc(Utilities.objectToJson(jsonTx), txId);
                 }
 
-                bsqChainStateFileManager.writeToDisc(Utilities.objectToJson(bsqChainStateClone), "bsqChainState");
+                maybeExportChainState();
                 return null;
             });
 
@@ -172,4 +199,32 @@ public class JsonChainStateExporter {
             });
         }
     }
+
+    // Serializing the whole chain state does scale with the size of the chain, so we throttle it while we parse the
+    // existing blocks. A skipped export is done once the interval has passed, so the state after the last parsed
+    // block does not stay stale until the next block arrives.
+    // Called at the executor thread.
+    private void maybeExportChainState() {
+        long delay = lastChainStateExportTime + CHAIN_STATE_EXPORT_INTERVAL_MS - System.currentTimeMillis();
+        if (delay <= 0) {
+            exportChainState();
+        } else {
+            chainStateExportPending = true;
+            if (!trailingChainStateExportScheduled) {
+                trailingChainStateExportScheduled = true;
+                executor.schedule(() -> {
+                    trailingChainStateExportScheduled = false;
+                    if (chainStateExportPending)
+                        exportChainState();
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    // Called at the executor thread
+    private void exportChainState() {
+        chainStateExportPending = false;
+        lastChainStateExportTime = System.currentTimeMillis();
+        bsqChainStateFileManager.writeToDisc(bsqChainState.getJsonString(), "bsqChainState");
+    }
 }
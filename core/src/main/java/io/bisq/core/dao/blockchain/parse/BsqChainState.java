@@ -24,6 +24,7 @@ import io.bisq.common.proto.persistable.PersistenceProtoResolver;
 import io.bisq.common.storage.Storage;
 import io.bisq.common.util.FunctionalReadWriteLock;
 import io.bisq.common.util.Tuple2;
+import io.bisq.common.util.Utilities;
 import io.bisq.core.app.BisqEnvironment;
 import io.bisq.core.dao.blockchain.exceptions.BlockNotConnectingException;
 import io.bisq.core.dao.blockchain.vo.*;
@@ -114,6 +115,12 @@ public class BsqChainState implements PersistableEnvelope {
     transient private BsqChainState snapshotCandidate;
     transient private final FunctionalReadWriteLock lock;
 
+    // Indexes, not persisted. Get maintained at the write methods and rebuilt from the persisted data.
+    // We cannot use sets as TxOutput and Tx have mutable fields in equals and hashCode.
+    transient private final Map<TxIdIndexTuple, TxOutput> spentTxOutputsMap = new HashMap<>();
+    transient private final Map<String, List<TxOutput>> txOutputsByAddress = new HashMap<>();
+    transient private final NavigableMap<Integer, List<Tx>> feeTxsByHeight = new TreeMap<>();
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Constructor
@@ -175,6 +182,9 @@ public class BsqChainState implements PersistableEnvelope {
         // not impl yet in PB
         compensationRequestFees = new HashSet<>();
         votingFees = new HashSet<>();
+
+        repairPersistedTxOutputs();
+        rebuildIndexes();
     }
 
     @Override
@@ -241,6 +251,8 @@ public class BsqChainState implements PersistableEnvelope {
             } else {
                 log.info("Try to apply snapshot but no stored snapshot available");
             }
+            repairPersistedTxOutputs();
+            rebuildIndexes();
 
             printDetails();
         });
@@ -267,6 +279,11 @@ public class BsqChainState implements PersistableEnvelope {
                             bsqBlocks.getLast().getHeight() + 1 == block.getHeight())) {
                         bsqBlocks.add(block);
                         block.getTxs().stream().forEach(BsqChainState.this::addTxToMap);
+                        // The burnt fee is set at parsing after the tx got added to the txMap, so we index the fee
+                        // txs when the block is complete
+                        block.getTxs().stream()
+                                .filter(tx -> tx.getBurntFee() > 0)
+                                .forEach(BsqChainState.this::addFeeTx);
                         chainHeadHeight = block.getHeight();
                         maybeMakeSnapshot();
                         printDetails();
@@ -291,18 +308,33 @@ public class BsqChainState implements PersistableEnvelope {
     }
 
     void addTxToMap(Tx tx) {
-        lock.write(() -> txMap.put(tx.getId(), tx));
+        lock.write(() -> {
+            // The parser adds a tx twice (at parsing and with the block)
+            Tx previous = txMap.put(tx.getId(), tx);
+            if (previous != tx) {
+                if (previous != null)
+                    removeFromTxOutputsByAddress(previous);
+                addToTxOutputsByAddress(tx);
+            }
+        });
     }
 
     void addUnspentTxOutput(TxOutput txOutput) {
         lock.write(() -> {
             checkArgument(txOutput.isVerified(), "txOutput must be verified at addUnspentTxOutput");
-            unspentTxOutputsMap.put(txOutput.getTxIdIndexTuple(), txOutput);
+            TxIdIndexTuple txIdIndexTuple = txOutput.getTxIdIndexTuple();
+            unspentTxOutputsMap.put(txIdIndexTuple, txOutput);
+            spentTxOutputsMap.remove(txIdIndexTuple);
         });
     }
 
     void removeUnspentTxOutput(TxOutput txOutput) {
-        lock.write(() -> unspentTxOutputsMap.remove(txOutput.getTxIdIndexTuple()));
+        lock.write(() -> {
+            TxIdIndexTuple txIdIndexTuple = txOutput.getTxIdIndexTuple();
+            unspentTxOutputsMap.remove(txIdIndexTuple);
+            if (txOutput.isVerified())
+                spentTxOutputsMap.put(txIdIndexTuple, txOutput);
+        });
     }
 
     void setGenesisTx(Tx tx) {
@@ -335,9 +367,7 @@ public class BsqChainState implements PersistableEnvelope {
     }
 
     Optional<TxOutput> getUnspentTxOutput(TxIdIndexTuple txIdIndexTuple) {
-        return lock.read(() -> unspentTxOutputsMap.entrySet().stream()
-                .filter(e -> e.getKey().equals(txIdIndexTuple))
-                .map(Map.Entry::getValue).findAny());
+        return lock.read(() -> Optional.ofNullable(unspentTxOutputsMap.get(txIdIndexTuple)));
     }
 
     public boolean isTxOutputSpendable(String txId, int index) {
@@ -360,28 +390,55 @@ public class BsqChainState implements PersistableEnvelope {
         return lock.read(() -> chainHeadHeight);
     }
 
-    // Only used for Json Exporter
     public Map<String, Tx> getTxMap() {
         return lock.read(() -> txMap);
     }
 
+    // We copy only the requested blocks, so serving a request does not scale with the size of the chain
     public List<BsqBlock> getResettedBlocksFrom(int fromBlockHeight) {
         return lock.read(() -> {
-            BsqChainState clone = getClone();
-            List<BsqBlock> filtered = clone.bsqBlocks.stream()
-                    .filter(block -> block.getHeight() >= fromBlockHeight)
+            LinkedList<BsqBlock> result = new LinkedList<>();
+            getBlocksFrom(fromBlockHeight).forEach(block -> {
+                BsqBlock clone = BsqBlock.fromProto(block.toProtoMessage());
+                clone.reset();
+                result.add(clone);
+            });
+            return result;
+        });
+    }
+
+    // Returns copies of the txs of the blocks from fromBlockHeight on and of the txs whose outputs got spent by
+    // those blocks. Those are the only txs which have been added or changed since fromBlockHeight.
+    public List<Tx> getClonedTxsChangedFrom(int fromBlockHeight) {
+        return lock.read(() -> {
+            Set<String> txIds = new LinkedHashSet<>();
+            getBlocksFrom(fromBlockHeight).forEach(block -> block.getTxs().forEach(tx -> {
+                txIds.add(tx.getId());
+                tx.getInputs().forEach(txInput -> txIds.add(txInput.getTxId()));
+            }));
+            return txIds.stream()
+                    .map(txMap::get)
+                    .filter(Objects::nonNull)
+                    .map(tx -> Tx.fromProto(tx.toProtoMessage()))
                     .collect(Collectors.toList());
-            filtered.stream().forEach(BsqBlock::reset);
-            return filtered;
         });
     }
 
+    public String getJsonString() {
+        return lock.read(() -> Utilities.objectToJson(this));
+    }
+
     public Coin getTotalBurntFee() {
-        return lock.read(() -> Coin.valueOf(getTxMap().entrySet().stream().mapToLong(e -> e.getValue().getBurntFee()).sum()));
+        return lock.read(() -> Coin.valueOf(feeTxsByHeight.values().stream()
+                .flatMap(List::stream)
+                .mapToLong(Tx::getBurntFee)
+                .sum()));
     }
 
     public Set<Tx> getFeeTransactions() {
-        return lock.read(() -> getTxMap().entrySet().stream().filter(e -> e.getValue().getBurntFee() > 0).map(Map.Entry::getValue).collect(Collectors.toSet()));
+        return lock.read(() -> feeTxsByHeight.values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toSet()));
     }
 
     public Coin getIssuedAmount() {
@@ -389,11 +446,11 @@ public class BsqChainState implements PersistableEnvelope {
     }
 
     public Set<TxOutput> getUnspentTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream().filter(e -> e.isVerified() && e.isUnspent()).collect(Collectors.toSet()));
+        return lock.read(() -> new HashSet<>(unspentTxOutputsMap.values()));
     }
 
     public Set<TxOutput> getSpentTxOutputs() {
-        return lock.read(() -> getAllTxOutputs().stream().filter(e -> e.isVerified() && !e.isUnspent()).collect(Collectors.toSet()));
+        return lock.read(() -> new HashSet<>(spentTxOutputsMap.values()));
     }
 
     public Set<Tx> getTransactions() {
@@ -449,17 +506,13 @@ public class BsqChainState implements PersistableEnvelope {
     }
 
     boolean existsCompensationRequestBtcAddress(String btcAddress) {
-        return lock.read(() -> getAllTxOutputs().stream()
-                .filter(txOutput -> txOutput.isCompensationRequestBtcOutput() &&
-                        txOutput.getAddress().equals(btcAddress))
-                .findAny()
-                .isPresent());
+        return lock.read(() -> txOutputsByAddress.getOrDefault(btcAddress, Collections.emptyList()).stream()
+                .anyMatch(TxOutput::isCompensationRequestBtcOutput));
     }
 
     Set<TxOutput> findSponsoringBtcOutputsWithSameBtcAddress(String btcAddress) {
-        return lock.read(() -> getAllTxOutputs().stream()
-                .filter(txOutput -> txOutput.isSponsoringBtcOutput() &&
-                        txOutput.getAddress().equals(btcAddress))
+        return lock.read(() -> txOutputsByAddress.getOrDefault(btcAddress, Collections.emptyList()).stream()
+                .filter(TxOutput::isSponsoringBtcOutput)
                 .collect(Collectors.toSet()));
     }
 
@@ -478,6 +531,19 @@ public class BsqChainState implements PersistableEnvelope {
         return lock.read(() -> txMap.get(txId) != null ? Optional.of(txMap.get(txId)) : Optional.<Tx>empty());
     }
 
+    // Blocks are ordered by height so we only iterate the requested blocks from the end of the list
+    private List<BsqBlock> getBlocksFrom(int fromBlockHeight) {
+        LinkedList<BsqBlock> blocks = new LinkedList<>();
+        Iterator<BsqBlock> iterator = bsqBlocks.descendingIterator();
+        while (iterator.hasNext()) {
+            BsqBlock block = iterator.next();
+            if (block.getHeight() < fromBlockHeight)
+                break;
+            blocks.addFirst(block);
+        }
+        return blocks;
+    }
+
     private boolean isSnapshotHeight(int height) {
         return isSnapshotHeight(genesisBlockHeight, height, SNAPSHOT_GRID);
     }
@@ -489,12 +555,11 @@ public class BsqChainState implements PersistableEnvelope {
                             snapshotCandidate.chainHeadHeight != getChainHeadHeight())) {
                 // At trigger event we store the latest snapshotCandidate to disc
                 if (snapshotCandidate != null) {
-                    // We clone because storage is in a threaded context
-                    final BsqChainState cloned = getClone(snapshotCandidate);
+                    // The candidate is a clone which is not referenced or changed anywhere else, so we can hand it
+                    // over to the threaded storage without cloning it again
                     checkNotNull(storage, "storage must nto be null");
-                    storage.queueUpForSave(cloned);
-                    // dont access cloned anymore with methods as locks are transient!
-                    log.info("Saved snapshotCandidate to Disc at height " + cloned.chainHeadHeight);
+                    storage.queueUpForSave(snapshotCandidate);
+                    log.info("Saved snapshotCandidate to Disc at height " + snapshotCandidate.chainHeadHeight);
                 }
                 // Now we clone and keep it in memory for the next trigger
                 snapshotCandidate = getClone(this);
@@ -504,10 +569,73 @@ public class BsqChainState implements PersistableEnvelope {
         });
     }
 
-    private Set<TxOutput> getAllTxOutputs() {
-        return txMap.values().stream()
-                .flatMap(tx -> tx.getOutputs().stream())
-                .collect(Collectors.toSet());
+    // Called at construction from protobuf data and after applying a snapshot, before the indexes get rebuilt.
+    // The persisted data contains separate copies of the unspent outputs. We use the instances of the txs so the
+    // flags set at parsing are visible in both. Older snapshots could contain spent outputs still flagged as unspent
+    // in the txMap, we clear that flag.
+    private void repairPersistedTxOutputs() {
+        int numRepairedTxOutputs = 0;
+        for (Tx tx : txMap.values()) {
+            for (TxOutput txOutput : tx.getOutputs()) {
+                if (!txOutput.isVerified())
+                    continue;
+
+                TxIdIndexTuple txIdIndexTuple = txOutput.getTxIdIndexTuple();
+                if (unspentTxOutputsMap.containsKey(txIdIndexTuple)) {
+                    unspentTxOutputsMap.put(txIdIndexTuple, txOutput);
+                } else if (txOutput.isUnspent()) {
+                    log.debug("Spent txOutput {} was flagged as unspent. We set isUnspent to false.", txIdIndexTuple);
+                    txOutput.setUnspent(false);
+                    numRepairedTxOutputs++;
+                }
+            }
+        }
+        if (numRepairedTxOutputs > 0)
+            log.warn("We have set isUnspent to false for {} spent txOutputs which were flagged as unspent.",
+                    numRepairedTxOutputs);
+    }
+
+    // Called at construction from protobuf data and after applying a snapshot. Only fills the transient indexes.
+    private void rebuildIndexes() {
+        spentTxOutputsMap.clear();
+        txOutputsByAddress.clear();
+        feeTxsByHeight.clear();
+        txMap.values().forEach(tx -> {
+            addToTxOutputsByAddress(tx);
+            if (tx.getBurntFee() > 0)
+                addFeeTx(tx);
+
+            tx.getOutputs().stream()
+                    .filter(TxOutput::isVerified)
+                    .filter(txOutput -> !unspentTxOutputsMap.containsKey(txOutput.getTxIdIndexTuple()))
+                    .forEach(txOutput -> spentTxOutputsMap.put(txOutput.getTxIdIndexTuple(), txOutput));
+        });
+    }
+
+    private void addToTxOutputsByAddress(Tx tx) {
+        tx.getOutputs().stream()
+                .filter(txOutput -> txOutput.getAddress() != null)
+                .forEach(txOutput -> txOutputsByAddress.computeIfAbsent(txOutput.getAddress(), k -> new ArrayList<>())
+                        .add(txOutput));
+    }
+
+    private void removeFromTxOutputsByAddress(Tx tx) {
+        tx.getOutputs().stream()
+                .filter(txOutput -> txOutput.getAddress() != null)
+                .forEach(txOutput -> {
+                    List<TxOutput> txOutputs = txOutputsByAddress.get(txOutput.getAddress());
+                    if (txOutputs != null) {
+                        txOutputs.removeIf(e -> e == txOutput);
+                        if (txOutputs.isEmpty())
+                            txOutputsByAddress.remove(txOutput.getAddress());
+                    }
+                });
+    }
+
+    private void addFeeTx(Tx tx) {
+        List<Tx> feeTxs = feeTxsByHeight.computeIfAbsent(tx.getBlockHeight(), k -> new ArrayList<>());
+        if (feeTxs.stream().noneMatch(e -> e == tx))
+            feeTxs.add(tx);
     }
 
     private void printDetails() {
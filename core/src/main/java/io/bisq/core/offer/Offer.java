@@ -12,6 +12,7 @@ import io.bisq.common.proto.network.NetworkPayload;
 import io.bisq.common.proto.persistable.PersistablePayload;
 import io.bisq.common.util.JsonExclude;
 import io.bisq.common.util.MathUtils;
+import io.bisq.common.util.Tuple2;
 import io.bisq.common.util.Utilities;
 import io.bisq.core.exceptions.TradePriceOutOfToleranceException;
 import io.bisq.core.offer.availability.OfferAvailabilityModel;
@@ -79,6 +80,15 @@ public class Offer implements NetworkPayload, PersistablePayload {
     @Nullable
     @Setter
     transient private PriceFeedService priceFeedService;
+    // The price of a market based offer only changes if we get a new MarketPrice object from the price feed, so we
+    // cache the price with the MarketPrice it was calculated from. The offer tables call getPrice for each row at
+    // each rendering.
+    @JsonExclude
+    @Nullable
+    transient private volatile Tuple2<MarketPrice, Price> marketBasedPriceCache;
+    @JsonExclude
+    @Nullable
+    transient private volatile Price fixedPrice;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -136,6 +146,10 @@ public class Offer implements NetworkPayload, PersistablePayload {
             checkNotNull(priceFeedService, "priceFeed must not be null");
             MarketPrice marketPrice = priceFeedService.getMarketPrice(currencyCode);
             if (marketPrice != null && marketPrice.isRecentExternalPriceAvailable()) {
+                Tuple2<MarketPrice, Price> marketBasedPriceCache = this.marketBasedPriceCache;
+                if (marketBasedPriceCache != null && marketBasedPriceCache.first == marketPrice)
+                    return marketBasedPriceCache.second;
+
                 double factor;
                 double marketPriceMargin = offerPayload.getMarketPriceMargin();
                 if (CurrencyUtil.isCryptoCurrency(currencyCode)) {
@@ -153,7 +167,9 @@ public class Offer implements NetworkPayload, PersistablePayload {
                             Fiat.SMALLEST_UNIT_EXPONENT;
                     double scaled = MathUtils.scaleUpByPowerOf10(targetPriceAsDouble, precision);
                     final long roundedToLong = MathUtils.roundDoubleToLong(scaled);
-                    return Price.valueOf(currencyCode, roundedToLong);
+                    Price price = Price.valueOf(currencyCode, roundedToLong);
+                    this.marketBasedPriceCache = new Tuple2<>(marketPrice, price);
+                    return price;
                 } catch (Exception e) {
                     log.error("Exception at getPrice / parseToFiat: " + e.toString() + "\n" +
                             "That case should never happen.");
@@ -165,7 +181,9 @@ public class Offer implements NetworkPayload, PersistablePayload {
                 return null;
             }
         } else {
-            return Price.valueOf(currencyCode, offerPayload.getPrice());
+            if (fixedPrice == null)
+                fixedPrice = Price.valueOf(currencyCode, offerPayload.getPrice());
+            return fixedPrice;
         }
     }
 
@@ -0,0 +1,164 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.offer;
+
+import io.bisq.common.monetary.Price;
+import lombok.EqualsAndHashCode;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Index of the offers of the offer book. Holds one Offer instance per offer id and indexes the offers by market
+ * (currency code and direction).
+ * Offers with a fixed price are kept sorted by price and offers with a market based price sorted by their margin.
+ * The price of market based offers changes with the market price but within a market the price is monotonic in the
+ * margin, so we get all offers of a market sorted by price by merging the two sorted sets.
+ * Not thread safe. Only used from the UserThread.
+ */
+class OfferBookIndex {
+    private static final Comparator<Offer> FIXED_PRICE_COMPARATOR = Comparator
+            .comparingLong((Offer offer) -> offer.getOfferPayload().getPrice())
+            .thenComparing(Offer::getId);
+    private static final Comparator<Offer> MARKET_PRICE_MARGIN_COMPARATOR = Comparator
+            .comparingDouble((Offer offer) -> offer.getOfferPayload().getMarketPriceMargin())
+            .thenComparing(Offer::getId);
+
+    private final Map<String, Offer> offersById = new LinkedHashMap<>();
+    private final Map<MarketKey, MarketOffers> offersByMarket = new HashMap<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Returns the indexed offer. If we have an offer with the same payload already we keep that instance.
+    Offer add(Offer offer) {
+        Offer existing = offersById.get(offer.getId());
+        if (existing != null) {
+            if (existing.getOfferPayload().equals(offer.getOfferPayload()))
+                return existing;
+            remove(existing.getId());
+        }
+
+        offersById.put(offer.getId(), offer);
+        offersByMarket.computeIfAbsent(new MarketKey(offer), k -> new MarketOffers()).add(offer);
+        return offer;
+    }
+
+    @Nullable
+    Offer remove(String offerId) {
+        Offer offer = offersById.remove(offerId);
+        if (offer != null) {
+            MarketKey marketKey = new MarketKey(offer);
+            MarketOffers marketOffers = offersByMarket.get(marketKey);
+            if (marketOffers != null && marketOffers.remove(offer))
+                offersByMarket.remove(marketKey);
+        }
+        return offer;
+    }
+
+    List<Offer> getAll() {
+        return new ArrayList<>(offersById.values());
+    }
+
+    // Offers without a price (market based price but no market price available) are added at the end
+    List<Offer> getOffersSortedByPrice(String currencyCode, OfferPayload.Direction direction) {
+        MarketOffers marketOffers = offersByMarket.get(new MarketKey(currencyCode, direction));
+        if (marketOffers == null)
+            return new ArrayList<>();
+
+        List<Offer> offersWithoutPrice = new ArrayList<>();
+        List<Offer> marketBasedOffers = new ArrayList<>();
+        for (Offer offer : marketOffers.marketBasedPriceOffers) {
+            if (offer.getPrice() != null)
+                marketBasedOffers.add(offer);
+            else
+                offersWithoutPrice.add(offer);
+        }
+        // Depending on the direction and the currency type the price decreases with the margin
+        if (marketBasedOffers.size() > 1 &&
+                getPriceValue(marketBasedOffers.get(0)) > getPriceValue(marketBasedOffers.get(marketBasedOffers.size() - 1)))
+            Collections.reverse(marketBasedOffers);
+
+        List<Offer> result = new ArrayList<>(marketOffers.offersById.size());
+        Iterator<Offer> fixedPriceIterator = marketOffers.fixedPriceOffers.iterator();
+        Iterator<Offer> marketBasedIterator = marketBasedOffers.iterator();
+        Offer fixedPriceOffer = fixedPriceIterator.hasNext() ? fixedPriceIterator.next() : null;
+        Offer marketBasedOffer = marketBasedIterator.hasNext() ? marketBasedIterator.next() : null;
+        while (fixedPriceOffer != null || marketBasedOffer != null) {
+            if (marketBasedOffer == null ||
+                    (fixedPriceOffer != null && getPriceValue(fixedPriceOffer) <= getPriceValue(marketBasedOffer))) {
+                result.add(fixedPriceOffer);
+                fixedPriceOffer = fixedPriceIterator.hasNext() ? fixedPriceIterator.next() : null;
+            } else {
+                result.add(marketBasedOffer);
+                marketBasedOffer = marketBasedIterator.hasNext() ? marketBasedIterator.next() : null;
+            }
+        }
+        result.addAll(offersWithoutPrice);
+        return result;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static long getPriceValue(Offer offer) {
+        Price price = offer.getPrice();
+        return price != null ? price.getValue() : 0;
+    }
+
+    @EqualsAndHashCode
+    private static final class MarketKey {
+        private final String currencyCode;
+        private final OfferPayload.Direction direction;
+
+        MarketKey(Offer offer) {
+            this(offer.getCurrencyCode(), offer.getDirection());
+        }
+
+        MarketKey(String currencyCode, OfferPayload.Direction direction) {
+            this.currencyCode = currencyCode;
+            this.direction = direction;
+        }
+    }
+
+    private static final class MarketOffers {
+        private final Map<String, Offer> offersById = new LinkedHashMap<>();
+        private final NavigableSet<Offer> fixedPriceOffers = new TreeSet<>(FIXED_PRICE_COMPARATOR);
+        private final NavigableSet<Offer> marketBasedPriceOffers = new TreeSet<>(MARKET_PRICE_MARGIN_COMPARATOR);
+
+        void add(Offer offer) {
+            offersById.put(offer.getId(), offer);
+            getSortedOffers(offer).add(offer);
+        }
+
+        // Returns true if the market has no offers anymore
+        boolean remove(Offer offer) {
+            offersById.remove(offer.getId());
+            getSortedOffers(offer).remove(offer);
+            return offersById.isEmpty();
+        }
+
+        private NavigableSet<Offer> getSortedOffers(Offer offer) {
+            return offer.isUseMarketBasedPrice() ? marketBasedPriceOffers : fixedPriceOffers;
+        }
+    }
+}
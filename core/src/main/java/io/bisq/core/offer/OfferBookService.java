@@ -57,6 +57,7 @@ public class OfferBookService {
     private final PriceFeedService priceFeedService;
     private final List<OfferBookChangedListener> offerBookChangedListeners = new LinkedList<>();
     private final JsonFileManager jsonFileManager;
+    private final OfferBookIndex offerBookIndex = new OfferBookIndex();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -72,29 +73,29 @@ public class OfferBookService {
         this.priceFeedService = priceFeedService;
         jsonFileManager = new JsonFileManager(storageDir);
 
+        // The index is fed by the data map changes, so we add the offers we might have received already
+        p2PService.getDataMap().values().stream()
+                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
+                .forEach(data -> offerBookIndex.add(createOffer((OfferPayload) data.getProtectedStoragePayload())));
+
         p2PService.addHashSetChangedListener(new HashMapChangedListener() {
             @Override
             public void onAdded(ProtectedStorageEntry data) {
-                offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onAdded(offer);
-                    }
-                });
+                if (data.getProtectedStoragePayload() instanceof OfferPayload) {
+                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
+                    Offer offer = offerBookIndex.add(createOffer(offerPayload));
+                    offerBookChangedListeners.stream().forEach(listener -> listener.onAdded(offer));
+                }
             }
 
             @Override
             public void onRemoved(ProtectedStorageEntry data) {
-                offerBookChangedListeners.stream().forEach(listener -> {
-                    if (data.getProtectedStoragePayload() instanceof OfferPayload) {
-                        OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                        Offer offer = new Offer(offerPayload);
-                        offer.setPriceFeedService(priceFeedService);
-                        listener.onRemoved(offer);
-                    }
-                });
+                if (data.getProtectedStoragePayload() instanceof OfferPayload) {
+                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
+                    Offer removedOffer = offerBookIndex.remove(offerPayload.getId());
+                    Offer offer = removedOffer != null ? removedOffer : createOffer(offerPayload);
+                    offerBookChangedListeners.stream().forEach(listener -> listener.onRemoved(offer));
+                }
             }
         });
 
@@ -155,16 +156,14 @@ public class OfferBookService {
         }
     }
 
+    // The offers are the same instances as passed to the OfferBookChangedListeners
     public List<Offer> getOffers() {
-        return p2PService.getDataMap().values().stream()
-                .filter(data -> data.getProtectedStoragePayload() instanceof OfferPayload)
-                .map(data -> {
-                    OfferPayload offerPayload = (OfferPayload) data.getProtectedStoragePayload();
-                    Offer offer = new Offer(offerPayload);
-                    offer.setPriceFeedService(priceFeedService);
-                    return offer;
-                })
-                .collect(Collectors.toList());
+        return offerBookIndex.getAll();
+    }
+
+    // Sorted by ascending price. Market based offers without an available market price are at the end.
+    public List<Offer> getOffersSortedByPrice(String currencyCode, OfferPayload.Direction direction) {
+        return offerBookIndex.getOffersSortedByPrice(currencyCode, direction);
     }
 
     public void removeOfferAtShutDown(OfferPayload offerPayload) {
@@ -185,6 +184,12 @@ public class OfferBookService {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private Offer createOffer(OfferPayload offerPayload) {
+        Offer offer = new Offer(offerPayload);
+        offer.setPriceFeedService(priceFeedService);
+        return offer;
+    }
+
     private void doDumpStatistics() {
         // We filter the case that it is a MarketBasedPrice but the price is not available
         // That should only be possible if the price feed provider is not available
@@ -31,6 +31,7 @@ import io.bisq.core.user.User;
 import io.bisq.network.p2p.BootstrapListener;
 import io.bisq.network.p2p.P2PService;
 import io.bisq.network.p2p.storage.P2PDataStorage;
+import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
 import lombok.extern.slf4j.Slf4j;
 import org.bitcoinj.core.Coin;
 
@@ -47,6 +48,7 @@ public class AccountAgeWitnessService {
     private static final Date FIRST_PHASE = Utilities.getUTCDate(2017, GregorianCalendar.DECEMBER, 15);
     private static final Date SECOND_PHASE = Utilities.getUTCDate(2018, GregorianCalendar.JANUARY, 15);
     public static final Date FULL_ACTIVATION = Utilities.getUTCDate(2018, GregorianCalendar.FEBRUARY, 15);
+    private static final int MAX_WITNESS_CACHE_SIZE = 1000;
 
     public enum AccountAge {
         LESS_ONE_MONTH,
@@ -57,8 +59,16 @@ public class AccountAgeWitnessService {
     private final KeyRing keyRing;
     private final P2PService p2PService;
     private final User user;
-
-    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> accountAgeWitnessMap = new HashMap<>();
+    // Witnesses of the store get decoded at each lookup, so we cache the decoded ones we have looked up. Witnesses
+    // are never removed or changed, so the cache never gets stale. Lookups which did not find a witness are not
+    // cached as the witness might arrive later.
+    private final Map<P2PDataStorage.ByteArray, AccountAgeWitness> witnessCache = Collections.synchronizedMap(
+            new LinkedHashMap<P2PDataStorage.ByteArray, AccountAgeWitness>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<P2PDataStorage.ByteArray, AccountAgeWitness> eldest) {
+                    return size() > MAX_WITNESS_CACHE_SIZE;
+                }
+            });
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -79,17 +89,6 @@ public class AccountAgeWitnessService {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void onAllServicesInitialized() {
-        p2PService.getP2PDataStorage().addPersistableNetworkPayloadMapListener(payload -> {
-            if (payload instanceof AccountAgeWitness)
-                addToMap((AccountAgeWitness) payload);
-        });
-
-        // At startup the P2PDataStorage initializes earlier, otherwise we ge the listener called.
-        p2PService.getP2PDataStorage().getPersistableNetworkPayloadCollection().getMap().values().forEach(e -> {
-            if (e instanceof AccountAgeWitness)
-                addToMap((AccountAgeWitness) e);
-        });
-
         if (p2PService.isBootstrapped()) {
             republishAllFiatAccounts();
         } else {
@@ -115,10 +114,10 @@ public class AccountAgeWitnessService {
                     });
     }
 
-    private void addToMap(AccountAgeWitness accountAgeWitness) {
-        log.debug("addToMap hash=" + Utilities.bytesAsHexString(accountAgeWitness.getHash()));
-        if (!accountAgeWitnessMap.containsKey(accountAgeWitness.getHashAsByteArray()))
-            accountAgeWitnessMap.put(accountAgeWitness.getHashAsByteArray(), accountAgeWitness);
+    // We don't keep a copy of the witnesses but look them up at the P2PDataStorage. Items of its store only get
+    // decoded on access.
+    private Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> getPersistableNetworkPayloadMap() {
+        return p2PService.getP2PDataStorage().getPersistableNetworkPayloadCollection().getMap();
     }
 
 
@@ -128,7 +127,7 @@ public class AccountAgeWitnessService {
 
     public void publishMyAccountAgeWitness(PaymentAccountPayload paymentAccountPayload) {
         AccountAgeWitness accountAgeWitness = getMyWitness(paymentAccountPayload);
-        if (!accountAgeWitnessMap.containsKey(accountAgeWitness.getHashAsByteArray()))
+        if (!getPersistableNetworkPayloadMap().containsKey(accountAgeWitness.getHashAsByteArray()))
             p2PService.addPersistableNetworkPayload(accountAgeWitness, false);
     }
 
@@ -153,12 +152,19 @@ public class AccountAgeWitnessService {
 
     public Optional<AccountAgeWitness> getWitnessByHash(byte[] hash) {
         P2PDataStorage.ByteArray hashAsByteArray = new P2PDataStorage.ByteArray(hash);
+        AccountAgeWitness cachedWitness = witnessCache.get(hashAsByteArray);
+        if (cachedWitness != null)
+            return Optional.of(cachedWitness);
+
+        final PersistableNetworkPayload payload = getPersistableNetworkPayloadMap().get(hashAsByteArray);
+        if (!(payload instanceof AccountAgeWitness)) {
+            log.debug("hash not found in persistableNetworkPayloadMap");
+            return Optional.empty();
+        }
 
-        final boolean containsKey = accountAgeWitnessMap.containsKey(hashAsByteArray);
-        if (!containsKey)
-            log.debug("hash not found in accountAgeWitnessMap");
-
-        return accountAgeWitnessMap.containsKey(hashAsByteArray) ? Optional.of(accountAgeWitnessMap.get(hashAsByteArray)) : Optional.<AccountAgeWitness>empty();
+        AccountAgeWitness witness = (AccountAgeWitness) payload;
+        witnessCache.put(hashAsByteArray, witness);
+        return Optional.of(witness);
     }
 
     public Optional<AccountAgeWitness> getWitnessByHashAsHex(String hashAsHex) {
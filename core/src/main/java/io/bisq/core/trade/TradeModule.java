@@ -23,6 +23,7 @@ import io.bisq.core.app.AppOptionKeys;
 import io.bisq.core.payment.AccountAgeWitnessService;
 import io.bisq.core.trade.closed.ClosedTradableManager;
 import io.bisq.core.trade.failed.FailedTradesManager;
+import io.bisq.core.trade.statistics.TradeStatisticsCandleService;
 import io.bisq.core.trade.statistics.TradeStatisticsManager;
 import org.springframework.core.env.Environment;
 
@@ -38,6 +39,7 @@ public class TradeModule extends AppModule {
     protected void configure() {
         bind(TradeManager.class).in(Singleton.class);
         bind(TradeStatisticsManager.class).in(Singleton.class);
+        bind(TradeStatisticsCandleService.class).in(Singleton.class);
         bind(ClosedTradableManager.class).in(Singleton.class);
         bind(FailedTradesManager.class).in(Singleton.class);
         bind(AccountAgeWitnessService.class).in(Singleton.class);
@@ -0,0 +1,65 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import io.bisq.common.monetary.Volume;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Open, high, low, close and volume aggregate of the trades of one tick interval. Gets updated incrementally with
+ * each added trade.
+ */
+@Getter
+@ToString
+public final class Candle {
+    private final long startTime;
+    private long openTime;
+    private long open;
+    private long closeTime;
+    private long close;
+    private long minPrice;
+    private long maxPrice;
+    private long accumulatedAmount;
+    private long accumulatedVolume;
+    private long numTrades;
+
+    public Candle(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public void add(TradeStatistics2 tradeStatistics) {
+        long price = tradeStatistics.getTradePrice().getValue();
+        long tradeTime = tradeStatistics.getTradeDate().getTime();
+        if (numTrades == 0 || tradeTime < openTime) {
+            openTime = tradeTime;
+            open = price;
+        }
+        if (numTrades == 0 || tradeTime >= closeTime) {
+            closeTime = tradeTime;
+            close = price;
+        }
+        minPrice = numTrades == 0 ? price : Math.min(minPrice, price);
+        maxPrice = numTrades == 0 ? price : Math.max(maxPrice, price);
+
+        Volume tradeVolume = tradeStatistics.getTradeVolume();
+        accumulatedVolume += tradeVolume != null ? tradeVolume.getValue() : 0;
+        accumulatedAmount += tradeStatistics.getTradeAmount().getValue();
+        numTrades++;
+    }
+}
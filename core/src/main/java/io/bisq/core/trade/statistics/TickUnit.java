@@ -0,0 +1,66 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Time interval of a candle of the trade statistics. The ordinal is persisted in the preferences, so don't change
+ * the order.
+ */
+public enum TickUnit {
+    YEAR,
+    MONTH,
+    WEEK,
+    DAY,
+    HOUR,
+    MINUTE_10;
+
+    // Returns the start of the interval which contains the given time
+    public long getStartTime(long time, ZoneId zoneId) {
+        LocalDateTime local = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), zoneId);
+        LocalDateTime start;
+        switch (this) {
+            case YEAR:
+                start = local.withDayOfYear(1).truncatedTo(ChronoUnit.DAYS);
+                break;
+            case MONTH:
+                start = local.withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+                break;
+            case WEEK:
+                int dayOfWeek = local.getDayOfWeek().getValue();
+                start = ChronoUnit.DAYS.addTo(local, 1 - dayOfWeek).truncatedTo(ChronoUnit.DAYS);
+                break;
+            case DAY:
+                start = local.truncatedTo(ChronoUnit.DAYS);
+                break;
+            case HOUR:
+                start = local.truncatedTo(ChronoUnit.HOURS);
+                break;
+            case MINUTE_10:
+                start = local.withMinute(local.getMinute() - local.getMinute() % 10).truncatedTo(ChronoUnit.MINUTES);
+                break;
+            default:
+                start = local;
+        }
+        return start.atZone(zoneId).toInstant().toEpochMilli();
+    }
+}
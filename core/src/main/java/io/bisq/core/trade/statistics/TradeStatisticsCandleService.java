@@ -0,0 +1,123 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.inject.Inject;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.SetChangeListener;
+
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Aggregates the trade statistics into candles per currency and tick unit as they arrive, so clients like the trades
+ * charts only need to look up the candles of the selected market instead of grouping all trades.
+ * Candles are in the default time zone of the system like the dates in the UI.
+ * Trade statistics are never removed, so we only handle added items.
+ */
+public class TradeStatisticsCandleService {
+    private final ZoneId zoneId;
+    private final Map<String, List<TradeStatistics2>> tradeStatisticsByCurrencyCode = new HashMap<>();
+    private final Map<String, Map<TickUnit, NavigableMap<Long, Candle>>> candlesByCurrencyCode = new HashMap<>();
+    private final Map<TickUnit, NavigableMap<Long, Candle>> candlesOfAllCurrencies = createCandleMaps();
+    // Gets incremented after new trade statistics have been added
+    private final IntegerProperty updateCounter = new SimpleIntegerProperty(0);
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Inject
+    public TradeStatisticsCandleService(TradeStatisticsManager tradeStatisticsManager) {
+        this(tradeStatisticsManager, ZoneId.systemDefault());
+    }
+
+    @VisibleForTesting
+    TradeStatisticsCandleService(TradeStatisticsManager tradeStatisticsManager, ZoneId zoneId) {
+        this.zoneId = zoneId;
+
+        tradeStatisticsManager.getObservableTradeStatisticsSet().forEach(this::add);
+        tradeStatisticsManager.getObservableTradeStatisticsSet().addListener((SetChangeListener<TradeStatistics2>) change -> {
+            if (change.wasAdded()) {
+                add(change.getElementAdded());
+                updateCounter.set(updateCounter.get() + 1);
+            }
+        });
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public List<TradeStatistics2> getTradeStatistics(String currencyCode) {
+        return Collections.unmodifiableList(tradeStatisticsByCurrencyCode.getOrDefault(currencyCode, Collections.emptyList()));
+    }
+
+    // Candles by their start time
+    public NavigableMap<Long, Candle> getCandles(String currencyCode, TickUnit tickUnit) {
+        Map<TickUnit, NavigableMap<Long, Candle>> candleMaps = candlesByCurrencyCode.get(currencyCode);
+        if (candleMaps == null)
+            return Collections.emptyNavigableMap();
+
+        return Collections.unmodifiableNavigableMap(candleMaps.get(tickUnit));
+    }
+
+    // Candles of the trades of all currencies. Only the amount and the number of trades are meaningful.
+    public NavigableMap<Long, Candle> getCandlesOfAllCurrencies(TickUnit tickUnit) {
+        return Collections.unmodifiableNavigableMap(candlesOfAllCurrencies.get(tickUnit));
+    }
+
+    public long getStartTime(long time, TickUnit tickUnit) {
+        return tickUnit.getStartTime(time, zoneId);
+    }
+
+    public ReadOnlyIntegerProperty updateCounterProperty() {
+        return updateCounter;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void add(TradeStatistics2 tradeStatistics) {
+        String currencyCode = tradeStatistics.getCurrencyCode();
+        tradeStatisticsByCurrencyCode.computeIfAbsent(currencyCode, k -> new ArrayList<>()).add(tradeStatistics);
+
+        Map<TickUnit, NavigableMap<Long, Candle>> candleMaps = candlesByCurrencyCode.computeIfAbsent(currencyCode,
+                k -> createCandleMaps());
+        long tradeTime = tradeStatistics.getTradeDate().getTime();
+        for (TickUnit tickUnit : TickUnit.values()) {
+            long startTime = tickUnit.getStartTime(tradeTime, zoneId);
+            candleMaps.get(tickUnit).computeIfAbsent(startTime, Candle::new).add(tradeStatistics);
+            candlesOfAllCurrencies.get(tickUnit).computeIfAbsent(startTime, Candle::new).add(tradeStatistics);
+        }
+    }
+
+    private static Map<TickUnit, NavigableMap<Long, Candle>> createCandleMaps() {
+        Map<TickUnit, NavigableMap<Long, Candle>> candleMaps = new EnumMap<>(TickUnit.class);
+        for (TickUnit tickUnit : TickUnit.values())
+            candleMaps.put(tickUnit, new TreeMap<>());
+        return candleMaps;
+    }
+}
@@ -21,15 +21,20 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableSet;
 import lombok.extern.slf4j.Slf4j;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Slf4j
 public class TradeStatisticsManager {
+    // The full dump is only written once after that interval, the daily files get updated at each new item
+    private static final long FULL_DUMP_INTERVAL_SEC = 60;
+    private static final String DAILY_DUMP_DIR = "trade_statistics";
 
     static TradeStatistics2 ConvertToTradeStatistics2(TradeStatistics tradeStatistics) {
         return new TradeStatistics2(tradeStatistics.getDirection(),
@@ -51,11 +56,18 @@ public class TradeStatisticsManager {
     }
 
     private final JsonFileManager jsonFileManager;
+    @Nullable
+    private final JsonFileManager dailyJsonFileManager;
     private final P2PService p2PService;
     private final PriceFeedService priceFeedService;
     private final boolean dumpStatistics;
     private final ObservableSet<TradeStatistics2> observableTradeStatisticsSet = FXCollections.observableSet();
-    private final HashSet<TradeStatistics2> tradeStatisticsSet = new HashSet<>();
+    // Both maker and taker might publish the statistics of a trade, so we only accept one item per offer ID
+    private final Map<String, TradeStatistics2> tradeStatisticsByOfferId = new HashMap<>();
+    private final Map<String, TradeStatistics2> latestTradeStatisticsByCurrencyCode = new HashMap<>();
+    // Trade statistics by day (UTC) of trade date, used for the daily json files
+    private final Map<Long, List<TradeStatistics2>> tradeStatisticsByDay = new HashMap<>();
+    private boolean fullDumpScheduled;
 
     @Inject
     public TradeStatisticsManager(P2PService p2PService,
@@ -66,6 +78,7 @@ public class TradeStatisticsManager {
         this.priceFeedService = priceFeedService;
         this.dumpStatistics = dumpStatistics;
         jsonFileManager = new JsonFileManager(storageDir);
+        dailyJsonFileManager = dumpStatistics ? new JsonFileManager(new File(storageDir, DAILY_DUMP_DIR)) : null;
 
         // delay to not stress startup
         UserThread.runAfter(() -> {
@@ -121,8 +134,8 @@ public class TradeStatisticsManager {
             }
         });
 
-        priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsSet);
-        dump();
+        priceFeedService.applyLatestBisqMarketPrice(latestTradeStatisticsByCurrencyCode.values());
+        dumpAll();
 
         // print all currencies sorted by nr. of trades
         // printAllCurrencyStats();
@@ -151,21 +164,22 @@ public class TradeStatisticsManager {
     }
 
     public void addToMap(TradeStatistics2 tradeStatistics, boolean storeLocally) {
-        if (!tradeStatisticsSet.contains(tradeStatistics)) {
-            boolean itemAlreadyAdded = tradeStatisticsSet.stream().filter(e -> (e.getOfferId().equals(tradeStatistics.getOfferId()))).findAny().isPresent();
-            if (!itemAlreadyAdded) {
-                tradeStatisticsSet.add(tradeStatistics);
-                observableTradeStatisticsSet.add(tradeStatistics);
-
-                tradeStatistics.getTradePrice().getValue();
-
-                if (storeLocally) {
-                    priceFeedService.applyLatestBisqMarketPrice(tradeStatisticsSet);
-                    dump();
-                }
-            } else {
-                log.debug("We have already an item with the same offer ID. That might happen if both the maker and the taker published the tradeStatistics");
+        // An equal item has the same offer ID, so the lookup covers both cases
+        if (!tradeStatisticsByOfferId.containsKey(tradeStatistics.getOfferId())) {
+            tradeStatisticsByOfferId.put(tradeStatistics.getOfferId(), tradeStatistics);
+            observableTradeStatisticsSet.add(tradeStatistics);
+
+            boolean isLatest = updateLatestTradeStatistics(tradeStatistics);
+            if (dumpStatistics)
+                tradeStatisticsByDay.computeIfAbsent(getDay(tradeStatistics), k -> new ArrayList<>()).add(tradeStatistics);
+
+            if (storeLocally) {
+                if (isLatest)
+                    priceFeedService.setBisqMarketPrice(tradeStatistics.getCurrencyCode(), tradeStatistics.getTradePrice());
+                dump(tradeStatistics);
             }
+        } else if (!tradeStatisticsByOfferId.get(tradeStatistics.getOfferId()).equals(tradeStatistics)) {
+            log.debug("We have already an item with the same offer ID. That might happen if both the maker and the taker published the tradeStatistics");
         }
     }
 
@@ -173,25 +187,78 @@ public class TradeStatisticsManager {
         return observableTradeStatisticsSet;
     }
 
-    private void dump() {
+    // Returns true if the item is the most recent trade of its currency
+    private boolean updateLatestTradeStatistics(TradeStatistics2 tradeStatistics) {
+        String currencyCode = tradeStatistics.getCurrencyCode();
+        TradeStatistics2 latest = latestTradeStatisticsByCurrencyCode.get(currencyCode);
+        if (latest != null && latest.getTradeDate().getTime() > tradeStatistics.getTradeDate().getTime())
+            return false;
+
+        latestTradeStatisticsByCurrencyCode.put(currencyCode, tradeStatistics);
+        return true;
+    }
+
+    // We store the statistics as json so it is easy for further processing (e.g. for web based services).
+    // Beside the file with all statistics (1 statistic entry has 500 bytes as json) we write one file per day
+    // (trade_statistics/trade_statistics_yyyy-MM-dd.json, UTC). A new item only causes a write of the file of its day.
+    // The file with all statistics is written at startup and at most once per FULL_DUMP_INTERVAL_SEC.
+    // At startup we only write the files which are missing or have changed since the last run.
+    private void dumpAll() {
+        if (dumpStatistics) {
+            tradeStatisticsByDay.keySet().forEach(day -> dumpDay(day, true));
+            dumpFull(true);
+        }
+    }
+
+    private void dump(TradeStatistics2 tradeStatistics) {
         if (dumpStatistics) {
-            // We store the statistics as json so it is easy for further processing (e.g. for web based services)
-            // TODO This is just a quick solution for storing to one file.
-            // 1 statistic entry has 500 bytes as json.
-            // Need a more scalable solution later when we get more volume.
-            // The flag will only be activated by dedicated nodes, so it should not be too critical for the moment, but needs to
-            // get improved. Maybe a LevelDB like DB...? Could be impl. in a headless version only.
-            List<TradeStatisticsForJson> list = tradeStatisticsSet.stream().map(TradeStatisticsForJson::new).collect(Collectors.toList());
-            list.sort((o1, o2) -> (o1.tradeDate < o2.tradeDate ? 1 : (o1.tradeDate == o2.tradeDate ? 0 : -1)));
-            TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
-            list.toArray(array);
-            jsonFileManager.writeToDisc(Utilities.objectToJson(array), "trade_statistics");
+            dumpDay(getDay(tradeStatistics), false);
+            if (!fullDumpScheduled) {
+                fullDumpScheduled = true;
+                UserThread.runAfter(() -> {
+                    fullDumpScheduled = false;
+                    dumpFull(false);
+                }, FULL_DUMP_INTERVAL_SEC);
+            }
         }
     }
 
+    private void dumpDay(long day, boolean onlyIfChanged) {
+        List<TradeStatistics2> list = tradeStatisticsByDay.getOrDefault(day, Collections.emptyList());
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        String fileName = "trade_statistics_" + dateFormat.format(new Date(TimeUnit.DAYS.toMillis(day)));
+        String json = toJson(list);
+        if (onlyIfChanged)
+            dailyJsonFileManager.writeToDiscIfChanged(json, fileName);
+        else
+            dailyJsonFileManager.writeToDisc(json, fileName);
+    }
+
+    private void dumpFull(boolean onlyIfChanged) {
+        String json = toJson(tradeStatisticsByOfferId.values());
+        if (onlyIfChanged)
+            jsonFileManager.writeToDiscIfChanged(json, "trade_statistics");
+        else
+            jsonFileManager.writeToDisc(json, "trade_statistics");
+    }
+
+    // Sorted by trade date, most recent first
+    private static String toJson(Collection<TradeStatistics2> tradeStatistics) {
+        List<TradeStatisticsForJson> list = tradeStatistics.stream().map(TradeStatisticsForJson::new).collect(Collectors.toList());
+        list.sort((o1, o2) -> (o1.tradeDate < o2.tradeDate ? 1 : (o1.tradeDate == o2.tradeDate ? 0 : -1)));
+        TradeStatisticsForJson[] array = new TradeStatisticsForJson[list.size()];
+        list.toArray(array);
+        return Utilities.objectToJson(array);
+    }
+
+    private static long getDay(TradeStatistics2 tradeStatistics) {
+        return TimeUnit.MILLISECONDS.toDays(tradeStatistics.getTradeDate().getTime());
+    }
+
     private void printAllCurrencyStats() {
         Map<String, Set<TradeStatistics2>> map1 = new HashMap<>();
-        for (TradeStatistics2 tradeStatistics : tradeStatisticsSet) {
+        for (TradeStatistics2 tradeStatistics : tradeStatisticsByOfferId.values()) {
             if (CurrencyUtil.isFiatCurrency(tradeStatistics.getCounterCurrency())) {
                 final String counterCurrency = CurrencyUtil.getNameAndCode(tradeStatistics.getCounterCurrency());
                 if (!map1.containsKey(counterCurrency))
@@ -208,7 +275,7 @@ public class TradeStatisticsManager {
         log.error(sb1.toString());
 
         Map<String, Set<TradeStatistics2>> map2 = new HashMap<>();
-        for (TradeStatistics2 tradeStatistics : tradeStatisticsSet) {
+        for (TradeStatistics2 tradeStatistics : tradeStatisticsByOfferId.values()) {
             if (CurrencyUtil.isCryptoCurrency(tradeStatistics.getBaseCurrency())) {
                 final String code = CurrencyUtil.getNameAndCode(tradeStatistics.getBaseCurrency());
                 if (!map2.containsKey(code))
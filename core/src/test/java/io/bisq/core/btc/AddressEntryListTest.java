@@ -0,0 +1,136 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package io.bisq.core.btc;
+
+import com.google.common.collect.ImmutableList;
+import io.bisq.common.storage.Storage;
+import io.bisq.core.app.BisqEnvironment;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.bitcoinj.crypto.DeterministicKey;
+import org.bitcoinj.crypto.HDKeyDerivation;
+import org.bitcoinj.wallet.Wallet;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+@RunWith(JMockit.class)
+public class AddressEntryListTest {
+
+    @Test
+    public void testLookups(@Mocked Storage<AddressEntryList> storage) {
+        AddressEntryList addressEntryList = getAddressEntryList(storage);
+        DeterministicKey masterKey = getMasterKey();
+        AddressEntry offerFunding = addressEntryList.addAddressEntry(new AddressEntry(HDKeyDerivation.deriveChildKey(masterKey, 0),
+                AddressEntry.Context.OFFER_FUNDING, "offer1"));
+        AddressEntry reservedForTrade = addressEntryList.addAddressEntry(new AddressEntry(HDKeyDerivation.deriveChildKey(masterKey, 1),
+                AddressEntry.Context.RESERVED_FOR_TRADE, "offer1"));
+        AddressEntry available = addressEntryList.addAddressEntry(new AddressEntry(HDKeyDerivation.deriveChildKey(masterKey, 2),
+                AddressEntry.Context.AVAILABLE));
+
+        assertSame(offerFunding, addressEntryList.getAddressEntry("offer1", AddressEntry.Context.OFFER_FUNDING).get());
+        assertSame(reservedForTrade, addressEntryList.getAddressEntry("offer1", AddressEntry.Context.RESERVED_FOR_TRADE).get());
+        assertFalse(addressEntryList.getAddressEntry("offer1", AddressEntry.Context.MULTI_SIG).isPresent());
+        assertFalse(addressEntryList.getAddressEntry("offer2", AddressEntry.Context.OFFER_FUNDING).isPresent());
+
+        assertSame(available, addressEntryList.findAddressEntry(available.getAddressString(), AddressEntry.Context.AVAILABLE).get());
+        assertFalse(addressEntryList.findAddressEntry(available.getAddressString(), AddressEntry.Context.OFFER_FUNDING).isPresent());
+        assertEquals(1, addressEntryList.getAddressEntries(AddressEntry.Context.ARBITRATOR).size());
+        assertEquals(2, addressEntryList.getAddressEntries(AddressEntry.Context.OFFER_FUNDING,
+                AddressEntry.Context.RESERVED_FOR_TRADE).size());
+
+        // The swapped entry gets replaced by a new AVAILABLE entry with the same key
+        addressEntryList.swapToAvailable(offerFunding);
+        assertFalse(addressEntryList.getAddressEntry("offer1", AddressEntry.Context.OFFER_FUNDING).isPresent());
+        assertFalse(addressEntryList.findAddressEntry(offerFunding.getAddressString(), AddressEntry.Context.OFFER_FUNDING).isPresent());
+        Optional<AddressEntry> swapped = addressEntryList.findAddressEntry(offerFunding.getAddressString(), AddressEntry.Context.AVAILABLE);
+        assertTrue(swapped.isPresent());
+        assertNull(swapped.get().getOfferId());
+        assertEquals(2, addressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE).size());
+
+        addressEntryList.swapTradeToSavings("offer1");
+        assertTrue(addressEntryList.getAddressEntries(AddressEntry.Context.RESERVED_FOR_TRADE).isEmpty());
+        assertEquals(3, addressEntryList.getAddressEntries(AddressEntry.Context.AVAILABLE).size());
+        assertEquals(4, addressEntryList.getList().size());
+    }
+
+    // Compares the indexed lookups with the former linear search over a copy of the list. Not run by default as
+    // deriving the keys takes a while.
+    @Ignore
+    @Test
+    public void benchmark(@Mocked Storage<AddressEntryList> storage) {
+        AddressEntryList addressEntryList = getAddressEntryList(storage);
+        DeterministicKey masterKey = getMasterKey();
+        AddressEntry.Context[] contexts = AddressEntry.Context.values();
+        int numEntries = 5000;
+        List<String> offerIds = new ArrayList<>();
+        for (int i = 0; i < numEntries; i++) {
+            AddressEntry.Context context = contexts[1 + i % (contexts.length - 1)];
+            String offerId = context == AddressEntry.Context.AVAILABLE ? null : "offer" + i;
+            if (offerId != null)
+                offerIds.add(offerId);
+            addressEntryList.addAddressEntry(new AddressEntry(HDKeyDerivation.deriveChildKey(masterKey, i), context, offerId));
+        }
+
+        int numRuns = 10_000;
+        Random random = new Random();
+        long ts = System.nanoTime();
+        for (int i = 0; i < numRuns; i++) {
+            String offerId = offerIds.get(random.nextInt(offerIds.size()));
+            ImmutableList.copyOf(addressEntryList.getList()).stream()
+                    .filter(e -> offerId.equals(e.getOfferId()))
+                    .filter(e -> AddressEntry.Context.OFFER_FUNDING == e.getContext())
+                    .findAny();
+            ImmutableList.copyOf(addressEntryList.getList()).stream()
+                    .filter(e -> AddressEntry.Context.AVAILABLE == e.getContext())
+                    .findAny();
+        }
+        long linearTime = System.nanoTime() - ts;
+
+        ts = System.nanoTime();
+        for (int i = 0; i < numRuns; i++) {
+            addressEntryList.getAddressEntry(offerIds.get(random.nextInt(offerIds.size())), AddressEntry.Context.OFFER_FUNDING);
+            addressEntryList.findAnyAddressEntry(AddressEntry.Context.AVAILABLE);
+        }
+        long indexedTime = System.nanoTime() - ts;
+
+        System.out.println(numEntries + " address entries, " + numRuns + " lookups: linear search took " +
+                linearTime / 1_000_000 + " ms, indexed lookup took " + indexedTime / 1_000_000 + " ms");
+    }
+
+    private static AddressEntryList getAddressEntryList(Storage<AddressEntryList> storage) {
+        AddressEntryList addressEntryList = new AddressEntryList(storage);
+        // Creates the list with the ARBITRATOR entry
+        addressEntryList.onWalletReady(new Wallet(BisqEnvironment.getParameters()));
+        return addressEntryList;
+    }
+
+    private static DeterministicKey getMasterKey() {
+        byte[] seed = new byte[32];
+        new Random().nextBytes(seed);
+        return HDKeyDerivation.createMasterPrivateKey(seed);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.btc.wallet;
+
+import com.google.common.collect.Sets;
+import io.bisq.core.app.BisqEnvironment;
+import org.bitcoinj.core.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TxsByAddressIndexTest {
+    private NetworkParameters params;
+    private TxsByAddressIndex index;
+    private Address addressA, addressB, addressC;
+
+    @Before
+    public void setup() {
+        params = BisqEnvironment.getParameters();
+        Context.propagate(new Context(params));
+        index = new TxsByAddressIndex();
+        addressA = new ECKey().toAddress(params);
+        addressB = new ECKey().toAddress(params);
+        addressC = new ECKey().toAddress(params);
+    }
+
+    @Test
+    public void testSpenderAddedBeforeFundingTx() {
+        Transaction fundingTx = createTx(addressA);
+        Transaction spendingTx = new Transaction(params);
+        // Not connected yet as the wallet does not know the funding tx
+        TransactionInput input = spendingTx.addInput(new TransactionInput(params, spendingTx, new byte[]{},
+                new TransactionOutPoint(params, 0, fundingTx.getHash())));
+        spendingTx.addOutput(Coin.COIN, addressB);
+
+        index.update(spendingTx);
+        assertEquals(Collections.singletonList(spendingTx), index.getTransactions(addressB));
+        assertTrue(index.getTransactions(addressA).isEmpty());
+
+        fundingTx.getOutput(0).markAsSpent(input);
+        index.update(fundingTx);
+        assertEquals(Sets.newHashSet(fundingTx, spendingTx), Sets.newHashSet(index.getTransactions(addressA)));
+        assertEquals(Collections.singletonList(spendingTx), index.getTransactions(addressB));
+    }
+
+    @Test
+    public void testDeadTxRemoved() {
+        Transaction tx1 = createTx(addressA);
+        Transaction tx2 = createTx(addressA, addressB);
+        index.update(tx1);
+        index.update(tx2);
+        assertEquals(2, index.getTransactions(addressA).size());
+
+        tx2.getConfidence().setConfidenceType(TransactionConfidence.ConfidenceType.DEAD);
+        index.update(tx2);
+        assertEquals(Collections.singletonList(tx1), index.getTransactions(addressA));
+        assertTrue(index.getTransactions(addressB).isEmpty());
+
+        // A dead tx is not added again
+        index.addAll(Collections.singletonList(tx2));
+        assertTrue(index.getTransactions(addressB).isEmpty());
+    }
+
+    @Test
+    public void testAddAllIgnoresKnownTxs() {
+        Transaction tx = createTx(addressA);
+        index.update(tx);
+        index.addAll(Arrays.asList(tx, tx));
+        assertEquals(Collections.singletonList(tx), index.getTransactions(addressA));
+    }
+
+    @Test
+    public void testRebuildAfterReorg() {
+        Transaction tx1 = createTx(addressA);
+        Transaction tx2 = createTx(addressB);
+        index.update(tx1);
+        index.update(tx2);
+
+        // tx1 is not in the wallet anymore after the reorg
+        Transaction tx3 = createTx(addressC);
+        index.rebuild(Arrays.asList(tx2, tx3));
+        assertTrue(index.getTransactions(addressA).isEmpty());
+        assertEquals(Collections.singletonList(tx2), index.getTransactions(addressB));
+        assertEquals(Collections.singletonList(tx3), index.getTransactions(addressC));
+    }
+
+    // The listeners of WalletService only get notified for those addresses
+    @Test
+    public void testAddressesOfTx() {
+        Transaction fundingTx = createTx(addressA, addressC);
+        Transaction spendingTx = new Transaction(params);
+        spendingTx.addInput(fundingTx.getOutput(0));
+        spendingTx.addOutput(Coin.COIN, addressB);
+
+        assertEquals(Sets.newHashSet(addressA, addressB), TxsByAddressIndex.getAddresses(spendingTx));
+        assertEquals(Sets.newHashSet(addressA, addressC), TxsByAddressIndex.getAddresses(fundingTx));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private Transaction createTx(Address... outputAddresses) {
+        Transaction tx = new Transaction(params);
+        for (Address address : outputAddresses)
+            tx.addOutput(Coin.COIN, address);
+        return tx;
+    }
+}
@@ -17,11 +17,23 @@
 
 package io.bisq.core.dao.blockchain.parse;
 
+import io.bisq.core.dao.blockchain.exceptions.BlockNotConnectingException;
+import io.bisq.core.dao.blockchain.vo.*;
+import org.junit.Ignore;
 import org.junit.Test;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
 import static org.junit.Assert.*;
 
 public class BsqChainStateTest {
+    private static final long GENESIS_OUTPUT_VALUE = 100_000_000;
+    private static final long FEE = 100;
 
     @Test
     public void testGetSnapshotHeight() {
@@ -52,4 +64,165 @@ public class BsqChainStateTest {
         assertFalse(BsqChainState.isSnapshotHeight(102, 201, 10));
         assertFalse(BsqChainState.isSnapshotHeight(102, 199, 10));
     }
+
+    @Test
+    public void testIndexes() throws IOException, BlockNotConnectingException {
+        BsqChainState bsqChainState = createBsqChainState();
+        List<BsqBlock> bsqBlocks = createChain(bsqChainState, 20, 2);
+        createBsqParser(bsqChainState).parseBsqBlocks(bsqBlocks,
+                bsqChainState.getGenesisBlockHeight(), bsqChainState.getGenesisTxId(), bsqBlock -> {
+                });
+
+        // Each tx spends one output and creates two outputs
+        int numTxs = 20 * 2;
+        assertEquals(10 + numTxs, bsqChainState.getUnspentTxOutputs().size());
+        assertEquals(numTxs, bsqChainState.getSpentTxOutputs().size());
+        assertEquals(numTxs, bsqChainState.getFeeTransactions().size());
+        assertEquals(numTxs * FEE, bsqChainState.getTotalBurntFee().value);
+        bsqChainState.getUnspentTxOutputs().forEach(txOutput -> assertTrue(txOutput.isUnspent()));
+        bsqChainState.getSpentTxOutputs().forEach(txOutput -> {
+            assertFalse(txOutput.isUnspent());
+            assertFalse(bsqChainState.getSpendableTxOutput(txOutput.getTxIdIndexTuple()).isPresent());
+        });
+
+        // Indexes of a clone are built from the persisted data
+        BsqChainState clone = bsqChainState.getClone();
+        assertEquals(bsqChainState.getUnspentTxOutputs(), clone.getUnspentTxOutputs());
+        assertEquals(bsqChainState.getSpentTxOutputs(), clone.getSpentTxOutputs());
+        assertEquals(bsqChainState.getFeeTransactions(), clone.getFeeTransactions());
+        TxOutput unspentTxOutput = clone.getUnspentTxOutputs().iterator().next();
+        assertSame(clone.getTxMap().get(unspentTxOutput.getTxId()).getOutputs().get(unspentTxOutput.getIndex()),
+                clone.getSpendableTxOutput(unspentTxOutput.getTxIdIndexTuple()).get());
+    }
+
+    @Test
+    public void testCopiesFromBlockHeight() throws IOException, BlockNotConnectingException {
+        BsqChainState bsqChainState = createBsqChainState();
+        List<BsqBlock> bsqBlocks = createChain(bsqChainState, 20, 2);
+        createBsqParser(bsqChainState).parseBsqBlocks(bsqBlocks,
+                bsqChainState.getGenesisBlockHeight(), bsqChainState.getGenesisTxId(), bsqBlock -> {
+                });
+
+        int fromBlockHeight = bsqChainState.getChainHeadHeight() - 4;
+        List<BsqBlock> resettedBlocks = bsqChainState.getResettedBlocksFrom(fromBlockHeight);
+        assertEquals(5, resettedBlocks.size());
+        for (int i = 0; i < resettedBlocks.size(); i++) {
+            BsqBlock block = resettedBlocks.get(i);
+            assertEquals(fromBlockHeight + i, block.getHeight());
+            block.getTxs().forEach(tx -> tx.getInputs().forEach(txInput -> assertNull(txInput.getConnectedTxOutput())));
+        }
+        // The blocks of the chain state are not affected by the reset
+        bsqChainState.getTxMap().values().stream()
+                .filter(tx -> tx.getBlockHeight() >= fromBlockHeight)
+                .forEach(tx -> tx.getInputs().forEach(txInput -> assertNotNull(txInput.getConnectedTxOutput())));
+        assertTrue(bsqChainState.getResettedBlocksFrom(bsqChainState.getChainHeadHeight() + 1).isEmpty());
+
+        // The 2 txs of the last block and the tx whose two outputs they spent
+        List<Tx> txs = bsqChainState.getClonedTxsChangedFrom(bsqChainState.getChainHeadHeight());
+        assertEquals(3, txs.size());
+        txs.forEach(tx -> {
+            Tx original = bsqChainState.getTxMap().get(tx.getId());
+            assertNotSame(original, tx);
+            assertEquals(original, tx);
+        });
+        assertEquals(bsqChainState.getTxMap().size(), bsqChainState.getClonedTxsChangedFrom(0).size());
+    }
+
+    // Parses a synthetic chain of 10000 blocks and measures the read access.
+    // Not run by default as it takes a while.
+    @Ignore
+    @Test
+    public void benchmark() throws IOException, BlockNotConnectingException {
+        BsqChainState bsqChainState = createBsqChainState();
+        List<BsqBlock> bsqBlocks = createChain(bsqChainState, 10_000, 5);
+
+        long ts = System.currentTimeMillis();
+        createBsqParser(bsqChainState).parseBsqBlocks(bsqBlocks,
+                bsqChainState.getGenesisBlockHeight(), bsqChainState.getGenesisTxId(), bsqBlock -> {
+                });
+        long parseTime = System.currentTimeMillis() - ts;
+
+        ts = System.currentTimeMillis();
+        int numQueries = 1000;
+        for (int i = 0; i < numQueries; i++) {
+            bsqChainState.getUnspentTxOutputs();
+            bsqChainState.getSpentTxOutputs();
+            bsqChainState.getTotalBurntFee();
+            bsqChainState.existsCompensationRequestBtcAddress("address" + i);
+            bsqChainState.findSponsoringBtcOutputsWithSameBtcAddress("address" + i);
+            bsqChainState.getResettedBlocksFrom(bsqChainState.getChainHeadHeight() - 10);
+        }
+        long queryTime = System.currentTimeMillis() - ts;
+
+        System.out.println("Parsing " + bsqBlocks.size() + " blocks took " + parseTime + " ms, " +
+                numQueries + " runs of the read methods took " + queryTime + " ms");
+    }
+
+    // We don't have compensation requests, so we don't need the OP_RETURN verification and the issuance verification
+    // never succeeds
+    private BsqParser createBsqParser(BsqChainState bsqChainState) {
+        return new BsqParser(null, bsqChainState, null, new IssuanceVerification(bsqChainState, null, null, null) {
+            @Override
+            boolean maybeProcessData(Tx tx) {
+                return false;
+            }
+        });
+    }
+
+    private BsqChainState createBsqChainState() throws IOException {
+        File dir = File.createTempFile("temp_tests", "");
+        //noinspection ResultOfMethodCallIgnored
+        dir.delete();
+        //noinspection ResultOfMethodCallIgnored
+        dir.mkdir();
+        dir.deleteOnExit();
+        BsqChainState bsqChainState = new BsqChainState(null, dir);
+        // Inits the storage, needed for the snapshots
+        bsqChainState.applySnapshot();
+        return bsqChainState;
+    }
+
+    // Genesis tx with 10 outputs, after that each tx spends the oldest unspent output and creates two outputs and
+    // burns a fee
+    private List<BsqBlock> createChain(BsqChainState bsqChainState, int numBlocks, int numTxsPerBlock) {
+        List<BsqBlock> bsqBlocks = new ArrayList<>();
+        Deque<TxOutput> unspentTxOutputs = new ArrayDeque<>();
+        int genesisBlockHeight = bsqChainState.getGenesisBlockHeight();
+        String genesisTxId = bsqChainState.getGenesisTxId();
+
+        List<TxOutput> genesisOutputs = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            genesisOutputs.add(new TxOutput(i, GENESIS_OUTPUT_VALUE, genesisTxId, null, "address" + i, null, genesisBlockHeight));
+        unspentTxOutputs.addAll(genesisOutputs);
+        Tx genesisTx = new Tx(new TxVo(genesisTxId, genesisBlockHeight, "hash" + genesisBlockHeight, 0),
+                new ArrayList<>(), genesisOutputs);
+        bsqBlocks.add(new BsqBlock(genesisBlockHeight, "hash" + genesisBlockHeight, "hash" + (genesisBlockHeight - 1),
+                createList(genesisTx)));
+
+        int addressCounter = 10;
+        for (int height = genesisBlockHeight + 1; height < genesisBlockHeight + numBlocks + 1; height++) {
+            List<Tx> txs = new ArrayList<>();
+            for (int i = 0; i < numTxsPerBlock; i++) {
+                String txId = "tx-" + height + "-" + i;
+                TxOutput spentTxOutput = unspentTxOutputs.poll();
+                List<TxOutput> outputs = new ArrayList<>();
+                long value = spentTxOutput.getValue() / 2;
+                outputs.add(new TxOutput(0, value, txId, null, "address" + (addressCounter++ % 1000), null, height));
+                outputs.add(new TxOutput(1, spentTxOutput.getValue() - value - FEE, txId, null,
+                        "address" + (addressCounter++ % 1000), null, height));
+                unspentTxOutputs.addAll(outputs);
+                txs.add(new Tx(new TxVo(txId, height, "hash" + height, 0),
+                        createList(new TxInput(spentTxOutput.getTxId(), spentTxOutput.getIndex())),
+                        outputs));
+            }
+            bsqBlocks.add(new BsqBlock(height, "hash" + height, "hash" + (height - 1), txs));
+        }
+        return bsqBlocks;
+    }
+
+    private static <T> List<T> createList(T item) {
+        List<T> list = new ArrayList<>();
+        list.add(item);
+        return list;
+    }
 }
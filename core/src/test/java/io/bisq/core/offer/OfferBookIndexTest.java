@@ -0,0 +1,144 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.offer;
+
+import io.bisq.core.provider.price.MarketPrice;
+import io.bisq.core.provider.price.PriceFeedService;
+import mockit.Expectations;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+@RunWith(JMockit.class)
+public class OfferBookIndexTest {
+    private static final long EUR_UNIT = 10_000;
+
+    @Mocked
+    private PriceFeedService priceFeedService;
+
+    private final OfferBookIndex offerBookIndex = new OfferBookIndex();
+
+    @Test
+    public void testAddAndRemove() {
+        Offer offer = createFixedPriceOffer("1", OfferPayload.Direction.BUY, 1000);
+        assertSame(offer, offerBookIndex.add(offer));
+        // An offer with the same payload does not replace the indexed instance
+        assertSame(offer, offerBookIndex.add(new Offer(offer.getOfferPayload())));
+        assertEquals(1, offerBookIndex.getAll().size());
+
+        assertSame(offer, offerBookIndex.remove("1"));
+        assertNull(offerBookIndex.remove("1"));
+        assertTrue(offerBookIndex.getAll().isEmpty());
+        assertTrue(offerBookIndex.getOffersSortedByPrice("EUR", OfferPayload.Direction.BUY).isEmpty());
+    }
+
+    @Test
+    public void testFixedPriceOffersSortedByPrice() {
+        offerBookIndex.add(createFixedPriceOffer("1", OfferPayload.Direction.BUY, 3000));
+        offerBookIndex.add(createFixedPriceOffer("2", OfferPayload.Direction.BUY, 1000));
+        offerBookIndex.add(createFixedPriceOffer("3", OfferPayload.Direction.BUY, 2000));
+        offerBookIndex.add(createFixedPriceOffer("4", OfferPayload.Direction.SELL, 1500));
+
+        assertEquals(Arrays.asList("2", "3", "1"), getIdsSortedByPrice(OfferPayload.Direction.BUY));
+        assertEquals(Collections.singletonList("4"), getIdsSortedByPrice(OfferPayload.Direction.SELL));
+
+        offerBookIndex.remove("3");
+        assertEquals(Arrays.asList("2", "1"), getIdsSortedByPrice(OfferPayload.Direction.BUY));
+    }
+
+    @Test
+    public void testMarketBasedOffersMergedByPrice() {
+        setMarketPrice(new MarketPrice("EUR", 2500, Instant.now().getEpochSecond(), true));
+
+        offerBookIndex.add(createFixedPriceOffer("fixed1000", OfferPayload.Direction.BUY, 1000));
+        offerBookIndex.add(createFixedPriceOffer("fixed2400", OfferPayload.Direction.BUY, 2400));
+        offerBookIndex.add(createFixedPriceOffer("fixed3000", OfferPayload.Direction.BUY, 3000));
+        // Buy offers of fiat currencies: price = market price * (1 - margin)
+        offerBookIndex.add(createMarketBasedOffer("margin-10", OfferPayload.Direction.BUY, -0.1));
+        offerBookIndex.add(createMarketBasedOffer("margin0", OfferPayload.Direction.BUY, 0));
+        offerBookIndex.add(createMarketBasedOffer("margin10", OfferPayload.Direction.BUY, 0.1));
+
+        assertEquals(Arrays.asList("fixed1000", "margin10", "fixed2400", "margin0", "margin-10", "fixed3000"),
+                getIdsSortedByPrice(OfferPayload.Direction.BUY));
+
+        // Sell offers of fiat currencies: price = market price * (1 + margin)
+        offerBookIndex.add(createMarketBasedOffer("sellMargin10", OfferPayload.Direction.SELL, 0.1));
+        offerBookIndex.add(createMarketBasedOffer("sellMargin-10", OfferPayload.Direction.SELL, -0.1));
+        offerBookIndex.add(createFixedPriceOffer("sellFixed2600", OfferPayload.Direction.SELL, 2600));
+
+        assertEquals(Arrays.asList("sellMargin-10", "sellFixed2600", "sellMargin10"),
+                getIdsSortedByPrice(OfferPayload.Direction.SELL));
+    }
+
+    @Test
+    public void testOffersWithoutPriceAtEnd() {
+        setMarketPrice(null);
+
+        offerBookIndex.add(createMarketBasedOffer("margin0", OfferPayload.Direction.BUY, 0));
+        offerBookIndex.add(createFixedPriceOffer("fixed2000", OfferPayload.Direction.BUY, 2000));
+        offerBookIndex.add(createFixedPriceOffer("fixed1000", OfferPayload.Direction.BUY, 1000));
+
+        assertEquals(Arrays.asList("fixed1000", "fixed2000", "margin0"), getIdsSortedByPrice(OfferPayload.Direction.BUY));
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void setMarketPrice(MarketPrice marketPrice) {
+        new Expectations() {{
+            priceFeedService.getMarketPrice("EUR");
+            result = marketPrice;
+            minTimes = 0;
+        }};
+    }
+
+    private List<String> getIdsSortedByPrice(OfferPayload.Direction direction) {
+        return offerBookIndex.getOffersSortedByPrice("EUR", direction).stream()
+                .map(Offer::getId)
+                .collect(Collectors.toList());
+    }
+
+    private Offer createFixedPriceOffer(String id, OfferPayload.Direction direction, long price) {
+        return createOffer(id, direction, price * EUR_UNIT, 0, false);
+    }
+
+    private Offer createMarketBasedOffer(String id, OfferPayload.Direction direction, double marketPriceMargin) {
+        return createOffer(id, direction, 0, marketPriceMargin, true);
+    }
+
+    private Offer createOffer(String id, OfferPayload.Direction direction, long price, double marketPriceMargin,
+                              boolean useMarketBasedPrice) {
+        OfferPayload offerPayload = new OfferPayload(id, 0, null, null, direction, price, marketPriceMargin,
+                useMarketBasedPrice, 1, 1, "BTC", "EUR", null, null, "SEPA", "accountId", null, null, null, null,
+                null, "0.6.0", 0, 0, 0, true, 0, 0, 0, 0, false, false, 0, 0, false, null, null, 1);
+        Offer offer = new Offer(offerPayload);
+        offer.setPriceFeedService(priceFeedService);
+        return offer;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.offer;
+
+import io.bisq.common.crypto.CryptoException;
+import io.bisq.common.crypto.KeyRing;
+import io.bisq.common.crypto.KeyStorage;
+import io.bisq.common.proto.persistable.PersistenceProtoResolver;
+import io.bisq.common.storage.FileUtil;
+import io.bisq.network.p2p.NodeAddress;
+import io.bisq.network.p2p.network.NetworkNode;
+import io.bisq.network.p2p.peers.Broadcaster;
+import io.bisq.network.p2p.storage.P2PDataStorage;
+import io.bisq.network.p2p.storage.messages.RefreshOfferMessage;
+import io.bisq.network.p2p.storage.payload.ProtectedStorageEntry;
+import mockit.Mocked;
+import mockit.integration.junit4.JMockit;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+// Offers at the P2PDataStorage, which caches the proto message and hash of the payload at the ProtectedStorageEntry
+@RunWith(JMockit.class)
+public class OfferPayloadStorageTest {
+    private static final NodeAddress NODE_ADDRESS = new NodeAddress("localhost", 8000);
+
+    @Mocked
+    private NetworkNode networkNode;
+    @Mocked
+    private Broadcaster broadcaster;
+    @Mocked
+    private PersistenceProtoResolver persistenceProtoResolver;
+
+    private File dir;
+    private KeyRing keyRing;
+    private P2PDataStorage dataStorage;
+
+    @Before
+    public void setup() throws IOException {
+        Security.addProvider(new BouncyCastleProvider());
+        dir = File.createTempFile("temp_tests", "");
+        //noinspection ResultOfMethodCallIgnored
+        dir.delete();
+        //noinspection ResultOfMethodCallIgnored
+        dir.mkdir();
+        keyRing = new KeyRing(new KeyStorage(dir));
+        dataStorage = new P2PDataStorage(networkNode, broadcaster, dir, persistenceProtoResolver);
+        dataStorage.readPersisted();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        dataStorage.shutDown();
+        FileUtil.deleteDirectory(dir);
+    }
+
+    @Test
+    public void testCachedHashAndProto() throws CryptoException {
+        OfferPayload offerPayload = createOfferPayload("1");
+        ProtectedStorageEntry entry = dataStorage.getProtectedStorageEntry(offerPayload, keyRing.getSignatureKeyPair());
+
+        assertEquals(offerPayload.toProtoMessage(), entry.getStoragePayloadProto());
+        assertSame(entry.getStoragePayloadProto(), entry.getStoragePayloadProto());
+        assertArrayEquals(P2PDataStorage.getHash(offerPayload), entry.getHashOfPayload());
+        assertSame(entry.getHashOfPayload(), entry.getHashOfPayload());
+    }
+
+    @Test
+    public void testAddAndRefresh() throws CryptoException {
+        OfferPayload offerPayload = createOfferPayload("1");
+        ProtectedStorageEntry entry = dataStorage.getProtectedStorageEntry(offerPayload, keyRing.getSignatureKeyPair());
+
+        assertTrue(dataStorage.addProtectedStorageEntry(entry, null, null, true));
+        assertSame(entry, dataStorage.getMap().get(new P2PDataStorage.ByteArray(P2PDataStorage.getHash(offerPayload))));
+
+        RefreshOfferMessage refreshOfferMessage = dataStorage.getRefreshTTLMessage(offerPayload, keyRing.getSignatureKeyPair());
+        assertTrue(dataStorage.refreshTTL(refreshOfferMessage, null, true));
+        assertEquals(refreshOfferMessage.getSequenceNumber(), entry.getSequenceNumber());
+        assertEquals(1, dataStorage.getMap().size());
+    }
+
+    // Adds and refreshes 5000 offers and compares it with the time needed to serialize and hash the payloads, which
+    // was done several times at each add and refresh before they got cached.
+    // Not run by default as it takes a few seconds.
+    @Ignore
+    @Test
+    public void benchmark() throws CryptoException {
+        int numOffers = 5000;
+        List<OfferPayload> offerPayloads = new ArrayList<>();
+        List<ProtectedStorageEntry> entries = new ArrayList<>();
+        for (int i = 0; i < numOffers; i++) {
+            OfferPayload offerPayload = createOfferPayload(String.valueOf(i));
+            offerPayloads.add(offerPayload);
+            entries.add(dataStorage.getProtectedStorageEntry(offerPayload, keyRing.getSignatureKeyPair()));
+        }
+
+        long ts = System.nanoTime();
+        long hashLength = 0;
+        for (OfferPayload offerPayload : offerPayloads)
+            hashLength += P2PDataStorage.getHash(offerPayload).length;
+        System.out.println("Serialize and hash " + numOffers + " offers: " + (System.nanoTime() - ts) / 1000000 +
+                " ms (" + hashLength + " bytes)");
+
+        ts = System.nanoTime();
+        for (ProtectedStorageEntry entry : entries)
+            assertTrue(dataStorage.addProtectedStorageEntry(entry, null, null, true));
+        System.out.println("Add " + numOffers + " offers: " + (System.nanoTime() - ts) / 1000000 + " ms");
+
+        // Adding the same entries again is what happens if we get the offers from several peers
+        ts = System.nanoTime();
+        for (ProtectedStorageEntry entry : entries)
+            assertTrue(dataStorage.addProtectedStorageEntry(entry, null, null, false));
+        System.out.println("Add " + numOffers + " known offers: " + (System.nanoTime() - ts) / 1000000 + " ms");
+
+        List<RefreshOfferMessage> refreshOfferMessages = new ArrayList<>();
+        for (OfferPayload offerPayload : offerPayloads)
+            refreshOfferMessages.add(dataStorage.getRefreshTTLMessage(offerPayload, keyRing.getSignatureKeyPair()));
+
+        ts = System.nanoTime();
+        for (RefreshOfferMessage refreshOfferMessage : refreshOfferMessages)
+            assertTrue(dataStorage.refreshTTL(refreshOfferMessage, null, false));
+        System.out.println("Refresh " + numOffers + " offers: " + (System.nanoTime() - ts) / 1000000 + " ms");
+
+        assertEquals(numOffers, dataStorage.getMap().size());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private OfferPayload createOfferPayload(String id) {
+        return new OfferPayload(id, System.currentTimeMillis(), NODE_ADDRESS, keyRing.getPubKeyRing(),
+                OfferPayload.Direction.BUY, 40000000, 0, false, 1000000, 500000, "BTC", "EUR",
+                Collections.singletonList(NODE_ADDRESS), Collections.singletonList(NODE_ADDRESS), "SEPA",
+                "accountId", "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef", "DE",
+                Collections.singletonList("DE"), null, null, "0.6.0", 500000, 20000, 10000, true, 1000000,
+                1000000, 100000000, 691200000, false, false, 0, 0, false, null, null, 1);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.core.trade.statistics;
+
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.Assert.assertEquals;
+
+public class TickUnitTest {
+    private final ZoneId zoneId = ZoneId.of("UTC");
+
+    @Test
+    public void testGetStartTime() {
+        // Wednesday
+        long time = toMillis(LocalDateTime.of(2018, 3, 14, 15, 27, 33, 123));
+        assertEquals(toMillis(LocalDateTime.of(2018, 1, 1, 0, 0)), TickUnit.YEAR.getStartTime(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 1, 0, 0)), TickUnit.MONTH.getStartTime(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 12, 0, 0)), TickUnit.WEEK.getStartTime(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 14, 0, 0)), TickUnit.DAY.getStartTime(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 14, 15, 0)), TickUnit.HOUR.getStartTime(time, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 14, 15, 20)), TickUnit.MINUTE_10.getStartTime(time, zoneId));
+
+        // Start of an interval is in the interval
+        long startOfDay = toMillis(LocalDateTime.of(2018, 3, 14, 0, 0));
+        assertEquals(startOfDay, TickUnit.DAY.getStartTime(startOfDay, zoneId));
+        assertEquals(toMillis(LocalDateTime.of(2018, 3, 13, 0, 0)), TickUnit.DAY.getStartTime(startOfDay - 1, zoneId));
+    }
+
+    private long toMillis(LocalDateTime localDateTime) {
+        return localDateTime.atZone(zoneId).toInstant().toEpochMilli();
+    }
+}
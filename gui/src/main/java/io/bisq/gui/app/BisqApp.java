@@ -126,7 +126,7 @@ public class BisqApp extends Application {
         Log.setLevel(Level.toLevel(bisqEnvironment.getRequiredProperty(CommonOptionKeys.LOG_LEVEL_KEY)));
 
         UserThread.setExecutor(Platform::runLater);
-        UserThread.setTimerClass(UITimer.class);
+        UserThread.setTimerFactory(UITimer::new);
 
         shutDownHandler = this::stop;
 
@@ -169,7 +169,9 @@ public class BisqApp extends Application {
         Capabilities.setSupportedCapabilities(new ArrayList<>(Arrays.asList(
                 Capabilities.Capability.TRADE_STATISTICS.ordinal(),
                 Capabilities.Capability.TRADE_STATISTICS_2.ordinal(),
-                Capabilities.Capability.ACCOUNT_AGE_WITNESS.ordinal()
+                Capabilities.Capability.ACCOUNT_AGE_WITNESS.ordinal(),
+                Capabilities.Capability.GET_DATA_FILTER.ordinal(),
+                Capabilities.Capability.CHUNKED_GET_DATA_RESPONSE.ordinal()
         )));
     }
 
@@ -48,6 +48,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -239,50 +240,29 @@ class OfferBookChartViewModel extends ActivatableViewModel {
     }
 
     private void updateChartData() {
-        List<Offer> allBuyOffers = offerBookListItems.stream()
-                .map(OfferBookListItem::getOffer)
-                .filter(e -> e.getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())
-                        && e.getDirection().equals(OfferPayload.Direction.BUY))
-                .sorted((o1, o2) -> {
-                    long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
-                    long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
-                    if (a != b) {
-                        if (CurrencyUtil.isCryptoCurrency(o1.getCurrencyCode()))
-                            return a > b ? 1 : -1;
-                        else
-                            return a < b ? 1 : -1;
-                    } else {
-                        return 0;
-                    }
-                })
-                .collect(Collectors.toList());
+        String currencyCode = selectedTradeCurrencyProperty.get().getCode();
+        boolean isCryptoCurrency = CurrencyUtil.isCryptoCurrency(currencyCode);
 
+        List<Offer> allBuyOffers = getOffersSortedByPrice(currencyCode, OfferPayload.Direction.BUY, !isCryptoCurrency);
         allBuyOffers = filterOffersWithRelevantPrices(allBuyOffers);
         buildChartAndTableEntries(allBuyOffers, OfferPayload.Direction.BUY, buyData, topBuyOfferList);
 
-        List<Offer> allSellOffers = offerBookListItems.stream()
-                .map(OfferBookListItem::getOffer)
-                .filter(e -> e.getCurrencyCode().equals(selectedTradeCurrencyProperty.get().getCode())
-                        && e.getDirection().equals(OfferPayload.Direction.SELL))
-                .sorted((o1, o2) -> {
-                    long a = o1.getPrice() != null ? o1.getPrice().getValue() : 0;
-                    long b = o2.getPrice() != null ? o2.getPrice().getValue() : 0;
-                    if (a != b) {
-                        if (CurrencyUtil.isCryptoCurrency(o1.getCurrencyCode()))
-                            return a < b ? 1 : -1;
-                        else
-                            return a > b ? 1 : -1;
-                    } else {
-                        return 0;
-                    }
-                })
-                .collect(Collectors.toList());
-
+        List<Offer> allSellOffers = getOffersSortedByPrice(currencyCode, OfferPayload.Direction.SELL, isCryptoCurrency);
         allSellOffers = filterOffersWithRelevantPrices(allSellOffers);
         buildChartAndTableEntries(allSellOffers, OfferPayload.Direction.SELL, sellData, topSellOfferList);
     }
 
-    // If there are more then 3 offers we ignore the offers which are further than 30% from the best price
+    // The offer book keeps the offers of a market sorted by price, so we don't need to filter and sort all offers.
+    // Offers without a price stay at the end.
+    private List<Offer> getOffersSortedByPrice(String currencyCode, OfferPayload.Direction direction, boolean highestPriceFirst) {
+        List<Offer> offers = offerBook.getOffersSortedByPrice(currencyCode, direction);
+        if (highestPriceFirst) {
+            int numOffersWithPrice = (int) offers.stream().filter(offer -> offer.getPrice() != null).count();
+            Collections.reverse(offers.subList(0, numOffersWithPrice));
+        }
+        return offers;
+    }
+
     private List<Offer> filterOffersWithRelevantPrices(List<Offer> offers) {
         if (offers.size() > 3) {
             Price bestPrice = offers.get(0).getPrice();
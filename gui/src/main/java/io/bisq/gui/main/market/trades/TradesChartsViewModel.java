@@ -26,7 +26,10 @@ import io.bisq.common.locale.TradeCurrency;
 import io.bisq.common.monetary.Altcoin;
 import io.bisq.common.util.MathUtils;
 import io.bisq.core.provider.price.PriceFeedService;
+import io.bisq.core.trade.statistics.Candle;
+import io.bisq.core.trade.statistics.TickUnit;
 import io.bisq.core.trade.statistics.TradeStatistics2;
+import io.bisq.core.trade.statistics.TradeStatisticsCandleService;
 import io.bisq.core.trade.statistics.TradeStatisticsManager;
 import io.bisq.core.user.Preferences;
 import io.bisq.gui.Navigation;
@@ -42,44 +45,26 @@ import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.SetChangeListener;
 import javafx.scene.chart.XYChart;
-import javafx.util.Pair;
 import org.bitcoinj.core.Coin;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
 
 class TradesChartsViewModel extends ActivatableViewModel {
     private static final int TAB_INDEX = 2;
 
-
-    ///////////////////////////////////////////////////////////////////////////////////////////
-    // Enum
-    ///////////////////////////////////////////////////////////////////////////////////////////
-
-    public enum TickUnit {
-        YEAR,
-        MONTH,
-        WEEK,
-        DAY,
-        HOUR,
-        MINUTE_10
-    }
-
     private final TradeStatisticsManager tradeStatisticsManager;
+    private final TradeStatisticsCandleService candleService;
     final Preferences preferences;
     private PriceFeedService priceFeedService;
     private Navigation navigation;
     private BSFormatter formatter;
 
-    private final SetChangeListener<TradeStatistics2> setChangeListener;
+    private final ChangeListener<Number> candleServiceUpdateListener;
     final ObjectProperty<TradeCurrency> selectedTradeCurrencyProperty = new SimpleObjectProperty<>();
     final BooleanProperty showAllTradeCurrenciesProperty = new SimpleBooleanProperty(false);
     private final ObservableList<CurrencyListItem> currencyListItems = FXCollections.observableArrayList();
@@ -87,7 +72,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
     final ObservableList<TradeStatistics2> tradeStatisticsByCurrency = FXCollections.observableArrayList();
     final ObservableList<XYChart.Data<Number, Number>> priceItems = FXCollections.observableArrayList();
     final ObservableList<XYChart.Data<Number, Number>> volumeItems = FXCollections.observableArrayList();
-    private Map<Long, Pair<Date, Set<TradeStatistics2>>> itemsPerInterval;
+    private Map<Long, Long> startTimeByTick;
 
     TickUnit tickUnit = TickUnit.DAY;
     final int maxTicks = 30;
@@ -100,14 +85,17 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     @SuppressWarnings("WeakerAccess")
     @Inject
-    public TradesChartsViewModel(TradeStatisticsManager tradeStatisticsManager, Preferences preferences, PriceFeedService priceFeedService, Navigation navigation, BSFormatter formatter) {
+    public TradesChartsViewModel(TradeStatisticsManager tradeStatisticsManager, Preferences preferences, PriceFeedService priceFeedService, Navigation navigation, BSFormatter formatter,
+                                 TradeStatisticsCandleService candleService) {
         this.tradeStatisticsManager = tradeStatisticsManager;
+        this.candleService = candleService;
         this.preferences = preferences;
         this.priceFeedService = priceFeedService;
         this.navigation = navigation;
         this.formatter = formatter;
 
-        setChangeListener = change -> {
+        // We listen to the candle service and not to the trade statistics set, so the candles are updated already
+        candleServiceUpdateListener = (observable, oldValue, newValue) -> {
             updateChartData();
             fillTradeCurrencies();
         };
@@ -140,7 +128,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     @Override
     protected void activate() {
-        tradeStatisticsManager.getObservableTradeStatisticsSet().addListener(setChangeListener);
+        candleService.updateCounterProperty().addListener(candleServiceUpdateListener);
         fillTradeCurrencies();
         updateChartData();
         syncPriceFeedCurrency();
@@ -149,7 +137,7 @@ class TradesChartsViewModel extends ActivatableViewModel {
 
     @Override
     protected void deactivate() {
-        tradeStatisticsManager.getObservableTradeStatisticsSet().removeListener(setChangeListener);
+        candleService.updateCounterProperty().removeListener(candleServiceUpdateListener);
     }
 
 
@@ -231,38 +219,30 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     private void updateChartData() {
-        tradeStatisticsByCurrency.setAll(tradeStatisticsManager.getObservableTradeStatisticsSet().stream()
-                .filter(e -> showAllTradeCurrenciesProperty.get() || e.getCurrencyCode().equals(getCurrencyCode()))
-                .collect(Collectors.toList()));
+        if (showAllTradeCurrenciesProperty.get())
+            tradeStatisticsByCurrency.setAll(tradeStatisticsManager.getObservableTradeStatisticsSet());
+        else
+            tradeStatisticsByCurrency.setAll(candleService.getTradeStatistics(getCurrencyCode()));
 
-        // Generate date range and create sets for all ticks
-        itemsPerInterval = new HashMap<>();
-        Date time = new Date();
+        // Generate date range. Tick maxTicks + 1 is the current time, the other ticks are the start times of the
+        // intervals.
+        startTimeByTick = new HashMap<>();
+        long time = new Date().getTime();
         for (long i = maxTicks + 1; i >= 0; --i) {
-            Set<TradeStatistics2> set = new HashSet<>();
-            Pair<Date, Set<TradeStatistics2>> pair = new Pair<>((Date) time.clone(), set);
-            itemsPerInterval.put(i, pair);
-            time.setTime(time.getTime() - 1);
-            time = roundToTick(time,  tickUnit);
+            startTimeByTick.put(i, time);
+            time = roundToTick(new Date(time - 1), tickUnit).getTime();
         }
 
-        // Get all entries for the defined time interval
-        tradeStatisticsByCurrency.stream().forEach(e -> {
-            for (long i = maxTicks; i > 0; --i) {
-                Pair<Date, Set<TradeStatistics2>> p = itemsPerInterval.get(i);
-                if (e.getTradeDate().after(p.getKey())) {
-                    p.getValue().add(e);
-                    break;
-                }
-            }
-        });
-
-        // create CandleData for defined time interval
-        List<CandleData> candleDataList = itemsPerInterval.entrySet().stream()
-                .filter(entry -> entry.getKey() >= 0 && !entry.getValue().getValue().isEmpty())
-                .map(entry -> getCandleData(entry.getKey(), entry.getValue().getValue()))
-                .collect(Collectors.toList());
-        candleDataList.sort((o1, o2) -> (o1.tick < o2.tick ? -1 : (o1.tick == o2.tick ? 0 : 1)));
+        // Look up the CandleData for defined time interval
+        NavigableMap<Long, Candle> candles = showAllTradeCurrenciesProperty.get() ?
+                candleService.getCandlesOfAllCurrencies(tickUnit) :
+                candleService.getCandles(getCurrencyCode(), tickUnit);
+        List<CandleData> candleDataList = new ArrayList<>();
+        for (long i = 1; i <= maxTicks; i++) {
+            Candle candle = candles.get(startTimeByTick.get(i));
+            if (candle != null)
+                candleDataList.add(getCandleData(i, candle));
+        }
 
         //noinspection Convert2Diamond
         priceItems.setAll(candleDataList.stream()
@@ -276,39 +256,26 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     @VisibleForTesting
-    CandleData getCandleData(long tick, Set<TradeStatistics2> set) {
-        long open = 0;
-        long close = 0;
-        long high = 0;
-        long low = 0;
-        long accumulatedVolume = 0;
-        long accumulatedAmount = 0;
-        long numTrades = set.size();
-
-        for (TradeStatistics2 item : set) {
-            long tradePriceAsLong = item.getTradePrice().getValue();
-            if (CurrencyUtil.isCryptoCurrency(getCurrencyCode())) {
-                low = (low != 0) ? Math.max(low, tradePriceAsLong) : tradePriceAsLong;
-                high = (high != 0) ? Math.min(high, tradePriceAsLong) : tradePriceAsLong;
-            } else {
-                low = (low != 0) ? Math.min(low, tradePriceAsLong) : tradePriceAsLong;
-                high = (high != 0) ? Math.max(high, tradePriceAsLong) : tradePriceAsLong;
-            }
-
-            accumulatedVolume += (item.getTradeVolume() != null) ? item.getTradeVolume().getValue() : 0;
-            accumulatedAmount += item.getTradeAmount().getValue();
-        }
-
-        List<TradeStatistics2> list = new ArrayList<>(set);
-        list.sort((o1, o2) -> (o1.getTradeDate().getTime() < o2.getTradeDate().getTime() ? -1 : (o1.getTradeDate().getTime() == o2.getTradeDate().getTime() ? 0 : 1)));
-        if (list.size() > 0) {
-            open = list.get(0).getTradePrice().getValue();
-            close = list.get(list.size() - 1).getTradePrice().getValue();
+    CandleData getCandleData(long tick, Candle candle) {
+        long open = candle.getOpen();
+        long close = candle.getClose();
+        long high;
+        long low;
+        long accumulatedVolume = candle.getAccumulatedVolume();
+        long accumulatedAmount = candle.getAccumulatedAmount();
+        long numTrades = candle.getNumTrades();
+        boolean isCryptoCurrency = CurrencyUtil.isCryptoCurrency(getCurrencyCode());
+        if (isCryptoCurrency) {
+            low = candle.getMaxPrice();
+            high = candle.getMinPrice();
+        } else {
+            low = candle.getMinPrice();
+            high = candle.getMaxPrice();
         }
 
         long averagePrice;
         boolean isBullish;
-        if (CurrencyUtil.isCryptoCurrency(getCurrencyCode())) {
+        if (isCryptoCurrency) {
             isBullish = close < open;
             double accumulatedAmountAsDouble = MathUtils.scaleUpByPowerOf10((double) accumulatedAmount, Altcoin.SMALLEST_UNIT_EXPONENT);
             averagePrice = MathUtils.roundDoubleToLong(accumulatedAmountAsDouble / (double) accumulatedVolume);
@@ -328,32 +295,12 @@ class TradesChartsViewModel extends ActivatableViewModel {
     }
 
     Date roundToTick(Date time, TickUnit tickUnit) {
-        ZonedDateTime zdt = time.toInstant().atZone(ZoneId.systemDefault());
-        LocalDateTime tradeLocal = zdt.toLocalDateTime();
-
-        switch (tickUnit) {
-            case YEAR:
-                return Date.from(tradeLocal.withMonth(1).withDayOfYear(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case MONTH:
-                return Date.from(tradeLocal.withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case WEEK:
-                int dayOfWeek = tradeLocal.getDayOfWeek().getValue();
-                LocalDateTime firstDayOfWeek = ChronoUnit.DAYS.addTo(tradeLocal, 1 - dayOfWeek);
-                return Date.from(firstDayOfWeek.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case DAY:
-                return Date.from(tradeLocal.withHour(0).withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case HOUR:
-                return Date.from(tradeLocal.withMinute(0).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            case MINUTE_10:
-                return Date.from(tradeLocal.withMinute(tradeLocal.getMinute() - tradeLocal.getMinute() % 10).withSecond(0).withNano(0).atZone(ZoneId.systemDefault()).toInstant());
-            default:
-                return Date.from(tradeLocal.atZone(ZoneId.systemDefault()).toInstant());
-        }
+        return new Date(candleService.getStartTime(time.getTime(), tickUnit));
     }
 
     private long getTimeFromTick(long tick) {
-        if (itemsPerInterval == null || itemsPerInterval.get(tick) == null) return 0;
-        return itemsPerInterval.get(tick).getKey().getTime();
+        if (startTimeByTick == null || startTimeByTick.get(tick) == null) return 0;
+        return startTimeByTick.get(tick);
     }
 
     long getTimeFromTickIndex(long index) {
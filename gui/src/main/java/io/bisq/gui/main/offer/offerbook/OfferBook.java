@@ -20,14 +20,17 @@ package io.bisq.gui.main.offer.offerbook;
 import io.bisq.common.app.Log;
 import io.bisq.core.offer.Offer;
 import io.bisq.core.offer.OfferBookService;
+import io.bisq.core.offer.OfferPayload;
 import io.bisq.core.trade.TradeManager;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import lombok.extern.slf4j.Slf4j;
 
 import javax.inject.Inject;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Holds and manages the unsorted and unfiltered offerbook list of both buy and sell offers.
@@ -40,6 +43,8 @@ import java.util.stream.Collectors;
 public class OfferBook {
     private final OfferBookService offerBookService;
     private final ObservableList<OfferBookListItem> offerBookListItems = FXCollections.observableArrayList();
+    // Same items as offerBookListItems for lookups by offer id
+    private final Map<String, OfferBookListItem> offerBookListItemsByOfferId = new LinkedHashMap<>();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -53,8 +58,9 @@ public class OfferBook {
         offerBookService.addOfferBookChangedListener(new OfferBookService.OfferBookChangedListener() {
             @Override
             public void onAdded(Offer offer) {
-                OfferBookListItem offerBookListItem = new OfferBookListItem(offer);
                 if (!isOfferWithIdInList(offer)) {
+                    OfferBookListItem offerBookListItem = new OfferBookListItem(offer);
+                    offerBookListItemsByOfferId.put(offer.getId(), offerBookListItem);
                     offerBookListItems.add(offerBookListItem);
                     Log.logIfStressTests("OfferPayload added: No. of offers = " + offerBookListItems.size());
                 }
@@ -67,15 +73,10 @@ public class OfferBook {
 
                 // clean up possible references in openOfferManager 
                 tradeManager.onOfferRemovedFromRemoteOfferBook(offer);
-                Optional<OfferBookListItem> candidate = offerBookListItems.stream()
-                        .filter(item -> item.getOffer().getId().equals(offer.getId()))
-                        .findAny();
-                if (candidate.isPresent()) {
-                    OfferBookListItem item = candidate.get();
-                    if (offerBookListItems.contains(item)) {
-                        offerBookListItems.remove(item);
-                        Log.logIfStressTests("OfferPayload removed: No. of offers = " + offerBookListItems.size());
-                    }
+                OfferBookListItem item = offerBookListItemsByOfferId.remove(offer.getId());
+                if (item != null) {
+                    offerBookListItems.remove(item);
+                    Log.logIfStressTests("OfferPayload removed: No. of offers = " + offerBookListItems.size());
                 }
             }
         });
@@ -83,23 +84,35 @@ public class OfferBook {
 
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
     private boolean isOfferWithIdInList(Offer offer) {
-        return offerBookListItems.stream().filter(o -> o.getOffer().getId().equals(offer.getId())).findAny().isPresent();
+        return offerBookListItemsByOfferId.containsKey(offer.getId());
     }
 
     public ObservableList<OfferBookListItem> getOfferBookListItems() {
         return offerBookListItems;
     }
 
+    // Same offers as in offerBookListItems, taken from the index of the offerBookService
+    public List<Offer> getOffersSortedByPrice(String currencyCode, OfferPayload.Direction direction) {
+        return offerBookService.getOffersSortedByPrice(currencyCode, direction);
+    }
+
     public void fillOfferBookListItems() {
         log.debug("fillOfferBookListItems");
 
         try {
             // setAll causes sometimes an UnsupportedOperationException
             // Investigate why....
+            // The offers are stable instances, so we can keep the list items of offers we have already
+            Map<String, OfferBookListItem> previousItems = new HashMap<>(offerBookListItemsByOfferId);
+            offerBookListItemsByOfferId.clear();
+            offerBookService.getOffers().forEach(offer -> {
+                OfferBookListItem item = previousItems.get(offer.getId());
+                if (item == null || item.getOffer() != offer)
+                    item = new OfferBookListItem(offer);
+                offerBookListItemsByOfferId.put(offer.getId(), item);
+            });
             offerBookListItems.clear();
-            offerBookListItems.addAll(offerBookService.getOffers().stream()
-                    .map(OfferBookListItem::new)
-                    .collect(Collectors.toList()));
+            offerBookListItems.addAll(offerBookListItemsByOfferId.values());
 
             Log.logIfStressTests("OfferPayload filled: No. of offers = " + offerBookListItems.size());
 
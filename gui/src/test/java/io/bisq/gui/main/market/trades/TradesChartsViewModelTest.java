@@ -6,7 +6,10 @@ import io.bisq.common.locale.FiatCurrency;
 import io.bisq.common.monetary.Price;
 import io.bisq.core.offer.OfferPayload;
 import io.bisq.core.provider.price.PriceFeedService;
+import io.bisq.core.trade.statistics.Candle;
+import io.bisq.core.trade.statistics.TickUnit;
 import io.bisq.core.trade.statistics.TradeStatistics2;
+import io.bisq.core.trade.statistics.TradeStatisticsCandleService;
 import io.bisq.core.trade.statistics.TradeStatisticsManager;
 import io.bisq.core.user.Preferences;
 import io.bisq.gui.Navigation;
@@ -52,6 +55,8 @@ public class TradesChartsViewModelTest {
     BSFormatter formatter;
     @Injectable
     TradeStatisticsManager tsm;
+    @Injectable
+    TradeStatisticsCandleService candleService;
 
     private static final Logger log = LoggerFactory.getLogger(TradesChartsViewModelTest.class);
     DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
@@ -130,7 +135,9 @@ public class TradesChartsViewModelTest {
         set.add(new TradeStatistics2(offer, Price.parse("EUR", "600"), Coin.parseCoin("1"), new Date(now.getTime() + 200), null));
         set.add(new TradeStatistics2(offer, Price.parse("EUR", "580"), Coin.parseCoin("1"), new Date(now.getTime() + 300), null));
 
-        CandleData candleData = model.getCandleData(model.roundToTick(now, TradesChartsViewModel.TickUnit.DAY).getTime(), set);
+        Candle candle = new Candle(0);
+        set.forEach(candle::add);
+        CandleData candleData = model.getCandleData(model.roundToTick(now, TickUnit.DAY).getTime(), candle);
         assertEquals(open, candleData.open);
         assertEquals(close, candleData.close);
         assertEquals(high, candleData.high);
@@ -163,9 +170,6 @@ public class TradesChartsViewModelTest {
         }
         ;
 
-        // Trade EUR
-        model.selectedTradeCurrencyProperty.setValue(new FiatCurrency("EUR"));
-
         ArrayList<Trade> trades = new ArrayList<Trade>();
 
         // Set predetermined time to use as "now" during test
@@ -187,19 +191,25 @@ public class TradesChartsViewModelTest {
                 }
         );
         ObservableSet<TradeStatistics2> tradeStats = FXCollections.observableSet(set);
+        new Expectations() {{
+            tsm.getObservableTradeStatisticsSet();
+            result = tradeStats;
+        }};
 
-        // Run test for each tick type
-        for (TradesChartsViewModel.TickUnit tick : TradesChartsViewModel.TickUnit.values()) {
-            new Expectations() {{
-                tsm.getObservableTradeStatisticsSet();
-                result = tradeStats;
-            }};
+        // We need a candle service with the trades instead of the injected mock
+        TradesChartsViewModel modelWithTrades = new TradesChartsViewModel(tsm, preferences, priceFeedService, navigation, formatter,
+                new TradeStatisticsCandleService(tsm));
+
+        // Trade EUR
+        modelWithTrades.selectedTradeCurrencyProperty.setValue(new FiatCurrency("EUR"));
 
+        // Run test for each tick type
+        for (TickUnit tick : TickUnit.values()) {
             // Trigger chart update
-            model.setTickUnit(tick);
-            assertEquals(model.selectedTradeCurrencyProperty.get().getCode(), tradeStats.iterator().next().getCurrencyCode());
-            assertEquals(2, model.priceItems.size());
-            assertEquals(2, model.volumeItems.size());
+            modelWithTrades.setTickUnit(tick);
+            assertEquals(modelWithTrades.selectedTradeCurrencyProperty.get().getCode(), tradeStats.iterator().next().getCurrencyCode());
+            assertEquals(2, modelWithTrades.priceItems.size());
+            assertEquals(2, modelWithTrades.volumeItems.size());
         }
     }
 }
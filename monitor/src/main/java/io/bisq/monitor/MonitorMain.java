@@ -19,12 +19,14 @@ package io.bisq.monitor;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.bisq.common.UserThread;
+import io.bisq.common.storage.StorageScheduler;
 import io.bisq.common.util.Profiler;
 import io.bisq.common.util.RestartUtil;
 import io.bisq.common.util.Utilities;
 import io.bisq.core.app.AppOptionKeys;
 import io.bisq.core.app.BisqEnvironment;
 import io.bisq.core.app.BisqExecutable;
+import io.bisq.network.p2p.network.Statistic;
 import joptsimple.OptionException;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -168,6 +170,8 @@ public class MonitorMain extends BisqExecutable {
 
         UserThread.runPeriodically(() -> {
             Profiler.printSystemLoad(log);
+            log.info(Statistic.getReceivedMessageHistogramsAsString());
+            log.info(StorageScheduler.getSaveMetricsAsString());
             if (!stopped) {
                 long usedMemoryInMB = Profiler.getUsedMemoryInMB();
                 if (usedMemoryInMB > (maxMemory * 0.8)) {
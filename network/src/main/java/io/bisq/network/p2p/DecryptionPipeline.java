@@ -0,0 +1,190 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.bisq.common.UserThread;
+import io.bisq.common.crypto.CryptoException;
+import io.bisq.common.crypto.SealedAndSigned;
+import io.bisq.network.crypto.EncryptionService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Decrypts SealedAndSigned objects at a pool of worker threads so the RSA and DSA operations do not block the
+ * UserThread (the JavaFX thread in the GUI).
+ * The decrypted messages are passed back at the UserThread in the order the SealedAndSigned objects have been
+ * submitted, so listeners see the same order as with decrypting at the UserThread.
+ * The queue is not bounded as the caller is the UserThread, which must neither run the decryption itself nor block,
+ * and mailbox messages must not get dropped. The queued SealedAndSigned objects are held in the data storage anyway,
+ * so the queue only adds a small wrapper per message. We log a warning if the backlog gets large.
+ * After shutDown the submitted decryptions get discarded and are treated like failed decryptions.
+ * Apart from the decryption itself all methods are called from the UserThread. They are synchronized anyway as the
+ * UserThread might be backed by a direct executor (e.g. in tests).
+ */
+@Slf4j
+class DecryptionPipeline {
+    private static final int BACKLOG_WARN_THRESHOLD = 1000;
+
+    private final EncryptionService encryptionService;
+    private final ThreadPoolExecutor executor;
+    private final Queue<PendingDecryption> pendingDecryptions = new ArrayDeque<>();
+
+    // Metrics of the current burst of decryptions, logged when all pending decryptions are delivered
+    private final AtomicLong decryptionTimeNanos = new AtomicLong();
+    private long burstStartTime;
+    private int numDecrypted, numFailed;
+    private boolean backlogWarningLogged;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    DecryptionPipeline(EncryptionService encryptionService) {
+        this(encryptionService, Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)));
+    }
+
+    DecryptionPipeline(EncryptionService encryptionService, int numThreads) {
+        this.encryptionService = encryptionService;
+
+        executor = new ThreadPoolExecutor(numThreads, numThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("DecryptionPipeline-%d")
+                        .setDaemon(true)
+                        .build(),
+                (runnable, threadPoolExecutor) -> ((PendingDecryption) runnable).discard());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // The resultHandler is only called if the decryption succeeded. A failed decryption is expected if the message
+    // is not intended for us.
+    synchronized void decrypt(SealedAndSigned sealedAndSigned, Consumer<DecryptedMessageWithPubKey> resultHandler) {
+        if (pendingDecryptions.isEmpty())
+            burstStartTime = System.currentTimeMillis();
+
+        PendingDecryption pendingDecryption = new PendingDecryption(sealedAndSigned, resultHandler);
+        pendingDecryptions.add(pendingDecryption);
+        if (pendingDecryptions.size() > BACKLOG_WARN_THRESHOLD && !backlogWarningLogged) {
+            log.warn("We have more than {} pending decryptions.", BACKLOG_WARN_THRESHOLD);
+            backlogWarningLogged = true;
+        }
+        // Gets discarded by the rejection handler if we are shut down already
+        executor.execute(pendingDecryption);
+    }
+
+    void shutDown() {
+        // Decryptions which have not started yet get discarded, so they don't block the delivery of other results
+        executor.shutdownNow().forEach(runnable -> ((PendingDecryption) runnable).discard());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private synchronized void deliverCompletedDecryptions() {
+        if (pendingDecryptions.isEmpty())
+            return;
+
+        while (!pendingDecryptions.isEmpty() && pendingDecryptions.peek().completed) {
+            PendingDecryption pendingDecryption = pendingDecryptions.poll();
+            if (pendingDecryption.result != null) {
+                numDecrypted++;
+                try {
+                    pendingDecryption.resultHandler.accept(pendingDecryption.result);
+                } catch (Throwable t) {
+                    log.error("Error at handling decrypted message: " + t.toString());
+                    t.printStackTrace();
+                }
+            } else {
+                numFailed++;
+            }
+        }
+
+        if (pendingDecryptions.isEmpty()) {
+            logMetrics();
+            backlogWarningLogged = false;
+        }
+    }
+
+    private void logMetrics() {
+        int numTotal = numDecrypted + numFailed;
+        long duration = Math.max(1, System.currentTimeMillis() - burstStartTime);
+        log.debug("Processed {} decryptions ({} succeeded, {} failed) in {} ms ({} per sec.). " +
+                        "Average decryption time: {} ms",
+                numTotal, numDecrypted, numFailed, duration, numTotal * 1000 / duration,
+                TimeUnit.NANOSECONDS.toMillis(decryptionTimeNanos.get() / Math.max(1, numTotal)));
+        numDecrypted = 0;
+        numFailed = 0;
+        decryptionTimeNanos.set(0);
+    }
+
+    private final class PendingDecryption implements Runnable {
+        private final SealedAndSigned sealedAndSigned;
+        private final Consumer<DecryptedMessageWithPubKey> resultHandler;
+        // Written at the worker thread, read at the UserThread after completed got set
+        private DecryptedMessageWithPubKey result;
+        private volatile boolean completed;
+
+        PendingDecryption(SealedAndSigned sealedAndSigned, Consumer<DecryptedMessageWithPubKey> resultHandler) {
+            this.sealedAndSigned = sealedAndSigned;
+            this.resultHandler = resultHandler;
+        }
+
+        @Override
+        public void run() {
+            long ts = System.nanoTime();
+            try {
+                result = encryptionService.decryptAndVerify(sealedAndSigned);
+            } catch (CryptoException e) {
+                log.debug(e.toString());
+                log.debug("Decryption of sealedAndSigned failed. That is expected if the message is not intended for us.");
+            } catch (Throwable t) {
+                log.error("Error at decryption: " + t.toString());
+                t.printStackTrace();
+            } finally {
+                decryptionTimeNanos.addAndGet(System.nanoTime() - ts);
+                complete();
+            }
+        }
+
+        void discard() {
+            log.debug("Decryption got discarded as we are shut down already.");
+            complete();
+        }
+
+        private void complete() {
+            completed = true;
+            UserThread.execute(DecryptionPipeline.this::deliverCompletedDecryptions);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import io.bisq.common.app.Log;
 import io.bisq.common.crypto.CryptoException;
 import io.bisq.common.crypto.KeyRing;
 import io.bisq.common.crypto.PubKeyRing;
+import io.bisq.common.crypto.Sig;
 import io.bisq.common.proto.network.NetworkEnvelope;
 import io.bisq.common.proto.persistable.PersistedDataHost;
 import io.bisq.common.util.Utilities;
@@ -82,6 +83,9 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     private boolean isBootstrapped;
     private final KeepAliveManager keepAliveManager;
     private final Socks5ProxyProvider socks5ProxyProvider;
+    private final DecryptionPipeline decryptionPipeline;
+    @Nullable
+    private byte[] mySignaturePubKeyBytes;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -112,6 +116,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
         this.socks5ProxyProvider = socks5ProxyProvider;
         this.encryptionService = encryptionService;
         this.keyRing = keyRing;
+        decryptionPipeline = new DecryptionPipeline(encryptionService);
 
         this.networkNode.addConnectionListener(this);
         this.networkNode.addMessageListener(this);
@@ -196,6 +201,8 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             if (keepAliveManager != null)
                 keepAliveManager.shutDown();
 
+            decryptionPipeline.shutDown();
+
             if (networkReadySubscription != null)
                 networkReadySubscription.unsubscribe();
 
@@ -363,19 +370,16 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     @Override
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof PrefixedSealedAndSignedMessage) {
-            Log.traceCall("\n\t" + networkEnvelop.toString() + "\n\tconnection=" + connection);
+            Log.traceCall(() -> "\n\t" + networkEnvelop + "\n\tconnection=" + connection);
             // Seed nodes don't have set the encryptionService
-            try {
-                PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = (PrefixedSealedAndSignedMessage) networkEnvelop;
-                if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
-                    // We set connectionType to that connection to avoid that is get closed when
-                    // we get too many connection attempts.
-                    connection.setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
-
-                    log.debug("Try to decrypt...");
-                    DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
-                            prefixedSealedAndSignedMessage.getSealedAndSigned());
+            PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = (PrefixedSealedAndSignedMessage) networkEnvelop;
+            if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
+                // We set connectionType to that connection to avoid that is get closed when
+                // we get too many connection attempts.
+                connection.setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
 
+                log.debug("Try to decrypt...");
+                decryptionPipeline.decrypt(prefixedSealedAndSignedMessage.getSealedAndSigned(), decryptedMessageWithPubKey -> {
                     log.debug("\n\nDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDD\n" +
                             "Decrypted SealedAndSignedMessage:\ndecryptedMsgWithPubKey={}"
                             + "\nDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDDD\n", decryptedMessageWithPubKey);
@@ -384,14 +388,9 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
                                 e -> e.onDirectMessage(decryptedMessageWithPubKey, connection.getPeersNodeAddressOptional().get()));
                     else
                         log.error("peersNodeAddress is not available at onMessage.");
-                } else {
-                    log.debug("Wrong receiverAddressMaskHash. The message is not intended for us.");
-                }
-            } catch (CryptoException e) {
-                log.debug(networkEnvelop.toString());
-                log.debug(e.toString());
-                log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
-                        "That is expected if the message is not intended for us.");
+                });
+            } else {
+                log.debug("Wrong receiverAddressMaskHash. The message is not intended for us.");
             }
         }
     }
@@ -476,16 +475,19 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             Log.traceCall();
             MailboxStoragePayload mailboxStoragePayload = protectedMailboxStorageEntry.getMailboxStoragePayload();
             PrefixedSealedAndSignedMessage prefixedSealedAndSignedMessage = mailboxStoragePayload.getPrefixedSealedAndSignedMessage();
-            if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage)) {
-                try {
-                    DecryptedMessageWithPubKey decryptedMessageWithPubKey = encryptionService.decryptAndVerify(
-                            prefixedSealedAndSignedMessage.getSealedAndSigned());
+            if (verifyAddressPrefixHash(prefixedSealedAndSignedMessage) && verifyOwnerPubKey(mailboxStoragePayload)) {
+                decryptionPipeline.decrypt(prefixedSealedAndSignedMessage.getSealedAndSigned(), decryptedMessageWithPubKey -> {
                     if (decryptedMessageWithPubKey.getNetworkEnvelope() instanceof MailboxMessage) {
                         MailboxMessage mailboxMessage = (MailboxMessage) decryptedMessageWithPubKey.getNetworkEnvelope();
                         NodeAddress senderNodeAddress = mailboxMessage.getSenderNodeAddress();
                         checkNotNull(senderNodeAddress, "senderAddress must not be null for mailbox network_messages");
 
-                        mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
+                        // The entry might have been removed from the data storage while we decrypted it
+                        if (p2PDataStorage.getMap().containsKey(new P2PDataStorage.ByteArray(protectedMailboxStorageEntry.getHashOfPayload())))
+                            mailboxMap.put(mailboxMessage.getUid(), protectedMailboxStorageEntry);
+                        else
+                            log.debug("Mailbox entry got removed while we decrypted it. uid={}", mailboxMessage.getUid());
+
                         log.trace("Decryption of SealedAndSignedMessage succeeded. senderAddress="
                                 + senderNodeAddress + " / my address=" + getAddress());
                         decryptedMailboxListeners.stream().forEach(
@@ -494,13 +496,9 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
                         log.warn("tryDecryptMailboxData: Expected MailboxMessage but got other type. " +
                                 "decryptedMsgWithPubKey.message=", decryptedMessageWithPubKey.getNetworkEnvelope());
                     }
-                } catch (CryptoException e) {
-                    log.debug(e.toString());
-                    log.debug("Decryption of prefixedSealedAndSignedMessage.sealedAndSigned failed. " +
-                            "That is expected if the message is not intended for us.");
-                }
+                });
             } else {
-                log.debug("Wrong blurredAddressHash. The message is not intended for us.");
+                log.debug("Wrong blurredAddressHash or ownerPubKey. The message is not intended for us.");
             }
         }
     }
@@ -508,7 +506,7 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
     public void sendEncryptedMailboxMessage(NodeAddress peersNodeAddress, PubKeyRing peersPubKeyRing,
                                             NetworkEnvelope message,
                                             SendMailboxMessageListener sendMailboxMessageListener) {
-        Log.traceCall("message " + message);
+        Log.traceCall(() -> "message " + message);
         checkNotNull(peersNodeAddress,
                 "PeerAddress must not be null (sendEncryptedMailboxMessage)");
         checkNotNull(networkNode.getNodeAddress(),
@@ -819,4 +817,12 @@ public class P2PService implements SetupListener, MessageListener, ConnectionLis
             return false;
         }
     }
+
+    // The sender sets the receiver's signature pubKey as owner of the mailbox entry as only the receiver is permitted
+    // to remove it. Comparing it is much cheaper than the decryption which would fail for nearly all entries.
+    private boolean verifyOwnerPubKey(MailboxStoragePayload mailboxStoragePayload) {
+        if (mySignaturePubKeyBytes == null)
+            mySignaturePubKeyBytes = Sig.getPublicKeyBytes(keyRing.getSignatureKeyPair().getPublic());
+        return Arrays.equals(mySignaturePubKeyBytes, mailboxStoragePayload.getOwnerPubKeyBytes());
+    }
 }
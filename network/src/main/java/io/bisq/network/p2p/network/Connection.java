@@ -1,15 +1,17 @@
 package io.bisq.network.p2p.network;
 
 import com.google.common.util.concurrent.CycleDetectingLockFactory;
-import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.common.util.concurrent.Uninterruptibles;
+import io.bisq.common.KeyedSerialExecutor;
 import io.bisq.common.UserThread;
 import io.bisq.common.app.Capabilities;
 import io.bisq.common.app.Log;
 import io.bisq.common.app.Version;
 import io.bisq.common.proto.network.NetworkEnvelope;
 import io.bisq.common.proto.network.NetworkProtoResolver;
-import io.bisq.common.util.Tuple2;
 import io.bisq.common.util.Utilities;
 import io.bisq.generated.protobuffer.PB;
 import io.bisq.network.p2p.*;
@@ -21,6 +23,7 @@ import io.bisq.network.p2p.peers.keepalive.messages.Ping;
 import io.bisq.network.p2p.peers.keepalive.messages.Pong;
 import io.bisq.network.p2p.storage.messages.AddDataMessage;
 import io.bisq.network.p2p.storage.messages.AddPersistableNetworkPayloadMessage;
+import io.bisq.network.p2p.storage.messages.BroadcastMessage;
 import io.bisq.network.p2p.storage.messages.RefreshOfferMessage;
 import io.bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
 import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
@@ -29,6 +32,7 @@ import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,13 +41,13 @@ import java.io.*;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -66,6 +70,13 @@ public class Connection implements MessageListener {
         INITIAL_DATA_REQUEST
     }
 
+    // Messages with higher priority get sent first. HIGH priority messages are not rate limited.
+    private enum SendPriority {
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Static
@@ -78,6 +89,13 @@ public class Connection implements MessageListener {
     static final int MSG_THROTTLE_PER_SEC = 200;              // With MAX_MSG_SIZE of 200kb results in bandwidth of 40MB/sec or 5 mbit/sec
     static final int MSG_THROTTLE_PER_10_SEC = 1000;          // With MAX_MSG_SIZE of 200kb results in bandwidth of 20MB/sec or 2.5 mbit/sec
     private static final int SOCKET_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(120);
+    // Outbound rate limit stays below the inbound throttle limits of our peers (600 msg in 10 sec. at max. burst)
+    private static final int SEND_BURST_CAPACITY = 100;
+    private static final int SEND_MSG_PER_SEC = 50;
+    // If that many messages are queued up we drop LOW priority (broadcast) messages
+    private static final int MAX_OUTBOUND_QUEUE_SIZE = 1000;
+    // Max. time we wait at shutdown for a message which is currently written before we send the CloseConnectionMessage
+    private static final long SEND_CLOSE_MESSAGE_TIMEOUT_SEC = 2;
 
     public static int getPermittedMessageSize() {
         return PERMITTED_MESSAGE_SIZE;
@@ -85,6 +103,27 @@ public class Connection implements MessageListener {
 
     private static final CycleDetectingLockFactory cycleDetectingLockFactory = CycleDetectingLockFactory.newInstance(CycleDetectingLockFactory.Policies.THROW);
 
+    // The InputHandler blocks at reading from the socket (Tor sockets do not support non-blocking channels), so we
+    // need one thread per connection. We share the threads between all connections so that threads of closed
+    // connections get reused and we don't need to create and shut down an executor for each connection.
+    private static final ExecutorService inputHandlerExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("InputHandler-%d")
+            .setDaemon(true)
+            .build());
+
+    // The queued messages of a connection get written one after another at the threads of a shared pool. As socket
+    // writes can block, a stalled peer only blocks the sending of its own connection.
+    private static final KeyedSerialExecutor sendExecutor = new KeyedSerialExecutor(Executors.newCachedThreadPool(
+            new ThreadFactoryBuilder()
+                    .setNameFormat("Connection-Send-%d")
+                    .setDaemon(true)
+                    .build()));
+
+    // Only hands the sending of queued up messages to the sendExecutor once the rate limit permits it, so no thread
+    // needs to sleep. It never writes to a socket itself.
+    private static final ScheduledThreadPoolExecutor sendScheduler = Utilities.getScheduledThreadPoolExecutor(
+            "Connection-SendScheduler", 1, 1, 60);
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Class fields
@@ -95,7 +134,6 @@ public class Connection implements MessageListener {
     private final ConnectionListener connectionListener;
     private final String portInfo;
     private final String uid;
-    private final ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
     private final ReentrantLock protoOutputStreamLock = cycleDetectingLockFactory.newReentrantLock("protoOutputStreamLock");
     // holder of state shared between InputHandler and Connection
     private final SharedModel sharedModel;
@@ -103,6 +141,7 @@ public class Connection implements MessageListener {
 
     // set in init
     private InputHandler inputHandler;
+    private Future<?> inputHandlerFuture;
     private OutputStream protoOutputStream;
 
     // mutable data, set from other threads but not changed internally.
@@ -110,9 +149,16 @@ public class Connection implements MessageListener {
     private volatile boolean stopped;
     private PeerType peerType;
     private final ObjectProperty<NodeAddress> peersNodeAddressProperty = new SimpleObjectProperty<>();
-    private final List<Tuple2<Long, NetworkEnvelope>> messageTimeStamps = new ArrayList<>();
+    // Ring buffer of the timestamps of the last MSG_THROTTLE_PER_10_SEC received messages. Only accessed from InputHandler.
+    private final long[] messageTimeStamps = new long[MSG_THROTTLE_PER_10_SEC];
+    private int messageTimeStampsIndex;
+    private int numMessageTimeStamps;
     private final CopyOnWriteArraySet<MessageListener> messageListeners = new CopyOnWriteArraySet<>();
-    private volatile long lastSendTimeStamp = 0;
+    private final PriorityBlockingQueue<OutboundMessage> outboundQueue = new PriorityBlockingQueue<>();
+    private final AtomicLong outboundSequenceNr = new AtomicLong();
+    private final AtomicBoolean sendPending = new AtomicBoolean();
+    private final AtomicBoolean sendScheduled = new AtomicBoolean();
+    private final TokenBucket sendTokenBucket = new TokenBucket(SEND_BURST_CAPACITY, SEND_MSG_PER_SEC);
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -147,10 +193,11 @@ public class Connection implements MessageListener {
             // the associated ObjectOutputStream on the other end of the connection has written.
             // It will not return until that header has been read.
             protoOutputStream = socket.getOutputStream();
-            InputStream protoInputStream = socket.getInputStream();
-            // We create a thread for handling inputStream data
+            // Buffered to avoid a read call on the socket for each byte of the size prefix of the delimited messages
+            InputStream protoInputStream = new BufferedInputStream(socket.getInputStream());
+            // We use a thread from the shared executor for handling inputStream data
             inputHandler = new InputHandler(sharedModel, protoInputStream, portInfo, this, networkProtoResolver);
-            singleThreadExecutor.submit(inputHandler);
+            inputHandlerFuture = inputHandlerExecutor.submit(inputHandler);
 
             // Use Peer as default, in case of other types they will set it as soon as possible.
             peerType = PeerType.PEER;
@@ -178,78 +225,156 @@ public class Connection implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     // Called from various threads
-    public void sendMessage(NetworkEnvelope networkEnvelope) {
-        log.debug(">> Send networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
+    // The message gets queued up and written by the sendExecutor. The returned future completes once the message is
+    // written to the socket. It fails if the message was dropped because our outbound queue is full, if the write
+    // failed or if the connection got stopped before.
+    public ListenableFuture<Connection> sendMessage(NetworkEnvelope networkEnvelope) {
+        log.debug(">> Send networkEnvelope of type: {}", networkEnvelope.getClass().getSimpleName());
 
+        SettableFuture<Connection> future = SettableFuture.create();
         if (!stopped) {
             if (!isCapabilityRequired(networkEnvelope) || isCapabilitySupported(networkEnvelope)) {
-                try {
-                    Log.traceCall();
-
-                    // Throttle outbound network_messages
-                    long now = System.currentTimeMillis();
-                    long elapsed = now - lastSendTimeStamp;
-                    if (elapsed < 20) {
-                        log.debug("We got 2 sendMessage requests in less than 20 ms. We set the thread to sleep " +
-                                        "for 50 ms to avoid flooding our peer. lastSendTimeStamp={}, now={}, elapsed={}",
-                                lastSendTimeStamp, now, elapsed);
-                        Thread.sleep(50);
-                    }
-
-                    lastSendTimeStamp = now;
-                    String peersNodeAddress = peersNodeAddressOptional.isPresent() ? peersNodeAddressOptional.get().toString() : "null";
-
-                    PB.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
-                    log.debug("Sending message: {}", Utilities.toTruncatedString(proto.toString(), 10000));
-
-                    if (networkEnvelope instanceof Ping | networkEnvelope instanceof RefreshOfferMessage) {
-                        // pings and offer refresh msg we dont want to log in production
-                        log.trace("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
-                                        "Sending direct message to peer" +
-                                        "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
-                                        "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, proto.toString(), proto.getSerializedSize());
-                    } else if (networkEnvelope instanceof PrefixedSealedAndSignedMessage && peersNodeAddressOptional.isPresent()) {
-                        setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
-
-                        log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
-                                        "Sending direct message to peer" +
-                                        "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
-                                        "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), -1);
-                    } else if (networkEnvelope instanceof GetDataResponse && ((GetDataResponse) networkEnvelope).isGetUpdatedDataResponse()) {
-                        setPeerType(Connection.PeerType.PEER);
-                    } else {
-                        log.debug("\n\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n" +
-                                        "Write object to outputStream to peer: {} (uid={})\ntruncated message={} / size={}" +
-                                        "\n>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>>\n",
-                                peersNodeAddress, uid, Utilities.toTruncatedString(networkEnvelope), proto.getSerializedSize());
-                    }
-
-                    if (!stopped) {
-                        protoOutputStreamLock.lock();
-                        proto.writeDelimitedTo(protoOutputStream);
-                        protoOutputStream.flush();
-
-                        statistic.addSentBytes(proto.getSerializedSize());
-                        statistic.addSentMessage(networkEnvelope);
-
-                        // We don't want to get the activity ts updated by ping/pong msg
-                        if (!(networkEnvelope instanceof KeepAliveMessage))
-                            statistic.updateLastActivityTimestamp();
-                    }
-                } catch (Throwable t) {
-                    handleException(t);
-                } finally {
-                    if (protoOutputStreamLock.isLocked())
-                        protoOutputStreamLock.unlock();
+                SendPriority priority = getSendPriority(networkEnvelope);
+                if (priority == SendPriority.LOW && isOutboundQueueFull()) {
+                    log.warn("Outbound queue is full. We drop the message. queue size={}, message={}, connection={}",
+                            outboundQueue.size(), networkEnvelope.getClass().getSimpleName(), this);
+                    future.setException(new RejectedExecutionException("Outbound queue of connection " + uid + " is full"));
+                    return future;
                 }
+
+                outboundQueue.add(new OutboundMessage(networkEnvelope, priority, outboundSequenceNr.getAndIncrement(), future));
+                executeSendQueuedMessages();
             } else {
                 log.debug("We did not send the message because the peer does not support our required capabilities. message={}, peers supportedCapabilities={}", networkEnvelope, sharedModel.getSupportedCapabilities());
+                // Not a failure, we must not send the message to that peer
+                future.set(this);
             }
         } else {
             log.debug("called sendMessage but was already stopped");
+            future.setException(new IOException("Connection " + uid + " is already stopped"));
+        }
+        return future;
+    }
+
+    public boolean isOutboundQueueFull() {
+        return outboundQueue.size() >= MAX_OUTBOUND_QUEUE_SIZE;
+    }
+
+    // We only have one pending send task per connection. Messages added after the task has started get written by
+    // that task or a new one.
+    private void executeSendQueuedMessages() {
+        if (sendPending.compareAndSet(false, true))
+            sendExecutor.execute(uid, this::sendQueuedMessages);
+    }
+
+    // Runs at the sendExecutor. If the rate limit is reached we schedule the next run instead of blocking the thread.
+    private void sendQueuedMessages() {
+        sendPending.set(false);
+        OutboundMessage outboundMessage;
+        while (!stopped && (outboundMessage = outboundQueue.peek()) != null) {
+            if (outboundMessage.priority != SendPriority.HIGH && !sendTokenBucket.tryAcquire()) {
+                scheduleSendQueuedMessages();
+                return;
+            }
+
+            outboundMessage = outboundQueue.poll();
+            if (outboundMessage != null)
+                writeOutboundMessage(outboundMessage);
+        }
+
+        if (stopped)
+            failQueuedMessages();
+    }
+
+    private void scheduleSendQueuedMessages() {
+        if (sendScheduled.compareAndSet(false, true)) {
+            sendScheduler.schedule(() -> {
+                sendScheduled.set(false);
+                executeSendQueuedMessages();
+            }, sendTokenBucket.getMillisUntilNextToken(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void writeOutboundMessage(OutboundMessage outboundMessage) {
+        protoOutputStreamLock.lock();
+        try {
+            writeMessage(outboundMessage.networkEnvelope);
+            outboundMessage.future.set(this);
+        } catch (Throwable t) {
+            outboundMessage.future.setException(t);
+            handleException(t);
+        } finally {
+            // A write failure might have shut down the connection which releases the lock already
+            if (protoOutputStreamLock.isHeldByCurrentThread())
+                protoOutputStreamLock.unlock();
+        }
+    }
+
+    private void failQueuedMessages() {
+        OutboundMessage outboundMessage;
+        while ((outboundMessage = outboundQueue.poll()) != null)
+            outboundMessage.future.setException(new IOException("Connection " + uid + " got stopped before the message was sent"));
+    }
+
+    // Called while holding protoOutputStreamLock
+    private void writeMessage(NetworkEnvelope networkEnvelope) throws IOException {
+        Log.traceCall();
+
+        PB.NetworkEnvelope proto = networkEnvelope.toProtoNetworkEnvelope();
+        // Size is memoized by protobuf, so it does not get calculated again at writeDelimitedTo
+        int size = proto.getSerializedSize();
+
+        if (networkEnvelope instanceof PrefixedSealedAndSignedMessage && peersNodeAddressOptional.isPresent())
+            setPeerType(Connection.PeerType.DIRECT_MSG_PEER);
+        else if (networkEnvelope instanceof GetDataResponse && ((GetDataResponse) networkEnvelope).isGetUpdatedDataResponse())
+            setPeerType(Connection.PeerType.PEER);
+
+        // Converting the message to text is expensive for large messages, so we only do it if the log level is enabled.
+        // Pings and offer refresh msg we dont want to log in production.
+        if (networkEnvelope instanceof Ping || networkEnvelope instanceof RefreshOfferMessage) {
+            if (log.isTraceEnabled())
+                log.trace(">> " + getMessageSummary(networkEnvelope, size, peersNodeAddressOptional, uid));
+        } else if (log.isDebugEnabled()) {
+            log.debug(">> " + getMessageSummary(networkEnvelope, size, peersNodeAddressOptional, uid));
         }
+
+        if (log.isTraceEnabled())
+            log.trace("Sending message: {}", Utilities.toTruncatedString(proto, 10000));
+
+        if (stopped)
+            throw new IOException("Connection " + uid + " is already stopped");
+
+        proto.writeDelimitedTo(protoOutputStream);
+        protoOutputStream.flush();
+
+        statistic.addSentBytes(size);
+        statistic.addSentMessage(networkEnvelope);
+
+        // We don't want to get the activity ts updated by ping/pong msg
+        if (!(networkEnvelope instanceof KeepAliveMessage))
+            statistic.updateLastActivityTimestamp();
+    }
+
+    // Short description for the logs which does not require to convert the message to text.
+    static String getMessageSummary(NetworkEnvelope networkEnvelope,
+                                    int size,
+                                    Optional<NodeAddress> peersNodeAddressOptional,
+                                    String uid) {
+        return networkEnvelope.getClass().getSimpleName() +
+                " / size=" + size +
+                " / peer=" + (peersNodeAddressOptional.isPresent() ? peersNodeAddressOptional.get().getFullAddress() : "null") +
+                " / uid=" + uid;
+    }
+
+    private SendPriority getSendPriority(NetworkEnvelope networkEnvelope) {
+        if (networkEnvelope instanceof KeepAliveMessage ||
+                networkEnvelope instanceof CloseConnectionMessage ||
+                networkEnvelope instanceof PrefixedSealedAndSignedMessage)
+            return SendPriority.HIGH;
+        else if (networkEnvelope instanceof BroadcastMessage)
+            return SendPriority.LOW;
+        else
+            return SendPriority.NORMAL;
     }
 
     public boolean isCapabilitySupported(NetworkEnvelope networkEnvelop) {
@@ -300,48 +425,42 @@ public class Connection implements MessageListener {
         return sharedModel.reportInvalidRequest(ruleViolation);
     }
 
-    // TODO either use the argument or delete it
     private boolean violatesThrottleLimit(NetworkEnvelope networkEnvelop) {
         long now = System.currentTimeMillis();
         boolean violated = false;
-        //TODO remove message storage after network is tested stable
-        if (messageTimeStamps.size() >= MSG_THROTTLE_PER_SEC) {
+        if (numMessageTimeStamps >= MSG_THROTTLE_PER_SEC) {
             // check if we got more than 200 (MSG_THROTTLE_PER_SEC) msg per sec.
-            long compareValue = messageTimeStamps.get(messageTimeStamps.size() - MSG_THROTTLE_PER_SEC).first;
+            long compareValue = getMessageTimeStamp(MSG_THROTTLE_PER_SEC);
             // if duration < 1 sec we received too much network_messages
             violated = now - compareValue < TimeUnit.SECONDS.toMillis(1);
-            if (violated) {
-                log.error("violatesThrottleLimit MSG_THROTTLE_PER_SEC ");
-                log.error("elapsed " + (now - compareValue));
-                log.error("messageTimeStamps: \n\t" + messageTimeStamps.stream()
-                        .map(e -> "\n\tts=" + e.first.toString() + " message=" + e.second.getClass().getName())
-                        .collect(Collectors.toList()).toString());
-            }
+            if (violated)
+                log.error("violatesThrottleLimit MSG_THROTTLE_PER_SEC. elapsed={}, message={}",
+                        now - compareValue, networkEnvelop.getClass().getName());
         }
 
-        if (messageTimeStamps.size() >= MSG_THROTTLE_PER_10_SEC) {
-            if (!violated) {
-                // check if we got more than 50 msg per 10 sec.
-                long compareValue = messageTimeStamps.get(messageTimeStamps.size() - MSG_THROTTLE_PER_10_SEC).first;
-                // if duration < 10 sec we received too much network_messages
-                violated = now - compareValue < TimeUnit.SECONDS.toMillis(10);
-
-                if (violated) {
-                    log.error("violatesThrottleLimit MSG_THROTTLE_PER_10_SEC ");
-                    log.error("elapsed " + (now - compareValue));
-                    log.error("messageTimeStamps: \n\t" + messageTimeStamps.stream()
-                            .map(e -> "\n\tts=" + e.first.toString() + " message=" + e.second.getClass().getName())
-                            .collect(Collectors.toList()).toString());
-                }
-            }
-            // we limit to max 1000 (MSG_THROTTLE_PER_10SEC) entries
-            messageTimeStamps.remove(0);
+        if (!violated && numMessageTimeStamps >= MSG_THROTTLE_PER_10_SEC) {
+            // check if we got more than 1000 msg per 10 sec.
+            long compareValue = getMessageTimeStamp(MSG_THROTTLE_PER_10_SEC);
+            // if duration < 10 sec we received too much network_messages
+            violated = now - compareValue < TimeUnit.SECONDS.toMillis(10);
+            if (violated)
+                log.error("violatesThrottleLimit MSG_THROTTLE_PER_10_SEC. elapsed={}, message={}",
+                        now - compareValue, networkEnvelop.getClass().getName());
         }
 
-        messageTimeStamps.add(new Tuple2<>(now, networkEnvelop));
+        // We limit to max 1000 (MSG_THROTTLE_PER_10SEC) entries by overwriting the oldest one
+        messageTimeStamps[messageTimeStampsIndex] = now;
+        messageTimeStampsIndex = (messageTimeStampsIndex + 1) % messageTimeStamps.length;
+        if (numMessageTimeStamps < messageTimeStamps.length)
+            numMessageTimeStamps++;
         return violated;
     }
 
+    // Returns the timestamp of the n-th last received message
+    private long getMessageTimeStamp(int n) {
+        return messageTimeStamps[(messageTimeStampsIndex - n + messageTimeStamps.length) % messageTimeStamps.length];
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // MessageListener implementation
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -448,9 +567,7 @@ public class Connection implements MessageListener {
                     try {
                         String reason = closeConnectionReason == CloseConnectionReason.RULE_VIOLATION ?
                                 sharedModel.getRuleViolation().name() : closeConnectionReason.name();
-                        sendMessage(new CloseConnectionMessage(reason));
-
-                        setStopFlags();
+                        sendCloseConnectionMessageAndStop(new CloseConnectionMessage(reason));
 
                         Uninterruptibles.sleepUninterruptibly(200, TimeUnit.MILLISECONDS);
                     } catch (Throwable t) {
@@ -472,6 +589,26 @@ public class Connection implements MessageListener {
         }
     }
 
+    // We write the CloseConnectionMessage directly instead of queuing it up, as queued messages don't get sent anymore
+    // once the stop flags are set. The stop flags get set while we hold the lock, so no other message gets written
+    // after the CloseConnectionMessage.
+    private void sendCloseConnectionMessageAndStop(CloseConnectionMessage closeConnectionMessage) throws InterruptedException {
+        if (protoOutputStreamLock.tryLock(SEND_CLOSE_MESSAGE_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+            try {
+                writeMessage(closeConnectionMessage);
+            } catch (Throwable t) {
+                log.debug("Sending the CloseConnectionMessage failed. " + t.getMessage());
+            } finally {
+                setStopFlags();
+                if (protoOutputStreamLock.isHeldByCurrentThread())
+                    protoOutputStreamLock.unlock();
+            }
+        } else {
+            log.debug("We could not send the CloseConnectionMessage as another message is still being written. connection={}", this);
+            setStopFlags();
+        }
+    }
+
     private void setStopFlags() {
         stopped = true;
         sharedModel.stop();
@@ -508,7 +645,11 @@ public class Connection implements MessageListener {
                 protoOutputStream.close();
             } catch (Throwable ignore) {
             }
-            MoreExecutors.shutdownAndAwaitTermination(singleThreadExecutor, 500, TimeUnit.MILLISECONDS);
+            // The thread is shared, so we only interrupt our task but don't wait for its termination.
+            if (inputHandlerFuture != null)
+                inputHandlerFuture.cancel(true);
+
+            failQueuedMessages();
 
             log.debug("Connection shutdown complete " + this.toString());
             // Use UserThread.execute as its not clear if that is called from a non-UserThread
@@ -703,7 +844,6 @@ public class Connection implements MessageListener {
         private final NetworkProtoResolver networkProtoResolver;
 
         private volatile boolean stopped;
-        private long lastReadTimeStamp;
         private boolean threadNameSet;
 
         public InputHandler(SharedModel sharedModel,
@@ -733,8 +873,8 @@ public class Connection implements MessageListener {
 
         @Override
         public void run() {
+            final String threadName = Thread.currentThread().getName();
             try {
-                Thread.currentThread().setName("InputHandler");
                 while (!stopped && !Thread.currentThread().isInterrupted()) {
                     if (!threadNameSet && sharedModel.connection != null &&
                             sharedModel.connection.getPeersNodeAddressOptional().isPresent()) {
@@ -751,16 +891,6 @@ public class Connection implements MessageListener {
                         Connection connection = checkNotNull(sharedModel.connection, "connection must not be null");
                         log.trace("InputHandler waiting for incoming network_messages.\n\tConnection=" + connection);
 
-                        // Throttle inbound network_messages
-                        long now = System.currentTimeMillis();
-                        long elapsed = now - lastReadTimeStamp;
-                        if (elapsed < 10) {
-                            log.debug("We got 2 network_messages received in less than 10 ms. We set the thread to sleep " +
-                                            "for 20 ms to avoid getting flooded by our peer. lastReadTimeStamp={}, now={}, elapsed={}",
-                                    lastReadTimeStamp, now, elapsed);
-                            Thread.sleep(20);
-                        }
-
                         // Reading the protobuffer message from the inputstream
                         PB.NetworkEnvelope proto = PB.NetworkEnvelope.parseDelimitedFrom(protoInputStream);
 
@@ -772,43 +902,32 @@ public class Connection implements MessageListener {
                         }
 
                         NetworkEnvelope networkEnvelope = networkProtoResolver.fromProto(proto);
-                        lastReadTimeStamp = now;
-                        log.debug("<< Received networkEnvelope of type: " + networkEnvelope.getClass().getSimpleName());
 
                         int size = proto.getSerializedSize();
+                        // Converting the message to text is expensive for large messages, so we only do it if the
+                        // log level is enabled. We only log Pong and RefreshOfferMsg when in dev environment (trace).
                         if (networkEnvelope instanceof Pong || networkEnvelope instanceof RefreshOfferMessage) {
-                            // We only log Pong and RefreshOfferMsg when in dev environment (trace)
-                            log.trace("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
-                                            "New data arrived at inputHandler of connection {}.\n" +
-                                            "Received object (truncated)={} / size={}"
-                                            + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
-                                    connection,
-                                    Utilities.toTruncatedString(proto.toString()),
-                                    size);
-                        } else {
+                            if (log.isTraceEnabled())
+                                log.trace("<< " + getMessageSummary(networkEnvelope, size, connection.getPeersNodeAddressOptional(), connection.getUid()));
+                        } else if (log.isDebugEnabled()) {
                             // We want to log all incoming network_messages (except Pong and RefreshOfferMsg)
                             // so we log before the data type checks
-                            //log.info("size={}; object={}", size, Utilities.toTruncatedString(rawInputObject.toString(), 100));
-                            log.debug("\n\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n" +
-                                            "New data arrived at inputHandler of connection {}.\n" +
-                                            "Received object (truncated)={} / size={}"
-                                            + "\n<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<<\n",
-                                    connection,
-                                    Utilities.toTruncatedString(proto.toString()),
-                                    size);
+                            log.debug("<< " + getMessageSummary(networkEnvelope, size, connection.getPeersNodeAddressOptional(), connection.getUid()));
                         }
 
+                        if (log.isTraceEnabled())
+                            log.trace("Received message: {}", Utilities.toTruncatedString(proto, 10000));
+
                         // We want to track the size of each object even if it is invalid data
                         connection.statistic.addReceivedBytes(size);
 
                         // We want to track the network_messages also before the checks, so do it early...
-                        connection.statistic.addReceivedMessage(networkEnvelope);
+                        connection.statistic.addReceivedMessage(networkEnvelope, size);
 
                         // First we check the size
                         boolean exceeds;
                         if (networkEnvelope instanceof ExtendedDataSizePermission) {
                             exceeds = size > MAX_PERMITTED_MESSAGE_SIZE;
-                            log.debug("size={}; object={}", size, Utilities.toTruncatedString(proto, 100));
                         } else {
                             exceeds = size > PERMITTED_MESSAGE_SIZE;
                         }
@@ -914,6 +1033,9 @@ public class Connection implements MessageListener {
                 }
             } catch (Throwable t) {
                 handleException(t);
+            } finally {
+                // Thread gets reused by other connections
+                Thread.currentThread().setName(threadName);
             }
         }
 
@@ -945,4 +1067,31 @@ public class Connection implements MessageListener {
                     '}';
         }
     }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // OutboundMessage
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Entry of the outbound queue. Messages with the same priority are sent in the order they got queued.
+    private static final class OutboundMessage implements Comparable<OutboundMessage> {
+        private final NetworkEnvelope networkEnvelope;
+        private final SendPriority priority;
+        private final long sequenceNr;
+        private final SettableFuture<Connection> future;
+
+        OutboundMessage(NetworkEnvelope networkEnvelope, SendPriority priority, long sequenceNr,
+                        SettableFuture<Connection> future) {
+            this.networkEnvelope = networkEnvelope;
+            this.priority = priority;
+            this.sequenceNr = sequenceNr;
+            this.future = future;
+        }
+
+        @Override
+        public int compareTo(@NotNull OutboundMessage other) {
+            int result = priority.compareTo(other.priority);
+            return result != 0 ? result : Long.compare(sequenceNr, other.sequenceNr);
+        }
+    }
 }
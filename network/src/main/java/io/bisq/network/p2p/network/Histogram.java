@@ -0,0 +1,62 @@
+package io.bisq.network.p2p.network;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram with power of 2 buckets. Bucket n holds the values in the range [2^(n-1), 2^n), bucket 0 holds 0.
+ * Precision is sufficient for message sizes and time intervals and recording does not allocate objects, so it can be
+ * called from the I/O threads for each message.
+ */
+public class Histogram {
+    private static final int NUM_BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+
+    public void record(long value) {
+        value = Math.max(0, value);
+        buckets.incrementAndGet(NUM_BUCKETS - Long.numberOfLeadingZeros(value));
+        count.increment();
+        sum.add(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMean() {
+        long count = getCount();
+        return count > 0 ? sum.sum() / count : 0;
+    }
+
+    // Returns the upper bound of the bucket containing the given percentile (0-100)
+    public long getPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0)
+            return 0;
+
+        long threshold = (long) Math.ceil(count * percentile / 100d);
+        long accumulated = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            accumulated += buckets.get(i);
+            if (accumulated >= threshold)
+                return getUpperBound(i);
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private static long getUpperBound(int bucket) {
+        return bucket >= NUM_BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() +
+                ", mean=" + getMean() +
+                ", p50=" + getPercentile(50) +
+                ", p90=" + getPercentile(90) +
+                ", p99=" + getPercentile(99);
+    }
+}
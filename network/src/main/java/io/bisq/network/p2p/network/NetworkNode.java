@@ -69,7 +69,7 @@ public abstract class NetworkNode implements MessageListener {
     abstract public void start(@Nullable SetupListener setupListener);
 
     public SettableFuture<Connection> sendMessage(@NotNull NodeAddress peersNodeAddress, NetworkEnvelope networkEnvelop) {
-        Log.traceCall("peersNodeAddress=" + peersNodeAddress + "\n\tmessage=" + Utilities.toTruncatedString(networkEnvelop));
+        Log.traceCall(() -> "peersNodeAddress=" + peersNodeAddress + "\n\tmessage=" + Utilities.toTruncatedString(networkEnvelop));
         checkNotNull(peersNodeAddress, "peerAddress must not be null");
 
         Connection connection = getOutboundConnection(peersNodeAddress);
@@ -83,7 +83,8 @@ public abstract class NetworkNode implements MessageListener {
                     "We will create a new outbound connection.", peersNodeAddress);
 
             final SettableFuture<Connection> resultFuture = SettableFuture.create();
-            ListenableFuture<Connection> future = executorService.submit(() -> {
+            // The task returns the future of the message send, which completes once the message is written
+            ListenableFuture<ListenableFuture<Connection>> createConnectionFuture = executorService.submit(() -> {
                 Thread.currentThread().setName("NetworkNode:SendMessage-to-" + peersNodeAddress);
                 OutboundConnection outboundConnection = null;
                 try {
@@ -115,8 +116,7 @@ public abstract class NetworkNode implements MessageListener {
                         } catch (Throwable throwable) {
                             log.error("Error at closing socket " + throwable);
                         }
-                        existingConnection.sendMessage(networkEnvelop);
-                        return existingConnection;
+                        return existingConnection.sendMessage(networkEnvelop);
                     } else {
                         final ConnectionListener connectionListener = new ConnectionListener() {
                             @Override
@@ -157,9 +157,7 @@ public abstract class NetworkNode implements MessageListener {
                                 + "\nmessage=" + networkEnvelop
                                 + "\n%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%\n");
 
-                        // can take a while when using tor
-                        outboundConnection.sendMessage(networkEnvelop);
-                        return outboundConnection;
+                        return outboundConnection.sendMessage(networkEnvelop);
                     }
                 } catch (Throwable throwable) {
                     if (!(throwable instanceof ConnectException ||
@@ -171,7 +169,7 @@ public abstract class NetworkNode implements MessageListener {
                 }
             });
 
-            Futures.addCallback(future, new FutureCallback<Connection>() {
+            Futures.addCallback(Futures.dereference(createConnectionFuture), new FutureCallback<Connection>() {
                 public void onSuccess(Connection connection) {
                     UserThread.execute(() -> resultFuture.set(connection));
                 }
@@ -228,13 +226,10 @@ public abstract class NetworkNode implements MessageListener {
 
 
     public SettableFuture<Connection> sendMessage(Connection connection, NetworkEnvelope networkEnvelop) {
-        Log.traceCall("\n\tmessage=" + Utilities.toTruncatedString(networkEnvelop) + "\n\tconnection=" + connection);
-        // connection.sendMessage might take a bit (compression, write to stream), so we use a thread to not block
-        ListenableFuture<Connection> future = executorService.submit(() -> {
-            Thread.currentThread().setName("NetworkNode:SendMessage-to-" + connection.getUid());
-            connection.sendMessage(networkEnvelop);
-            return connection;
-        });
+        Log.traceCall(() -> "\n\tmessage=" + Utilities.toTruncatedString(networkEnvelop) + "\n\tconnection=" + connection);
+        // connection.sendMessage only queues up the message, the future completes once the message is written.
+        // A full outbound queue fails the future, so the BroadcastHandler counts it as failed broadcast.
+        ListenableFuture<Connection> future = connection.sendMessage(networkEnvelop);
         final SettableFuture<Connection> resultFuture = SettableFuture.create();
         Futures.addCallback(future, new FutureCallback<Connection>() {
             public void onSuccess(Connection connection) {
@@ -1,5 +1,6 @@
 package io.bisq.network.p2p.network;
 
+import io.bisq.common.Timer;
 import io.bisq.common.UserThread;
 import io.bisq.common.proto.network.NetworkEnvelope;
 import javafx.beans.property.IntegerProperty;
@@ -7,33 +8,80 @@ import javafx.beans.property.LongProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleLongProperty;
 
-import java.util.Date;
-import java.util.Map;
+import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Traffic counters of a connection and the totals of all connections.
+ * The counters are updated directly at the I/O threads. The JavaFX properties are only used for the UI and get
+ * updated by sampling the counters on the UserThread once they have been requested.
+ */
 public class Statistic {
+    private static final long SAMPLE_INTERVAL_MS = 1000;
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // Static
     ///////////////////////////////////////////////////////////////////////////////////////////
 
-    private final static LongProperty totalSentBytes = new SimpleLongProperty(0);
-    private final static LongProperty totalReceivedBytes = new SimpleLongProperty(0);
+    private final static LongAdder totalSentBytes = new LongAdder();
+    private final static LongAdder totalReceivedBytes = new LongAdder();
+    private final static Map<String, MessageHistograms> receivedMessageHistograms = new ConcurrentHashMap<>();
+
+    // Only accessed from the UserThread
+    private static LongProperty totalSentBytesProperty;
+    private static LongProperty totalReceivedBytesProperty;
+    private static final Set<Statistic> sampledStatistics = Collections.newSetFromMap(new WeakHashMap<>());
+    private static Timer samplingTimer;
 
     public static long getTotalSentBytes() {
-        return totalSentBytes.get();
+        return totalSentBytes.sum();
     }
 
     public static LongProperty totalSentBytesProperty() {
-        return totalSentBytes;
+        if (totalSentBytesProperty == null) {
+            totalSentBytesProperty = new SimpleLongProperty(getTotalSentBytes());
+            startSampling();
+        }
+        return totalSentBytesProperty;
     }
 
     public static long getTotalReceivedBytes() {
-        return totalReceivedBytes.get();
+        return totalReceivedBytes.sum();
     }
 
     public static LongProperty totalReceivedBytesProperty() {
-        return totalReceivedBytes;
+        if (totalReceivedBytesProperty == null) {
+            totalReceivedBytesProperty = new SimpleLongProperty(getTotalReceivedBytes());
+            startSampling();
+        }
+        return totalReceivedBytesProperty;
+    }
+
+    // Size and inter-arrival time histograms of all received messages grouped by message class.
+    // Used by seed nodes and the monitor for logging.
+    public static String getReceivedMessageHistogramsAsString() {
+        StringBuilder sb = new StringBuilder("Received messages (size in bytes, inter-arrival time in ms):");
+        new TreeMap<>(receivedMessageHistograms).forEach((messageClassName, histograms) -> sb.append("\n")
+                .append(messageClassName)
+                .append("\n\tsize: ").append(histograms.size)
+                .append("\n\tinterArrivalTime: ").append(histograms.interArrivalTime));
+        return sb.toString();
+    }
+
+    private static void startSampling() {
+        if (samplingTimer == null)
+            samplingTimer = UserThread.runPeriodically(Statistic::sample, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static void sample() {
+        if (totalSentBytesProperty != null)
+            totalSentBytesProperty.set(getTotalSentBytes());
+        if (totalReceivedBytesProperty != null)
+            totalReceivedBytesProperty.set(getTotalReceivedBytes());
+        sampledStatistics.forEach(Statistic::sampleInstance);
     }
 
 
@@ -42,12 +90,17 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     private final Date creationDate;
-    private long lastActivityTimestamp = System.currentTimeMillis();
-    private final LongProperty sentBytes = new SimpleLongProperty(0);
-    private final LongProperty receivedBytes = new SimpleLongProperty(0);
-    private final Map<String, Integer> receivedMessages = new ConcurrentHashMap<>();
-    private final Map<String, Integer> sentMessages = new ConcurrentHashMap<>();
-    private final IntegerProperty roundTripTime = new SimpleIntegerProperty(0);
+    private volatile long lastActivityTimestamp = System.currentTimeMillis();
+    private final LongAdder sentBytes = new LongAdder();
+    private final LongAdder receivedBytes = new LongAdder();
+    private final Map<String, LongAdder> receivedMessages = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> sentMessages = new ConcurrentHashMap<>();
+    private volatile int roundTripTime;
+
+    // Only accessed from the UserThread
+    private LongProperty sentBytesProperty;
+    private LongProperty receivedBytesProperty;
+    private IntegerProperty roundTripTimeProperty;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -63,44 +116,46 @@ public class Statistic {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void updateLastActivityTimestamp() {
-        UserThread.execute(() -> lastActivityTimestamp = System.currentTimeMillis());
+        lastActivityTimestamp = System.currentTimeMillis();
     }
 
     public void addSentBytes(int value) {
-        UserThread.execute(() -> {
-            sentBytes.set(sentBytes.get() + value);
-            totalSentBytes.set(totalSentBytes.get() + value);
-        });
+        sentBytes.add(value);
+        totalSentBytes.add(value);
     }
 
     public void addReceivedBytes(int value) {
-        UserThread.execute(() -> {
-            receivedBytes.set(receivedBytes.get() + value);
-            totalReceivedBytes.set(totalReceivedBytes.get() + value);
-        });
+        receivedBytes.add(value);
+        totalReceivedBytes.add(value);
     }
 
-    // TODO would need msg inspection to get useful information...
-    public void addReceivedMessage(NetworkEnvelope networkEnvelop) {
+    public void addReceivedMessage(NetworkEnvelope networkEnvelop, int size) {
         String messageClassName = networkEnvelop.getClass().getSimpleName();
-        int counter = 1;
-        if (receivedMessages.containsKey(messageClassName))
-            counter = receivedMessages.get(messageClassName) + 1;
-
-        receivedMessages.put(messageClassName, counter);
+        receivedMessages.computeIfAbsent(messageClassName, k -> new LongAdder()).increment();
+        receivedMessageHistograms.computeIfAbsent(messageClassName, k -> new MessageHistograms()).record(size);
     }
 
     public void addSentMessage(NetworkEnvelope networkEnvelop) {
         String messageClassName = networkEnvelop.getClass().getSimpleName();
-        int counter = 1;
-        if (sentMessages.containsKey(messageClassName))
-            counter = sentMessages.get(messageClassName) + 1;
-
-        sentMessages.put(messageClassName, counter);
+        sentMessages.computeIfAbsent(messageClassName, k -> new LongAdder()).increment();
     }
 
     public void setRoundTripTime(int roundTripTime) {
-        this.roundTripTime.set(roundTripTime);
+        this.roundTripTime = roundTripTime;
+    }
+
+    private void sampleInstance() {
+        if (sentBytesProperty != null)
+            sentBytesProperty.set(getSentBytes());
+        if (receivedBytesProperty != null)
+            receivedBytesProperty.set(getReceivedBytes());
+        if (roundTripTimeProperty != null)
+            roundTripTimeProperty.set(roundTripTime);
+    }
+
+    private void addToSampledStatistics() {
+        sampledStatistics.add(this);
+        startSampling();
     }
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -116,37 +171,71 @@ public class Statistic {
     }
 
     public long getSentBytes() {
-        return sentBytes.get();
+        return sentBytes.sum();
     }
 
     public LongProperty sentBytesProperty() {
-        return sentBytes;
+        if (sentBytesProperty == null) {
+            sentBytesProperty = new SimpleLongProperty(getSentBytes());
+            addToSampledStatistics();
+        }
+        return sentBytesProperty;
     }
 
     public long getReceivedBytes() {
-        return receivedBytes.get();
+        return receivedBytes.sum();
     }
 
     public LongProperty receivedBytesProperty() {
-        return receivedBytes;
+        if (receivedBytesProperty == null) {
+            receivedBytesProperty = new SimpleLongProperty(getReceivedBytes());
+            addToSampledStatistics();
+        }
+        return receivedBytesProperty;
     }
 
     public Date getCreationDate() {
         return creationDate;
     }
 
-    public IntegerProperty roundTripTimeProperty() {
+    public int getRoundTripTime() {
         return roundTripTime;
     }
 
+    public IntegerProperty roundTripTimeProperty() {
+        if (roundTripTimeProperty == null) {
+            roundTripTimeProperty = new SimpleIntegerProperty(roundTripTime);
+            addToSampledStatistics();
+        }
+        return roundTripTimeProperty;
+    }
+
     @Override
     public String toString() {
         return "Statistic{" +
                 "creationDate=" + creationDate +
                 ", lastActivityTimestamp=" + lastActivityTimestamp +
-                ", sentBytes=" + sentBytes +
-                ", receivedBytes=" + receivedBytes +
+                ", sentBytes=" + getSentBytes() +
+                ", receivedBytes=" + getReceivedBytes() +
                 '}';
     }
 
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // MessageHistograms
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private static final class MessageHistograms {
+        private final Histogram size = new Histogram();
+        private final Histogram interArrivalTime = new Histogram();
+        private final AtomicLong lastArrivalTimestamp = new AtomicLong();
+
+        void record(int messageSize) {
+            size.record(messageSize);
+            long now = System.currentTimeMillis();
+            long previous = lastArrivalTimestamp.getAndSet(now);
+            if (previous > 0)
+                interArrivalTime.record(now - previous);
+        }
+    }
 }
@@ -0,0 +1,52 @@
+package io.bisq.network.p2p.network;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket for rate limiting the outbound messages of a connection.
+ * Allows bursts up to capacity and refills with a constant rate. Does not allocate objects at tryAcquire.
+ */
+class TokenBucket {
+    private final long capacity;
+    // Time needed to add one token
+    private final long refillIntervalNanos;
+
+    private long tokens;
+    private long lastRefillTs;
+
+    TokenBucket(int capacity, int tokensPerSecond) {
+        this.capacity = capacity;
+        this.refillIntervalNanos = TimeUnit.SECONDS.toNanos(1) / tokensPerSecond;
+        this.tokens = capacity;
+        this.lastRefillTs = System.nanoTime();
+    }
+
+    synchronized boolean tryAcquire() {
+        refill();
+        if (tokens > 0) {
+            tokens--;
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    synchronized long getMillisUntilNextToken() {
+        refill();
+        if (tokens > 0)
+            return 0;
+
+        long remainingNanos = refillIntervalNanos - (System.nanoTime() - lastRefillTs);
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remainingNanos) + 1);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        long newTokens = (now - lastRefillTs) / refillIntervalNanos;
+        if (newTokens > 0) {
+            tokens = Math.min(capacity, tokens + newTokens);
+            // We keep the fraction of the interval which was not used for a token unless the bucket is full
+            lastRefillTs = tokens == capacity ? now : lastRefillTs + newTokens * refillIntervalNanos;
+        }
+    }
+}
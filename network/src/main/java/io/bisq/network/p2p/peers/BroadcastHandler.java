@@ -92,7 +92,7 @@ public class BroadcastHandler implements PeerManager.Listener {
         this.resultHandler = resultHandler;
         this.listener = listener;
 
-        Log.traceCall("Sender=" + sender + "\n\t" +
+        Log.traceCall(() -> "Sender=" + sender + "\n\t" +
                 "Message=" + Utilities.toTruncatedString(message));
         Set<Connection> connectedPeersSet = networkNode.getConfirmedConnections()
                 .stream()
@@ -139,8 +139,7 @@ public class BroadcastHandler implements PeerManager.Listener {
     }
 
     private void sendToPeer(Connection connection, BroadcastMessage message) {
-        String errorMessage = "Message not broadcasted because we have stopped the handler already.\n\t" +
-                "message = " + Utilities.toTruncatedString(message);
+        // Creating the error message requires to convert the message to text, so we only do it in case of an error
         if (!stopped) {
             if (!connection.isStopped()) {
                 if (!connection.isCapabilityRequired(message) || connection.isCapabilitySupported(message)) {
@@ -169,7 +168,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                                 }
                             } else {
                                 // TODO investigate why that is called very often at seed nodes
-                                onFault("stopped at onSuccess: " + errorMessage, false);
+                                onFault("stopped at onSuccess: " + getStoppedErrorMessage(message), false);
                             }
                         }
 
@@ -180,9 +179,9 @@ public class BroadcastHandler implements PeerManager.Listener {
                                 log.info("Broadcast to " + nodeAddress + " failed.\n\t" +
                                         "ErrorMessage=" + throwable.getMessage());
                                 if (numOfCompletedBroadcasts + numOfFailedBroadcasts == numPeers)
-                                    onFault("stopped at onFailure: " + errorMessage);
+                                    onFault("stopped at onFailure: " + getStoppedErrorMessage(message));
                             } else {
-                                onFault("stopped at onFailure: " + errorMessage);
+                                onFault("stopped at onFailure: " + getStoppedErrorMessage(message));
                             }
                         }
                     });
@@ -193,7 +192,7 @@ public class BroadcastHandler implements PeerManager.Listener {
                 onFault("Connection stopped already", false);
             }
         } else {
-            onFault("stopped at sendToPeer: " + errorMessage, false);
+            onFault("stopped at sendToPeer: " + getStoppedErrorMessage(message), false);
         }
     }
 
@@ -220,6 +219,11 @@ public class BroadcastHandler implements PeerManager.Listener {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private String getStoppedErrorMessage(BroadcastMessage message) {
+        return "Message not broadcasted because we have stopped the handler already.\n\t" +
+                "message = " + Utilities.toTruncatedString(message);
+    }
+
     private void cleanup() {
         stopped = true;
         peerManager.removeListener(this);
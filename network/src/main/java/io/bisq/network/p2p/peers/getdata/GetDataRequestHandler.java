@@ -1,10 +1,13 @@
 package io.bisq.network.p2p.peers.getdata;
 
+import com.google.common.collect.Iterators;
+import com.google.common.collect.PeekingIterator;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 import io.bisq.common.Timer;
 import io.bisq.common.UserThread;
+import io.bisq.common.app.Capabilities;
 import io.bisq.common.app.Log;
 import io.bisq.common.proto.persistable.PersistablePayload;
 import io.bisq.common.util.Utilities;
@@ -17,20 +20,22 @@ import io.bisq.network.p2p.peers.getdata.messages.GetUpdatedDataRequest;
 import io.bisq.network.p2p.storage.P2PDataStorage;
 import io.bisq.network.p2p.storage.payload.CapabilityRequiringPayload;
 import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import io.bisq.network.p2p.storage.payload.ProtectedMailboxStorageEntry;
 import io.bisq.network.p2p.storage.payload.ProtectedStorageEntry;
 import io.bisq.network.p2p.storage.payload.ProtectedStoragePayload;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 @Slf4j
 public class GetDataRequestHandler {
     private static final long TIMEOUT = 60;
+    // We stay well below the permitted message size so the chunks don't require the ExtendedDataSizePermission
+    private static final int MAX_CHUNK_SIZE = Connection.getPermittedMessageSize() / 2;
+    // Estimate for the field tags, length prefixes and the scalar fields of an entry
+    private static final int ENTRY_OVERHEAD = 64;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -53,6 +58,8 @@ public class GetDataRequestHandler {
     private final Listener listener;
     private Timer timeoutTimer;
     private boolean stopped;
+    private Iterator<GetDataResponse> chunks;
+    private int numSentChunks;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -71,56 +78,50 @@ public class GetDataRequestHandler {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
     public void handle(GetDataRequest getDataRequest, final Connection connection) {
-        Log.traceCall(getDataRequest + "\n\tconnection=" + connection);
-
-        GetDataResponse getDataResponse = new GetDataResponse(getFilteredProtectedStorageEntries(getDataRequest, connection),
-                getFilteredPersistableNetworkPayload(getDataRequest, connection),
-                getDataRequest.getNonce(),
-                getDataRequest instanceof GetUpdatedDataRequest);
-
-        if (timeoutTimer == null) {
-            timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
-                        String errorMessage = "A timeout occurred for getDataResponse:" + getDataResponse +
-                                " on connection:" + connection;
-                        handleFault(errorMessage, CloseConnectionReason.SEND_MSG_TIMEOUT, connection);
-                    },
-                    TIMEOUT, TimeUnit.SECONDS);
-        }
+        Log.traceCall(() -> getDataRequest + "\n\tconnection=" + connection);
 
-        SettableFuture<Connection> future = networkNode.sendMessage(connection, getDataResponse);
-        Futures.addCallback(future, new FutureCallback<Connection>() {
-            @Override
-            public void onSuccess(Connection connection) {
+        // Filtering and serializing the data is the expensive part. It only reads from the concurrent maps of
+        // dataStorage, so seed nodes running with several user threads do it in parallel for different connections.
+        UserThread.execute(connection.getUid(), () -> {
+            Iterator<GetDataResponse> chunks = getResponseChunks(getDataRequest, connection);
+            UserThread.execute(() -> {
                 if (!stopped) {
-                    log.trace("Send DataResponse to {} succeeded. getDataResponse={}",
-                            connection.getPeersNodeAddressOptional(), getDataResponse);
-                    cleanup();
-                    listener.onComplete();
-                } else {
-                    log.trace("We have stopped already. We ignore that networkNode.sendMessage.onSuccess call.");
+                    this.chunks = chunks;
+                    sendNextChunk(connection);
                 }
-            }
-
-            @Override
-            public void onFailure(@NotNull Throwable throwable) {
-                if (!stopped) {
-                    String errorMessage = "Sending getDataRequest to " + connection +
-                            " failed. That is expected if the peer is offline. getDataResponse=" + getDataResponse + "." +
-                            "Exception: " + throwable.getMessage();
-                    handleFault(errorMessage, CloseConnectionReason.SEND_MSG_FAILURE, connection);
-                } else {
-                    log.trace("We have stopped already. We ignore that networkNode.sendMessage.onFailure call.");
-                }
-            }
+            });
         });
     }
 
-    private Set<PersistableNetworkPayload> getFilteredPersistableNetworkPayload(GetDataRequest getDataRequest, Connection connection) {
-        final Set<P2PDataStorage.ByteArray> tempLookupSet = new HashSet<>();
+    private Iterator<GetDataResponse> getResponseChunks(GetDataRequest getDataRequest, Connection connection) {
         Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray = P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
+        Set<ProtectedStorageEntry> dataSet = getFilteredProtectedStorageEntries(excludedKeysAsByteArray, connection);
+        Set<PersistableNetworkPayload> persistableNetworkPayloadSet = getFilteredPersistableNetworkPayload(getDataRequest, excludedKeysAsByteArray, connection);
+        boolean isGetUpdatedDataResponse = getDataRequest instanceof GetUpdatedDataRequest;
+
+        if (Capabilities.isCapabilitySupported(Collections.singletonList(Capabilities.Capability.CHUNKED_GET_DATA_RESPONSE.ordinal()),
+                connection.getSupportedCapabilities())) {
+            // We split the data into chunks which stay below the permitted message size and send them one after another,
+            // so the peer can apply each chunk as it arrives. The chunks are created only when they get sent.
+            return new ResponseChunks(dataSet, persistableNetworkPayloadSet, getDataRequest.getNonce(), isGetUpdatedDataResponse);
+        } else {
+            return Iterators.singletonIterator(new GetDataResponse(dataSet,
+                    persistableNetworkPayloadSet,
+                    getDataRequest.getNonce(),
+                    isGetUpdatedDataResponse));
+        }
+    }
+
+    private Set<PersistableNetworkPayload> getFilteredPersistableNetworkPayload(GetDataRequest getDataRequest,
+                                                                               Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray,
+                                                                               Connection connection) {
+        final Set<P2PDataStorage.ByteArray> tempLookupSet = new HashSet<>();
+        // Peers supporting the GET_DATA_FILTER capability send a bloom filter of their keys instead of the keys
+        final PayloadHashFilter filter = getDataRequest.getPersistableNetworkPayloadFilter();
 
         return dataStorage.getPersistableNetworkPayloadCollection().getMap().entrySet().stream()
                 .filter(e -> !excludedKeysAsByteArray.contains(e.getKey()))
+                .filter(e -> filter == null || !filter.mightContain(e.getKey().bytes))
                 .map(Map.Entry::getValue)
                 .filter(payload -> (!(payload instanceof CapabilityRequiringPayload) ||
                         connection.isCapabilitySupported(getDataRequest)))
@@ -128,11 +129,11 @@ public class GetDataRequestHandler {
                 .collect(Collectors.toSet());
     }
 
-    private Set<ProtectedStorageEntry> getFilteredProtectedStorageEntries(GetDataRequest getDataRequest, Connection connection) {
+    private Set<ProtectedStorageEntry> getFilteredProtectedStorageEntries(Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray,
+                                                                         Connection connection) {
         final Set<ProtectedStorageEntry> filteredDataSet = new HashSet<>();
         final Set<Integer> lookupSet = new HashSet<>();
 
-        Set<P2PDataStorage.ByteArray> excludedKeysAsByteArray = P2PDataStorage.ByteArray.convertBytesSetToByteArraySet(getDataRequest.getExcludedKeys());
         Set<ProtectedStorageEntry> filteredSet = dataStorage.getMap().entrySet().stream()
                 .filter(e -> !excludedKeysAsByteArray.contains(e.getKey()))
                 .map(Map.Entry::getValue)
@@ -190,6 +191,53 @@ public class GetDataRequestHandler {
     // Private
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    private void sendNextChunk(Connection connection) {
+        GetDataResponse getDataResponse = chunks.next();
+
+        // We restart the timeout for each chunk
+        stopTimeoutTimer();
+        timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
+                    String errorMessage = "A timeout occurred for getDataResponse:" + getDataResponse +
+                            " on connection:" + connection;
+                    handleFault(errorMessage, CloseConnectionReason.SEND_MSG_TIMEOUT, connection);
+                },
+                TIMEOUT, TimeUnit.SECONDS);
+
+        SettableFuture<Connection> future = networkNode.sendMessage(connection, getDataResponse);
+        Futures.addCallback(future, new FutureCallback<Connection>() {
+            @Override
+            public void onSuccess(Connection connection) {
+                if (!stopped) {
+                    log.trace("Send DataResponse to {} succeeded. getDataResponse={}",
+                            connection.getPeersNodeAddressOptional(), getDataResponse);
+                    numSentChunks++;
+                    if (chunks.hasNext()) {
+                        sendNextChunk(connection);
+                    } else {
+                        if (numSentChunks > 1)
+                            log.info("We sent the GetDataResponse in {} chunks", numSentChunks);
+                        cleanup();
+                        listener.onComplete();
+                    }
+                } else {
+                    log.trace("We have stopped already. We ignore that networkNode.sendMessage.onSuccess call.");
+                }
+            }
+
+            @Override
+            public void onFailure(@NotNull Throwable throwable) {
+                if (!stopped) {
+                    String errorMessage = "Sending getDataRequest to " + connection +
+                            " failed. That is expected if the peer is offline. getDataResponse=" + getDataResponse + "." +
+                            "Exception: " + throwable.getMessage();
+                    handleFault(errorMessage, CloseConnectionReason.SEND_MSG_FAILURE, connection);
+                } else {
+                    log.trace("We have stopped already. We ignore that networkNode.sendMessage.onFailure call.");
+                }
+            }
+        });
+    }
+
     private void handleFault(String errorMessage, CloseConnectionReason closeConnectionReason, Connection connection) {
         if (!stopped) {
             log.info(errorMessage + "\n\tcloseConnectionReason=" + closeConnectionReason);
@@ -202,9 +250,89 @@ public class GetDataRequestHandler {
 
     private void cleanup() {
         stopped = true;
+        stopTimeoutTimer();
+    }
+
+    private void stopTimeoutTimer() {
         if (timeoutTimer != null) {
             timeoutTimer.stop();
             timeoutTimer = null;
         }
     }
+
+    // The serialized size of the payload is taken from the cached proto of the entry, so we don't serialize the
+    // entries twice.
+    private static int getSize(ProtectedStorageEntry entry) {
+        int size = entry.getStoragePayloadProto().getSerializedSize() +
+                entry.getOwnerPubKeyBytes().length +
+                entry.getSignature().length +
+                ENTRY_OVERHEAD;
+        if (entry instanceof ProtectedMailboxStorageEntry)
+            size += ((ProtectedMailboxStorageEntry) entry).getReceiversPubKeyBytes().length;
+        return size;
+    }
+
+    private static int getSize(PersistableNetworkPayload payload) {
+        return payload.toProtoMessage().getSerializedSize();
+    }
+
+    // Creates the next chunk when it gets sent. We fill each chunk up to MAX_CHUNK_SIZE. An item exceeding that
+    // limit gets its own chunk.
+    private static final class ResponseChunks implements Iterator<GetDataResponse> {
+        private final PeekingIterator<ProtectedStorageEntry> dataIterator;
+        private final PeekingIterator<PersistableNetworkPayload> persistableNetworkPayloadIterator;
+        private final int nonce;
+        private final boolean isGetUpdatedDataResponse;
+        private int chunkIndex;
+        private boolean hasMoreChunks = true;
+
+        ResponseChunks(Set<ProtectedStorageEntry> dataSet,
+                       Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                       int nonce,
+                       boolean isGetUpdatedDataResponse) {
+            this.dataIterator = Iterators.peekingIterator(dataSet.iterator());
+            this.persistableNetworkPayloadIterator = Iterators.peekingIterator(persistableNetworkPayloadSet.iterator());
+            this.nonce = nonce;
+            this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return hasMoreChunks;
+        }
+
+        @Override
+        public GetDataResponse next() {
+            if (!hasMoreChunks)
+                throw new NoSuchElementException();
+
+            Set<ProtectedStorageEntry> chunkDataSet = new HashSet<>();
+            Set<PersistableNetworkPayload> chunkPersistableNetworkPayloadSet = new HashSet<>();
+            int chunkSize = 0;
+            while (dataIterator.hasNext()) {
+                int size = getSize(dataIterator.peek());
+                if (chunkSize > 0 && chunkSize + size > MAX_CHUNK_SIZE)
+                    break;
+                chunkDataSet.add(dataIterator.next());
+                chunkSize += size;
+            }
+            if (!dataIterator.hasNext()) {
+                while (persistableNetworkPayloadIterator.hasNext()) {
+                    int size = getSize(persistableNetworkPayloadIterator.peek());
+                    if (chunkSize > 0 && chunkSize + size > MAX_CHUNK_SIZE)
+                        break;
+                    chunkPersistableNetworkPayloadSet.add(persistableNetworkPayloadIterator.next());
+                    chunkSize += size;
+                }
+            }
+
+            hasMoreChunks = dataIterator.hasNext() || persistableNetworkPayloadIterator.hasNext();
+            return new GetDataResponse(chunkDataSet,
+                    chunkPersistableNetworkPayloadSet,
+                    nonce,
+                    isGetUpdatedDataResponse,
+                    chunkIndex++,
+                    hasMoreChunks);
+        }
+    }
 }
@@ -0,0 +1,130 @@
+package io.bisq.network.p2p.peers.getdata;
+
+import com.google.protobuf.ByteString;
+import io.bisq.common.proto.network.NetworkPayload;
+import io.bisq.generated.protobuffer.PB;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.Random;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Bloom filter over the hashes of the PersistableNetworkPayload items a node has already.
+ * Used in the GetDataRequests instead of the full list of excluded keys so the request size does not grow
+ * linearly with the number of trade statistics and account age witnesses.
+ * <p>
+ * The keys are hashes already, so we derive the bit positions directly from the key bytes (double hashing).
+ * The tweak is set randomly per request, so a false positive (an item the peer wrongly assumes we have) will not
+ * repeat at the next request or at the request to the other seed node.
+ */
+@EqualsAndHashCode
+public final class PayloadHashFilter implements NetworkPayload {
+    // 0.1 % false positive rate
+    private static final int BITS_PER_ITEM = 15;
+    private static final int NUM_HASH_FUNCTIONS = 10;
+    private static final int MIN_BITS = 1024;
+    // Protects the responding node from malicious filter parameters
+    private static final int MAX_NUM_HASH_FUNCTIONS = 30;
+
+    @Getter
+    private final byte[] bits;
+    @Getter
+    private final int numHashFunctions;
+    @Getter
+    private final long tweak;
+
+    public static PayloadHashFilter fromKeys(Collection<byte[]> keys) {
+        int numBits = Math.max(MIN_BITS, keys.size() * BITS_PER_ITEM);
+        PayloadHashFilter filter = new PayloadHashFilter(new byte[(numBits + 7) / 8], NUM_HASH_FUNCTIONS, new Random().nextLong());
+        keys.forEach(filter::add);
+        return filter;
+    }
+
+    private PayloadHashFilter(byte[] bits, int numHashFunctions, long tweak) {
+        this.bits = bits;
+        this.numHashFunctions = numHashFunctions;
+        this.tweak = tweak;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // PROTO BUFFER
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    @Override
+    public PB.PayloadHashFilter toProtoMessage() {
+        return PB.PayloadHashFilter.newBuilder()
+                .setBits(ByteString.copyFrom(bits))
+                .setNumHashFunctions(numHashFunctions)
+                .setTweak(tweak)
+                .build();
+    }
+
+    public static PayloadHashFilter fromProto(PB.PayloadHashFilter proto) {
+        checkArgument(!proto.getBits().isEmpty(), "PayloadHashFilter bits must not be empty");
+        checkArgument(proto.getNumHashFunctions() > 0 && proto.getNumHashFunctions() <= MAX_NUM_HASH_FUNCTIONS,
+                "Invalid numHashFunctions at PayloadHashFilter: " + proto.getNumHashFunctions());
+        return new PayloadHashFilter(proto.getBits().toByteArray(), proto.getNumHashFunctions(), proto.getTweak());
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    public boolean mightContain(byte[] key) {
+        long numBits = (long) bits.length * 8;
+        long h1 = mix(readLong(key, 0) ^ tweak);
+        long h2 = mix(readLong(key, 8) ^ Long.rotateLeft(tweak, 32)) | 1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            if ((bits[(int) (index >>> 3)] & (1 << (index & 7))) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "PayloadHashFilter{" +
+                "bits.length=" + bits.length +
+                ", numHashFunctions=" + numHashFunctions +
+                "}";
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void add(byte[] key) {
+        long numBits = (long) bits.length * 8;
+        long h1 = mix(readLong(key, 0) ^ tweak);
+        long h2 = mix(readLong(key, 8) ^ Long.rotateLeft(tweak, 32)) | 1;
+        for (int i = 0; i < numHashFunctions; i++) {
+            long index = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            bits[(int) (index >>> 3)] |= (1 << (index & 7));
+        }
+    }
+
+    // Reads up to 8 bytes from offset; shorter keys are padded with zeros
+    private static long readLong(byte[] key, int offset) {
+        long result = 0;
+        for (int i = offset; i < offset + 8 && i < key.length; i++)
+            result = (result << 8) | (key[i] & 0xff);
+        return result;
+    }
+
+    // Finalizer of MurmurHash3 to spread the tweak over all bits
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
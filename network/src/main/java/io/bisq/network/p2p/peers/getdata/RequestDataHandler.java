@@ -5,6 +5,7 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.SettableFuture;
 import io.bisq.common.Timer;
 import io.bisq.common.UserThread;
+import io.bisq.common.app.Capabilities;
 import io.bisq.common.app.Log;
 import io.bisq.common.proto.network.NetworkEnvelope;
 import io.bisq.common.proto.network.NetworkPayload;
@@ -59,9 +60,12 @@ class RequestDataHandler implements MessageListener {
     private final P2PDataStorage dataStorage;
     private final PeerManager peerManager;
     private final Listener listener;
+    // Shared between all handlers of the RequestDataManager
+    private final Map<NodeAddress, Boolean> getDataFilterSupportByPeer;
     private Timer timeoutTimer;
     private final int nonce = new Random().nextInt();
     private boolean stopped;
+    private int numReceivedChunks;
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -71,10 +75,12 @@ class RequestDataHandler implements MessageListener {
     public RequestDataHandler(NetworkNode networkNode,
                               P2PDataStorage dataStorage,
                               PeerManager peerManager,
+                              Map<NodeAddress, Boolean> getDataFilterSupportByPeer,
                               Listener listener) {
         this.networkNode = networkNode;
         this.dataStorage = dataStorage;
         this.peerManager = peerManager;
+        this.getDataFilterSupportByPeer = getDataFilterSupportByPeer;
         this.listener = listener;
     }
 
@@ -97,14 +103,26 @@ class RequestDataHandler implements MessageListener {
             // PersistedStoragePayload items don't get removed, so we don't have an issue with the case that
             // an object gets removed in between PreliminaryGetDataRequest and the GetUpdatedDataRequest and we would
             // miss that event if we do not load the full set or use some delta handling.
-            Set<byte[]> excludedKeys = dataStorage.getPersistableNetworkPayloadCollection().getMap().entrySet().stream()
-                    .map(e -> e.getKey().bytes)
-                    .collect(Collectors.toSet());
+            List<byte[]> keys = dataStorage.getPersistableNetworkPayloadCollection().getMap().keySet().stream()
+                    .map(e -> e.bytes)
+                    .collect(Collectors.toList());
+
+            // If we know that the peer supports the GET_DATA_FILTER capability we send a compact bloom filter of
+            // the keys instead of the keys. If we know that it does not support it we send only the keys. As long as
+            // we don't know it (e.g. at the PreliminaryGetDataRequest to a seed node) we send both, as an old peer
+            // ignores the filter and would respond with all data.
+            Boolean getDataFilterSupported = isGetDataFilterSupported(nodeAddress);
+            Set<byte[]> excludedKeys = getDataFilterSupported != null && getDataFilterSupported ?
+                    new HashSet<>() :
+                    new HashSet<>(keys);
+            PayloadHashFilter persistableNetworkPayloadFilter = getDataFilterSupported == null || getDataFilterSupported ?
+                    PayloadHashFilter.fromKeys(keys) :
+                    null;
 
             if (isPreliminaryDataRequest)
-                getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeys);
+                getDataRequest = new PreliminaryGetDataRequest(nonce, excludedKeys, persistableNetworkPayloadFilter);
             else
-                getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, excludedKeys);
+                getDataRequest = new GetUpdatedDataRequest(networkNode.getNodeAddress(), nonce, excludedKeys, persistableNetworkPayloadFilter);
 
             if (timeoutTimer == null) {
                 timeoutTimer = UserThread.runAfter(() -> {  // setup before sending to avoid race conditions
@@ -163,7 +181,7 @@ class RequestDataHandler implements MessageListener {
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof GetDataResponse) {
             if (connection.getPeersNodeAddressOptional().isPresent() && connection.getPeersNodeAddressOptional().get().equals(peersNodeAddress)) {
-                Log.traceCall(networkEnvelop.toString() + "\n\tconnection=" + connection);
+                Log.traceCall(() -> networkEnvelop + "\n\tconnection=" + connection);
                 if (!stopped) {
                     GetDataResponse getDataResponse = (GetDataResponse) networkEnvelop;
                     Map<String, Set<NetworkPayload>> payloadByClassName = new HashMap<>();
@@ -217,59 +235,30 @@ class RequestDataHandler implements MessageListener {
                                         "at that moment");
 
                         final NodeAddress sender = connection.getPeersNodeAddressOptional().get();
-
-                        List<NetworkPayload> processDelayedItems = new ArrayList<>();
-                        dataSet.stream().forEach(e -> {
-                            if (e.getProtectedStoragePayload() instanceof LazyProcessedPayload) {
-                                processDelayedItems.add(e);
-                            } else {
-                                // We dont broadcast here (last param) as we are only connected to the seed node and would be pointless
-                                dataStorage.addProtectedStorageEntry(e, sender, null, false, false);
-                            }
+                        boolean getDataFilterSupported = Capabilities.isCapabilitySupported(getGetDataFilterCapability(),
+                                getDataResponse.getSupportedCapabilities());
+                        Boolean previouslySupported = getDataFilterSupportByPeer.put(sender, getDataFilterSupported);
+                        if (previouslySupported == null || previouslySupported != getDataFilterSupported)
+                            log.info("Peer {} {} the GET_DATA_FILTER capability.", sender,
+                                    getDataFilterSupported ? "supports" : "does not support");
+
+                        if (getDataResponse.getChunkIndex() != numReceivedChunks)
+                            log.warn("We received chunk {} but expected chunk {}", getDataResponse.getChunkIndex(), numReceivedChunks);
+                        numReceivedChunks++;
+
+                        boolean isLastChunk = !getDataResponse.isHasMoreChunks();
+                        if (isLastChunk)
+                            cleanup();
+                        else
+                            startTimeoutTimerForNextChunk();
+
+                        // We apply each chunk as it arrives. The signatures get verified in parallel before we add the
+                        // entries at the user thread. The SignatureVerifier keeps the order of the chunks.
+                        dataStorage.verifySignatures(dataSet, () -> {
+                            addData(dataSet, persistableNetworkPayloadSet, sender);
+                            if (isLastChunk)
+                                listener.onComplete();
                         });
-
-                        if (persistableNetworkPayloadSet != null) {
-                            persistableNetworkPayloadSet.stream().forEach(e -> {
-                                if (e instanceof LazyProcessedPayload) {
-                                    processDelayedItems.add(e);
-                                } else {
-                                    // We dont broadcast here as we are only connected to the seed node and would be pointless
-                                    dataStorage.addPersistableNetworkPayload(e, sender, false, false, false, false);
-                                }
-                            });
-                        }
-
-                        // We process the LazyProcessedStoragePayload items (TradeStatistics) in batches with a delay in between.
-                        // We want avoid that the UI get stuck when processing many entries.
-                        // The dataStorage.add call is a bit expensive as sig checks is done there.
-
-                        // Using a background thread might be an alternative but it would require much more effort and
-                        // it would also decrease user experience if the app gets under heavy load (like at startup with wallet sync).
-                        // Beside that we mitigated the problem already as we will not get the whole TradeStatistics as we
-                        // pass the excludeKeys and we pack the latest data dump
-                        // into the resources, so a new user do not need to request all data.
-
-                        // In future we will probably limit by date or load on demand from user intent to not get too much data.
-
-                        // We split the list into sub lists with max 50 items and delay each batch with 200 ms.
-                        int size = processDelayedItems.size();
-                        int chunkSize = 50;
-                        int chunks = 1 + size / chunkSize;
-                        int startIndex = 0;
-                        for (int i = 0; i < chunks && startIndex < size; i++, startIndex += chunkSize) {
-                            long delay = (i + 1) * 200;
-                            int endIndex = Math.min(size, startIndex + chunkSize);
-                            List<NetworkPayload> subList = processDelayedItems.subList(startIndex, endIndex);
-                            UserThread.runAfter(() -> subList.stream().forEach(item -> {
-                                if (item instanceof ProtectedStorageEntry)
-                                    dataStorage.addProtectedStorageEntry((ProtectedStorageEntry) item, sender, null, false, false);
-                                else if (item instanceof PersistableNetworkPayload)
-                                    dataStorage.addPersistableNetworkPayload((PersistableNetworkPayload) item, sender, false, false, false, false);
-                            }), delay, TimeUnit.MILLISECONDS);
-                        }
-
-                        cleanup();
-                        listener.onComplete();
                     } else {
                         log.debug("Nonce not matching. That can happen rarely if we get a response after a canceled " +
                                         "handshake (timeout causes connection close but peer might have sent a msg before " +
@@ -295,6 +284,82 @@ class RequestDataHandler implements MessageListener {
     ///////////////////////////////////////////////////////////////////////////////////////////
 
 
+    // Returns null if we don't know yet if the peer supports the filter, which is the case if it has not responded to
+    // a request yet and we have no connection to it where we have received its capabilities.
+    @Nullable
+    private Boolean isGetDataFilterSupported(NodeAddress nodeAddress) {
+        Boolean supported = getDataFilterSupportByPeer.get(nodeAddress);
+        if (supported != null)
+            return supported;
+
+        return networkNode.getConfirmedConnections().stream()
+                .filter(connection -> connection.getPeersNodeAddressOptional().isPresent() &&
+                        connection.getPeersNodeAddressOptional().get().equals(nodeAddress))
+                .map(Connection::getSupportedCapabilities)
+                .filter(Objects::nonNull)
+                .findAny()
+                .map(supportedCapabilities -> Capabilities.isCapabilitySupported(getGetDataFilterCapability(), supportedCapabilities))
+                .orElse(null);
+    }
+
+    private static List<Integer> getGetDataFilterCapability() {
+        return Collections.singletonList(Capabilities.Capability.GET_DATA_FILTER.ordinal());
+    }
+
+    private void addData(Set<ProtectedStorageEntry> dataSet,
+                         @Nullable Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                         NodeAddress sender) {
+        List<NetworkPayload> processDelayedItems = new ArrayList<>();
+        dataSet.stream().forEach(e -> {
+            if (e.getProtectedStoragePayload() instanceof LazyProcessedPayload) {
+                processDelayedItems.add(e);
+            } else {
+                // We dont broadcast here (last param) as we are only connected to the seed node and would be pointless
+                dataStorage.addProtectedStorageEntry(e, sender, null, false, false);
+            }
+        });
+
+        if (persistableNetworkPayloadSet != null) {
+            persistableNetworkPayloadSet.stream().forEach(e -> {
+                if (e instanceof LazyProcessedPayload) {
+                    processDelayedItems.add(e);
+                } else {
+                    // We dont broadcast here as we are only connected to the seed node and would be pointless
+                    dataStorage.addPersistableNetworkPayload(e, sender, false, false, false, false);
+                }
+            });
+        }
+
+        // We process the LazyProcessedStoragePayload items (TradeStatistics) in batches with a delay in between.
+        // We want avoid that the UI get stuck when processing many entries.
+        // The dataStorage.add call is a bit expensive as the listeners get called for each item.
+
+        // Using a background thread might be an alternative but it would require much more effort and
+        // it would also decrease user experience if the app gets under heavy load (like at startup with wallet sync).
+        // Beside that we mitigated the problem already as we will not get the whole TradeStatistics as we
+        // pass the excludeKeys and we pack the latest data dump
+        // into the resources, so a new user do not need to request all data.
+
+        // In future we will probably limit by date or load on demand from user intent to not get too much data.
+
+        // We split the list into sub lists with max 50 items and delay each batch with 200 ms.
+        int size = processDelayedItems.size();
+        int chunkSize = 50;
+        int chunks = 1 + size / chunkSize;
+        int startIndex = 0;
+        for (int i = 0; i < chunks && startIndex < size; i++, startIndex += chunkSize) {
+            long delay = (i + 1) * 200;
+            int endIndex = Math.min(size, startIndex + chunkSize);
+            List<NetworkPayload> subList = processDelayedItems.subList(startIndex, endIndex);
+            UserThread.runAfter(() -> subList.stream().forEach(item -> {
+                if (item instanceof ProtectedStorageEntry)
+                    dataStorage.addProtectedStorageEntry((ProtectedStorageEntry) item, sender, null, false, false);
+                else if (item instanceof PersistableNetworkPayload)
+                    dataStorage.addPersistableNetworkPayload((PersistableNetworkPayload) item, sender, false, false, false, false);
+            }), delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
     @SuppressWarnings("UnusedParameters")
     private void handleFault(String errorMessage, NodeAddress nodeAddress, CloseConnectionReason closeConnectionReason) {
         cleanup();
@@ -311,6 +376,18 @@ class RequestDataHandler implements MessageListener {
         stopTimeoutTimer();
     }
 
+    private void startTimeoutTimerForNextChunk() {
+        timeoutTimer = UserThread.runAfter(() -> {
+                    if (!stopped) {
+                        String errorMessage = "A timeout occurred at waiting for the next GetDataResponse chunk from " +
+                                "nodeAddress:" + peersNodeAddress;
+                        log.debug(errorMessage + " / RequestDataHandler=" + RequestDataHandler.this);
+                        handleFault(errorMessage, peersNodeAddress, CloseConnectionReason.SEND_MSG_TIMEOUT);
+                    }
+                },
+                TIMEOUT);
+    }
+
     private void stopTimeoutTimer() {
         if (timeoutTimer != null) {
             timeoutTimer.stop();
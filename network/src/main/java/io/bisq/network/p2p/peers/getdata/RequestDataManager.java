@@ -62,6 +62,8 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
 
     private final Map<NodeAddress, RequestDataHandler> handlerMap = new HashMap<>();
     private final Map<String, GetDataRequestHandler> getDataRequestHandlers = new HashMap<>();
+    // Whether the peers which responded to our requests support the GET_DATA_FILTER capability
+    private final Map<NodeAddress, Boolean> getDataFilterSupportByPeer = new HashMap<>();
     private Optional<NodeAddress> nodeAddressOfPreliminaryDataRequest = Optional.<NodeAddress>empty();
     private Timer retryTimer;
     private boolean dataUpdateRequested;
@@ -234,7 +236,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
     @Override
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof GetDataRequest) {
-            Log.traceCall(networkEnvelop.toString() + "\n\tconnection=" + connection);
+            Log.traceCall(() -> networkEnvelop + "\n\tconnection=" + connection);
             if (!stopped) {
                 if (peerManager.isSeedNode(connection))
                     connection.setPeerType(Connection.PeerType.SEED_NODE);
@@ -290,6 +292,7 @@ public class RequestDataManager implements MessageListener, ConnectionListener,
         if (!stopped) {
             if (!handlerMap.containsKey(nodeAddress)) {
                 RequestDataHandler requestDataHandler = new RequestDataHandler(networkNode, dataStorage, peerManager,
+                        getDataFilterSupportByPeer,
                         new RequestDataHandler.Listener() {
                             @Override
                             public void onComplete() {
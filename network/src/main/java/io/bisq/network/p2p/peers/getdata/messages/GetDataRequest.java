@@ -2,10 +2,12 @@ package io.bisq.network.p2p.peers.getdata.messages;
 
 import io.bisq.common.proto.network.NetworkEnvelope;
 import io.bisq.network.p2p.ExtendedDataSizePermission;
+import io.bisq.network.p2p.peers.getdata.PayloadHashFilter;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.ToString;
 
+import javax.annotation.Nullable;
 import java.util.Set;
 
 @EqualsAndHashCode(callSuper = true)
@@ -15,12 +17,19 @@ public abstract class GetDataRequest extends NetworkEnvelope implements Extended
     protected final int nonce;
     // Keys for ProtectedStorageEntry items to be excluded from the request because the peer has them already
     protected final Set<byte[]> excludedKeys;
+    // Bloom filter of the keys of the PersistableNetworkPayload items the requester has already. Used instead of
+    // adding those keys to excludedKeys if the peer supports the GET_DATA_FILTER capability.
+    // Null if sent by older peers.
+    @Nullable
+    protected final PayloadHashFilter persistableNetworkPayloadFilter;
 
     public GetDataRequest(int messageVersion,
                           int nonce,
-                          Set<byte[]> excludedKeys) {
+                          Set<byte[]> excludedKeys,
+                          @Nullable PayloadHashFilter persistableNetworkPayloadFilter) {
         super(messageVersion);
         this.nonce = nonce;
         this.excludedKeys = excludedKeys;
+        this.persistableNetworkPayloadFilter = persistableNetworkPayloadFilter;
     }
 }
@@ -38,15 +38,36 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
     @Nullable
     private final List<Integer> supportedCapabilities;
 
+    // Peers supporting the CHUNKED_GET_DATA_RESPONSE capability get the data split into several responses.
+    // Old peers don't set those fields, so a response with default values is a complete response.
+    private final int chunkIndex;
+    private final boolean hasMoreChunks;
+
     public GetDataResponse(Set<ProtectedStorageEntry> dataSet,
                            @Nullable Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
                            int requestNonce,
                            boolean isGetUpdatedDataResponse) {
+        this(dataSet,
+                persistableNetworkPayloadSet,
+                requestNonce,
+                isGetUpdatedDataResponse,
+                0,
+                false);
+    }
+
+    public GetDataResponse(Set<ProtectedStorageEntry> dataSet,
+                           @Nullable Set<PersistableNetworkPayload> persistableNetworkPayloadSet,
+                           int requestNonce,
+                           boolean isGetUpdatedDataResponse,
+                           int chunkIndex,
+                           boolean hasMoreChunks) {
         this(dataSet,
                 persistableNetworkPayloadSet,
                 requestNonce,
                 isGetUpdatedDataResponse,
                 Capabilities.getSupportedCapabilities(),
+                chunkIndex,
+                hasMoreChunks,
                 Version.getP2PMessageVersion());
     }
 
@@ -59,6 +80,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                             int requestNonce,
                             boolean isGetUpdatedDataResponse,
                             @Nullable List<Integer> supportedCapabilities,
+                            int chunkIndex,
+                            boolean hasMoreChunks,
                             int messageVersion) {
         super(messageVersion);
 
@@ -67,6 +90,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
         this.requestNonce = requestNonce;
         this.isGetUpdatedDataResponse = isGetUpdatedDataResponse;
         this.supportedCapabilities = supportedCapabilities;
+        this.chunkIndex = chunkIndex;
+        this.hasMoreChunks = hasMoreChunks;
     }
 
     @Override
@@ -83,7 +108,9 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                                         .build())
                         .collect(Collectors.toList()))
                 .setRequestNonce(requestNonce)
-                .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse);
+                .setIsGetUpdatedDataResponse(isGetUpdatedDataResponse)
+                .setChunkIndex(chunkIndex)
+                .setHasMoreChunks(hasMoreChunks);
 
         Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(supportedCapabilities));
         Optional.ofNullable(persistableNetworkPayloadSet).ifPresent(set -> builder.addAllPersistableNetworkPayloadItems(set.stream()
@@ -114,6 +141,8 @@ public final class GetDataResponse extends NetworkEnvelope implements SupportedC
                 proto.getRequestNonce(),
                 proto.getIsGetUpdatedDataResponse(),
                 proto.getSupportedCapabilitiesList().isEmpty() ? null : proto.getSupportedCapabilitiesList(),
+                proto.getChunkIndex(),
+                proto.getHasMoreChunks(),
                 messageVersion);
     }
 }
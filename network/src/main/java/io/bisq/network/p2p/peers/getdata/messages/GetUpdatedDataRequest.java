@@ -6,9 +6,12 @@ import io.bisq.common.proto.ProtoUtil;
 import io.bisq.generated.protobuffer.PB;
 import io.bisq.network.p2p.NodeAddress;
 import io.bisq.network.p2p.SendersNodeAddressMessage;
+import io.bisq.network.p2p.peers.getdata.PayloadHashFilter;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 
+import javax.annotation.Nullable;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -21,10 +24,12 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
 
     public GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                  int nonce,
-                                 Set<byte[]> excludedKeys) {
+                                 Set<byte[]> excludedKeys,
+                                 @Nullable PayloadHashFilter persistableNetworkPayloadFilter) {
         this(senderNodeAddress,
                 nonce,
                 excludedKeys,
+                persistableNetworkPayloadFilter,
                 Version.getP2PMessageVersion());
     }
 
@@ -36,10 +41,12 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
     private GetUpdatedDataRequest(NodeAddress senderNodeAddress,
                                   int nonce,
                                   Set<byte[]> excludedKeys,
+                                  @Nullable PayloadHashFilter persistableNetworkPayloadFilter,
                                   int messageVersion) {
         super(messageVersion,
                 nonce,
-                excludedKeys);
+                excludedKeys,
+                persistableNetworkPayloadFilter);
         checkNotNull(senderNodeAddress, "senderNodeAddress must not be null at GetUpdatedDataRequest");
         this.senderNodeAddress = senderNodeAddress;
     }
@@ -53,6 +60,8 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
                         .map(ByteString::copyFrom)
                         .collect(Collectors.toList()));
 
+        Optional.ofNullable(persistableNetworkPayloadFilter).ifPresent(e -> builder.setPersistableNetworkPayloadFilter(e.toProtoMessage()));
+
         return getNetworkEnvelopeBuilder()
                 .setGetUpdatedDataRequest(builder)
                 .build();
@@ -62,6 +71,7 @@ public final class GetUpdatedDataRequest extends GetDataRequest implements Sende
         return new GetUpdatedDataRequest(NodeAddress.fromProto(proto.getSenderNodeAddress()),
                 proto.getNonce(),
                 ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList()),
+                proto.hasPersistableNetworkPayloadFilter() ? PayloadHashFilter.fromProto(proto.getPersistableNetworkPayloadFilter()) : null,
                 messageVersion);
     }
 }
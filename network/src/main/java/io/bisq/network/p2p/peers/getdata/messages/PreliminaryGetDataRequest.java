@@ -7,6 +7,7 @@ import io.bisq.common.proto.ProtoUtil;
 import io.bisq.generated.protobuffer.PB;
 import io.bisq.network.p2p.AnonymousMessage;
 import io.bisq.network.p2p.SupportedCapabilitiesMessage;
+import io.bisq.network.p2p.peers.getdata.PayloadHashFilter;
 import lombok.EqualsAndHashCode;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -26,8 +27,9 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
     private final List<Integer> supportedCapabilities;
 
     public PreliminaryGetDataRequest(int nonce,
-                                     Set<byte[]> excludedKeys) {
-        this(nonce, excludedKeys, Capabilities.getSupportedCapabilities(), Version.getP2PMessageVersion());
+                                     Set<byte[]> excludedKeys,
+                                     @Nullable PayloadHashFilter persistableNetworkPayloadFilter) {
+        this(nonce, excludedKeys, persistableNetworkPayloadFilter, Capabilities.getSupportedCapabilities(), Version.getP2PMessageVersion());
     }
 
 
@@ -37,9 +39,10 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
 
     private PreliminaryGetDataRequest(int nonce,
                                       Set<byte[]> excludedKeys,
+                                      @Nullable PayloadHashFilter persistableNetworkPayloadFilter,
                                       @Nullable List<Integer> supportedCapabilities,
                                       int messageVersion) {
-        super(messageVersion, nonce, excludedKeys);
+        super(messageVersion, nonce, excludedKeys, persistableNetworkPayloadFilter);
 
         this.supportedCapabilities = supportedCapabilities;
     }
@@ -53,6 +56,7 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
                         .collect(Collectors.toList()));
 
         Optional.ofNullable(supportedCapabilities).ifPresent(e -> builder.addAllSupportedCapabilities(supportedCapabilities));
+        Optional.ofNullable(persistableNetworkPayloadFilter).ifPresent(e -> builder.setPersistableNetworkPayloadFilter(e.toProtoMessage()));
 
         return getNetworkEnvelopeBuilder()
                 .setPreliminaryGetDataRequest(builder)
@@ -62,6 +66,7 @@ public final class PreliminaryGetDataRequest extends GetDataRequest implements A
     public static PreliminaryGetDataRequest fromProto(PB.PreliminaryGetDataRequest proto, int messageVersion) {
         return new PreliminaryGetDataRequest(proto.getNonce(),
                 ProtoUtil.byteSetFromProtoByteStringList(proto.getExcludedKeysList()),
+                proto.hasPersistableNetworkPayloadFilter() ? PayloadHashFilter.fromProto(proto.getPersistableNetworkPayloadFilter()) : null,
                 proto.getSupportedCapabilitiesList().isEmpty() ? null : proto.getSupportedCapabilitiesList(),
                 messageVersion);
     }
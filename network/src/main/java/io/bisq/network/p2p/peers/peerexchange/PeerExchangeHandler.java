@@ -143,7 +143,7 @@ class PeerExchangeHandler implements MessageListener {
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof GetPeersResponse) {
             if (!stopped) {
-                Log.traceCall(networkEnvelop.toString() + "\n\tconnection=" + connection);
+                Log.traceCall(() -> networkEnvelop + "\n\tconnection=" + connection);
                 GetPeersResponse getPeersResponse = (GetPeersResponse) networkEnvelop;
                 if (peerManager.isSeedNode(connection))
                     connection.setPeerType(Connection.PeerType.SEED_NODE);
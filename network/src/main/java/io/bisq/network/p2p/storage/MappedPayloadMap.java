@@ -0,0 +1,110 @@
+package io.bisq.network.p2p.storage;
+
+import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map view of the items of a MappedPayloadStore plus the items added at runtime. Items of the store get decoded on
+ * access, so iterating over the keys or looking up a single item does not materialize the whole store.
+ * Items never get removed, so remove is not supported.
+ */
+class MappedPayloadMap extends AbstractMap<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+    @Getter
+    private final MappedPayloadStore store;
+    @Getter
+    private final Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> addedItems = new ConcurrentHashMap<>();
+
+    MappedPayloadMap(MappedPayloadStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public int size() {
+        return store.size() + addedItems.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof P2PDataStorage.ByteArray &&
+                (addedItems.containsKey(key) || store.containsKey((P2PDataStorage.ByteArray) key));
+    }
+
+    @Override
+    @Nullable
+    public PersistableNetworkPayload get(Object key) {
+        if (!(key instanceof P2PDataStorage.ByteArray))
+            return null;
+
+        PersistableNetworkPayload payload = addedItems.get(key);
+        return payload != null ? payload : store.get((P2PDataStorage.ByteArray) key);
+    }
+
+    // The items are immutable and the key is their hash, so we never replace an existing item
+    @Override
+    @Nullable
+    public PersistableNetworkPayload put(P2PDataStorage.ByteArray key, PersistableNetworkPayload value) {
+        PersistableNetworkPayload existing = store.get(key);
+        return existing != null ? existing : addedItems.put(key, value);
+    }
+
+    @Override
+    public Set<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> entrySet() {
+        return new AbstractSet<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>>() {
+            @Override
+            public Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> iterator() {
+                Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>> addedItemsIterator = addedItems.entrySet().iterator();
+                return new Iterator<Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload>>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < store.size() || addedItemsIterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> next() {
+                        if (index < store.size())
+                            return new StoreEntry(index++);
+                        return addedItemsIterator.next();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return MappedPayloadMap.this.size();
+            }
+        };
+    }
+
+    // Decodes the value only if it is requested
+    private final class StoreEntry implements Entry<P2PDataStorage.ByteArray, PersistableNetworkPayload> {
+        private final int index;
+        private P2PDataStorage.ByteArray key;
+
+        StoreEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public P2PDataStorage.ByteArray getKey() {
+            if (key == null)
+                key = new P2PDataStorage.ByteArray(store.getHash(index));
+            return key;
+        }
+
+        @Override
+        public PersistableNetworkPayload getValue() {
+            return store.getPayload(index);
+        }
+
+        @Override
+        public PersistableNetworkPayload setValue(PersistableNetworkPayload value) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
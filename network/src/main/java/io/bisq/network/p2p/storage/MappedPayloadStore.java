@@ -0,0 +1,209 @@
+package io.bisq.network.p2p.storage;
+
+import com.google.common.primitives.UnsignedBytes;
+import io.bisq.common.proto.persistable.PersistenceProtoResolver;
+import io.bisq.common.storage.FileUtil;
+import io.bisq.common.util.Tuple2;
+import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Read only store of PersistableNetworkPayload items in a memory mapped file. Items are only decoded when they get
+ * accessed, so the historical trade statistics and account age witnesses don't need to be held on the heap.
+ * <p>
+ * File format (big endian):
+ * header: magic (int), version (int), number of items (int), hash length (int)
+ * index: for each item sorted by hash: hash (20 bytes), offset of the record in the file (long), record length (int)
+ * data: the records as serialized PB.PersistableNetworkPayload
+ * <p>
+ * Lookups by hash use a binary search over the index.
+ */
+@Slf4j
+class MappedPayloadStore {
+    private static final int MAGIC = 0x42515053;
+    private static final int VERSION = 1;
+    static final int HASH_LENGTH = 20;
+    private static final int HEADER_SIZE = 16;
+    private static final int INDEX_ENTRY_SIZE = HASH_LENGTH + 8 + 4;
+    private static final Comparator<byte[]> HASH_COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+    private final MappedByteBuffer buffer;
+    private final int size;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Static
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    static MappedPayloadStore open(File file, PersistenceProtoResolver persistenceProtoResolver) throws IOException {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+             FileChannel channel = randomAccessFile.getChannel()) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION ||
+                    buffer.getInt(12) != HASH_LENGTH)
+                throw new IOException("Invalid header at " + file.getName());
+
+            int size = buffer.getInt(8);
+            if (size < 0 || HEADER_SIZE + (long) size * INDEX_ENTRY_SIZE > buffer.capacity())
+                throw new IOException("Invalid number of items at " + file.getName() + ": " + size);
+
+            return new MappedPayloadStore(buffer, size, persistenceProtoResolver);
+        }
+    }
+
+    /**
+     * Writes the items of the store and the given items to the file. Items which are in the store already are ignored.
+     * The file gets written to a temp file first and then renamed.
+     */
+    static void write(File file, @Nullable MappedPayloadStore store, Collection<PersistableNetworkPayload> items)
+            throws IOException {
+        // We copy the records of the store without decoding them
+        List<Tuple2<byte[], byte[]>> records = new ArrayList<>();
+        if (store != null) {
+            for (int i = 0; i < store.size; i++)
+                records.add(new Tuple2<>(store.getHash(i), store.getRecord(i)));
+        }
+        for (PersistableNetworkPayload item : items) {
+            byte[] hash = item.getHash();
+            checkArgument(hash.length == HASH_LENGTH, "Unexpected hash length " + hash.length + " of " + item);
+            if (store == null || store.indexOf(hash) < 0)
+                records.add(new Tuple2<>(hash, item.toProtoMessage().toByteArray()));
+        }
+        records.sort((o1, o2) -> HASH_COMPARATOR.compare(o1.first, o2.first));
+
+        File tempFile = File.createTempFile("temp", null, file.getParentFile());
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile);
+                 DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(fileOutputStream))) {
+                outputStream.writeInt(MAGIC);
+                outputStream.writeInt(VERSION);
+                outputStream.writeInt(records.size());
+                outputStream.writeInt(HASH_LENGTH);
+
+                long offset = HEADER_SIZE + (long) records.size() * INDEX_ENTRY_SIZE;
+                for (Tuple2<byte[], byte[]> record : records) {
+                    outputStream.write(record.first);
+                    outputStream.writeLong(offset);
+                    outputStream.writeInt(record.second.length);
+                    offset += record.second.length;
+                }
+                for (Tuple2<byte[], byte[]> record : records)
+                    outputStream.write(record.second);
+
+                outputStream.flush();
+                fileOutputStream.getFD().sync();
+            }
+            FileUtil.renameFile(tempFile, file);
+        } finally {
+            if (tempFile.exists() && !tempFile.delete())
+                log.error("Cannot delete temp file " + tempFile);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private MappedPayloadStore(MappedByteBuffer buffer, int size, PersistenceProtoResolver persistenceProtoResolver) {
+        this.buffer = buffer;
+        this.size = size;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    int size() {
+        return size;
+    }
+
+    boolean containsKey(P2PDataStorage.ByteArray hash) {
+        return indexOf(hash.bytes) >= 0;
+    }
+
+    @Nullable
+    PersistableNetworkPayload get(P2PDataStorage.ByteArray hash) {
+        int index = indexOf(hash.bytes);
+        return index >= 0 ? getPayload(index) : null;
+    }
+
+    byte[] getHash(int index) {
+        return getBytes(HEADER_SIZE + index * INDEX_ENTRY_SIZE, HASH_LENGTH);
+    }
+
+    PersistableNetworkPayload getPayload(int index) {
+        try {
+            PB.PersistableNetworkPayload proto = PB.PersistableNetworkPayload.parseFrom(getRecord(index));
+            return PersistableNetworkPayload.fromProto(proto, persistenceProtoResolver);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not decode item " + index + " of MappedPayloadStore", e);
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private int indexOf(byte[] hash) {
+        if (hash.length != HASH_LENGTH)
+            return -1;
+
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int compare = compareHash(mid, hash);
+            if (compare < 0)
+                low = mid + 1;
+            else if (compare > 0)
+                high = mid - 1;
+            else
+                return mid;
+        }
+        return -1;
+    }
+
+    // Compares without copying the hash from the index
+    private int compareHash(int index, byte[] hash) {
+        int position = HEADER_SIZE + index * INDEX_ENTRY_SIZE;
+        for (int i = 0; i < HASH_LENGTH; i++) {
+            int compare = UnsignedBytes.compare(buffer.get(position + i), hash[i]);
+            if (compare != 0)
+                return compare;
+        }
+        return 0;
+    }
+
+    private byte[] getRecord(int index) {
+        int position = HEADER_SIZE + index * INDEX_ENTRY_SIZE + HASH_LENGTH;
+        return getBytes((int) buffer.getLong(position), buffer.getInt(position + 8));
+    }
+
+    // We only use absolute access to the shared buffer so it is safe to read from several threads
+    private byte[] getBytes(int position, int length) {
+        byte[] bytes = new byte[length];
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(position);
+        duplicate.get(bytes);
+        return bytes;
+    }
+}
@@ -41,6 +41,7 @@ import java.nio.file.Paths;
 import java.security.KeyPair;
 import java.security.PublicKey;
 import java.util.*;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
@@ -54,6 +55,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
      * How many days to keep an entry before it is purged.
      */
     private static final int PURGE_AGE_DAYS = 10;
+    private static final String PERSISTABLE_NETWORK_PAYLOAD_STORE_FILE_NAME = "PersistableNetworkPayloadStore";
 
     @VisibleForTesting
     public static int CHECK_TTL_INTERVAL_SEC = 60;
@@ -72,7 +74,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @Getter
     private PersistableNetworkPayloadCollection persistableNetworkPayloadCollection;
     private final Storage<PersistableNetworkPayloadCollection> persistableNetworkPayloadMapStorage;
+    private PersistableNetworkPayloadLog persistableNetworkPayloadLog;
+    private final PersistenceProtoResolver persistenceProtoResolver;
     private final CopyOnWriteArraySet<PersistableNetworkPayloadMapListener> persistableNetworkPayloadMapListeners = new CopyOnWriteArraySet<>();
+    private final SignatureVerifier signatureVerifier = new SignatureVerifier();
 
 
     ///////////////////////////////////////////////////////////////////////////////////////////
@@ -86,6 +91,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                           PersistenceProtoResolver persistenceProtoResolver) {
         this.broadcaster = broadcaster;
         this.storageDir = storageDir;
+        this.persistenceProtoResolver = persistenceProtoResolver;
 
         networkNode.addMessageListener(this);
         networkNode.addConnectionListener(this);
@@ -130,16 +136,48 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         } else {
             log.debug(storageFileName + " file exists already.");
         }
-        persistableNetworkPayloadCollection = persistableNetworkPayloadMapStorage.initAndGetPersistedWithFileName(storageFileName, 100);
-        if (persistableNetworkPayloadCollection != null) {
-            log.info("persistableNetworkPayloadMap size=" + persistableNetworkPayloadCollection.getMap().size());
-
-            // In case another object is already listening...
-            if (!persistableNetworkPayloadMapListeners.isEmpty())
-                persistableNetworkPayloadCollection.getMap().values().stream()
-                        .forEach(payload -> persistableNetworkPayloadMapListeners.stream().forEach(e -> e.onAdded(payload)));
-        } else {
-            persistableNetworkPayloadCollection = new PersistableNetworkPayloadCollection();
+        persistableNetworkPayloadCollection = readPersistableNetworkPayloadCollection(storageFileName);
+        log.info("persistableNetworkPayloadMap size=" + persistableNetworkPayloadCollection.getMap().size());
+
+        // In case another object is already listening...
+        if (!persistableNetworkPayloadMapListeners.isEmpty())
+            persistableNetworkPayloadCollection.getMap().values().stream()
+                    .forEach(payload -> persistableNetworkPayloadMapListeners.stream().forEach(e -> e.onAdded(payload)));
+
+        // New items are appended to a log and get written to the snapshot file only from time to time
+        if (persistableNetworkPayloadLog != null)
+            persistableNetworkPayloadLog.shutDown();
+        persistableNetworkPayloadLog = new PersistableNetworkPayloadLog(storageDir, storageFileName,
+                new File(storageDir, PERSISTABLE_NETWORK_PAYLOAD_STORE_FILE_NAME + ".new"), persistenceProtoResolver);
+        List<PersistableNetworkPayload> replayedItems = persistableNetworkPayloadLog.replay(persistableNetworkPayloadCollection);
+        if (!persistableNetworkPayloadMapListeners.isEmpty())
+            replayedItems.forEach(payload -> persistableNetworkPayloadMapListeners.stream().forEach(e -> e.onAdded(payload)));
+    }
+
+
+    // The PersistableNetworkPayloadMap snapshot gets converted once to a memory mapped store so lookups don't
+    // require to have all items on the heap. The store is only replaced at startup as a mapped file cannot be
+    // replaced on all platforms. Compaction of the log writes the pending store file.
+    private PersistableNetworkPayloadCollection readPersistableNetworkPayloadCollection(String storageFileName) {
+        File storeFile = new File(storageDir, PERSISTABLE_NETWORK_PAYLOAD_STORE_FILE_NAME);
+        File pendingStoreFile = new File(storageDir, PERSISTABLE_NETWORK_PAYLOAD_STORE_FILE_NAME + ".new");
+        PersistableNetworkPayloadCollection persisted = null;
+        try {
+            if (pendingStoreFile.exists())
+                FileUtil.renameFile(pendingStoreFile, storeFile);
+
+            if (!storeFile.exists()) {
+                persisted = persistableNetworkPayloadMapStorage.initAndGetPersistedWithFileName(storageFileName, 100);
+                MappedPayloadStore.write(storeFile, null,
+                        persisted != null ? persisted.getMap().values() : Collections.<PersistableNetworkPayload>emptyList());
+            }
+
+            return new PersistableNetworkPayloadCollection(MappedPayloadStore.open(storeFile, persistenceProtoResolver));
+        } catch (Throwable t) {
+            log.error("Could not use " + storeFile.getName() + ". We use " + storageFileName + " instead.", t);
+            if (persisted == null)
+                persisted = persistableNetworkPayloadMapStorage.initAndGetPersistedWithFileName(storageFileName, 100);
+            return persisted != null ? persisted : new PersistableNetworkPayloadCollection();
         }
     }
 
@@ -151,6 +189,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     public void shutDown() {
         if (removeExpiredEntriesTimer != null)
             removeExpiredEntriesTimer.stop();
+
+        signatureVerifier.shutDown();
+        if (persistableNetworkPayloadLog != null)
+            persistableNetworkPayloadLog.shutDown();
     }
 
     public void onBootstrapComplete() {
@@ -192,24 +234,54 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @Override
     public void onMessage(NetworkEnvelope networkEnvelop, Connection connection) {
         if (networkEnvelop instanceof BroadcastMessage) {
-            Log.traceCall(Utilities.toTruncatedString(networkEnvelop) + "\n\tconnection=" + connection);
-            connection.getPeersNodeAddressOptional().ifPresent(peersNodeAddress -> {
-                if (networkEnvelop instanceof AddDataMessage) {
-                    addProtectedStorageEntry(((AddDataMessage) networkEnvelop).getProtectedStorageEntry(), peersNodeAddress, null, false);
-                } else if (networkEnvelop instanceof RemoveDataMessage) {
-                    remove(((RemoveDataMessage) networkEnvelop).getProtectedStorageEntry(), peersNodeAddress, false);
-                } else if (networkEnvelop instanceof RemoveMailboxDataMessage) {
-                    removeMailboxData(((RemoveMailboxDataMessage) networkEnvelop).getProtectedMailboxStorageEntry(), peersNodeAddress, false);
-                } else if (networkEnvelop instanceof RefreshOfferMessage) {
-                    refreshTTL((RefreshOfferMessage) networkEnvelop, peersNodeAddress, false);
-                } else if (networkEnvelop instanceof AddPersistableNetworkPayloadMessage) {
-                    addPersistableNetworkPayload(((AddPersistableNetworkPayloadMessage) networkEnvelop).getPersistableNetworkPayload(),
-                            peersNodeAddress, false, true, false, true);
-                }
-            });
+            Log.traceCall(() -> Utilities.toTruncatedString(networkEnvelop) + "\n\tconnection=" + connection);
+            // We verify the signatures at the SignatureVerifier threads and process the messages afterwards in the
+            // order we have received them.
+            connection.getPeersNodeAddressOptional().ifPresent(peersNodeAddress ->
+                    signatureVerifier.execute(getSignatureVerifications((BroadcastMessage) networkEnvelop),
+                            () -> onBroadcastMessage((BroadcastMessage) networkEnvelop, peersNodeAddress)));
         }
     }
 
+    private void onBroadcastMessage(BroadcastMessage broadcastMessage, NodeAddress peersNodeAddress) {
+        if (broadcastMessage instanceof AddDataMessage) {
+            addProtectedStorageEntry(((AddDataMessage) broadcastMessage).getProtectedStorageEntry(), peersNodeAddress, null, false);
+        } else if (broadcastMessage instanceof RemoveDataMessage) {
+            remove(((RemoveDataMessage) broadcastMessage).getProtectedStorageEntry(), peersNodeAddress, false);
+        } else if (broadcastMessage instanceof RemoveMailboxDataMessage) {
+            removeMailboxData(((RemoveMailboxDataMessage) broadcastMessage).getProtectedMailboxStorageEntry(), peersNodeAddress, false);
+        } else if (broadcastMessage instanceof RefreshOfferMessage) {
+            refreshTTL((RefreshOfferMessage) broadcastMessage, peersNodeAddress, false);
+        } else if (broadcastMessage instanceof AddPersistableNetworkPayloadMessage) {
+            addPersistableNetworkPayload(((AddPersistableNetworkPayloadMessage) broadcastMessage).getPersistableNetworkPayload(),
+                    peersNodeAddress, false, true, false, true);
+        }
+    }
+
+    private List<Callable<Boolean>> getSignatureVerifications(BroadcastMessage broadcastMessage) {
+        if (broadcastMessage instanceof AddDataMessage) {
+            return Collections.singletonList(getSignatureVerification(((AddDataMessage) broadcastMessage).getProtectedStorageEntry()));
+        } else if (broadcastMessage instanceof RemoveDataMessage) {
+            return Collections.singletonList(getSignatureVerification(((RemoveDataMessage) broadcastMessage).getProtectedStorageEntry()));
+        } else if (broadcastMessage instanceof RemoveMailboxDataMessage) {
+            return Collections.singletonList(getSignatureVerification(((RemoveMailboxDataMessage) broadcastMessage).getProtectedMailboxStorageEntry()));
+        } else if (broadcastMessage instanceof RefreshOfferMessage) {
+            RefreshOfferMessage refreshOfferMessage = (RefreshOfferMessage) broadcastMessage;
+            ProtectedStorageEntry storedData = map.get(new ByteArray(refreshOfferMessage.getHashOfPayload()));
+            if (storedData != null) {
+                PublicKey ownerPubKey = storedData.getProtectedStoragePayload().getOwnerPubKey();
+                return Collections.singletonList(() -> signatureVerifier.verify(ownerPubKey,
+                        refreshOfferMessage.getHashOfDataAndSeqNr(), refreshOfferMessage.getSignature()));
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private Callable<Boolean> getSignatureVerification(ProtectedStorageEntry protectedStorageEntry) {
+        return () -> signatureVerifier.verify(protectedStorageEntry.getOwnerPubKey(),
+                getHashOfDataAndSeqNr(protectedStorageEntry), protectedStorageEntry.getSignature());
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // ConnectionListener implementation
@@ -233,7 +305,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                                 // disconnected peer. We remove that data from our map.
 
                                 // Check if we have the data (e.g. OfferPayload)
-                                ByteArray hashOfPayload = getHashAsByteArray(expirablePayload);
+                                ByteArray hashOfPayload = getHashAsByteArray(protectedData);
                                 boolean containsKey = map.containsKey(hashOfPayload);
                                 if (containsKey) {
                                     log.debug("We remove the data as the data owner got disconnected with " +
@@ -291,7 +363,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 if (!(payload instanceof DateTolerantPayload) || !checkDate || ((DateTolerantPayload) payload).isDateInTolerance()) {
                     if (!containsKey) {
                         persistableNetworkPayloadCollection.getMap().put(hashAsByteArray, payload);
-                        persistableNetworkPayloadMapStorage.queueUpForSave(persistableNetworkPayloadCollection, 2000);
+                        persistableNetworkPayloadLog.append(payload);
                         persistableNetworkPayloadMapListeners.stream().forEach(e -> e.onAdded(payload));
                     }
                     if (allowBroadcast)
@@ -323,7 +395,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                                             @Nullable BroadcastHandler.Listener listener, boolean isDataOwner, boolean allowBroadcast) {
         Log.traceCall("with allowBroadcast=" + allowBroadcast);
         final ProtectedStoragePayload protectedStoragePayload = protectedStorageEntry.getProtectedStoragePayload();
-        ByteArray hashOfPayload = getHashAsByteArray(protectedStoragePayload);
+        ByteArray hashOfPayload = getHashAsByteArray(protectedStorageEntry);
         boolean sequenceNrValid = isSequenceNrValid(protectedStorageEntry.getSequenceNumber(), hashOfPayload);
         boolean result = checkPublicKeys(protectedStorageEntry, true)
                 && checkSignature(protectedStorageEntry)
@@ -408,7 +480,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     public boolean remove(ProtectedStorageEntry protectedStorageEntry, @Nullable NodeAddress sender, boolean isDataOwner) {
         Log.traceCall();
-        ByteArray hashOfPayload = getHashAsByteArray(protectedStorageEntry.getProtectedStoragePayload());
+        ByteArray hashOfPayload = getHashAsByteArray(protectedStorageEntry);
         boolean containsKey = map.containsKey(hashOfPayload);
         if (!containsKey)
             log.debug("Remove data ignored as we don't have an entry for that data.");
@@ -435,7 +507,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     @SuppressWarnings("UnusedReturnValue")
     public boolean removeMailboxData(ProtectedMailboxStorageEntry protectedMailboxStorageEntry, @Nullable NodeAddress sender, boolean isDataOwner) {
         Log.traceCall();
-        ByteArray hashOfData = getHashAsByteArray(protectedMailboxStorageEntry.getProtectedStoragePayload());
+        ByteArray hashOfData = getHashAsByteArray(protectedMailboxStorageEntry);
         boolean containsKey = map.containsKey(hashOfData);
         if (!containsKey)
             log.debug("Remove data ignored as we don't have an entry for that data.");
@@ -504,6 +576,18 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
                 storageSignaturePubKey.getPublic(), sequenceNumber, signature, receiversPublicKey);
     }
 
+    /**
+     * Verifies the signatures of the entries in parallel and calls the resultHandler at the UserThread once done.
+     * The entries are expected to get added with addProtectedStorageEntry in the resultHandler which will use the
+     * cached verification results.
+     */
+    public void verifySignatures(Collection<ProtectedStorageEntry> protectedStorageEntries, Runnable resultHandler) {
+        signatureVerifier.execute(protectedStorageEntries.stream()
+                        .map(this::getSignatureVerification)
+                        .collect(Collectors.toList()),
+                resultHandler);
+    }
+
     public void addHashMapChangedListener(HashMapChangedListener hashMapChangedListener) {
         hashMapChangedListeners.add(hashMapChangedListener);
     }
@@ -582,7 +666,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
 
     private boolean checkSignature(PublicKey ownerPubKey, byte[] hashOfDataAndSeqNr, byte[] signature) {
         try {
-            boolean result = Sig.verify(ownerPubKey, hashOfDataAndSeqNr, signature);
+            boolean result = signatureVerifier.verify(ownerPubKey, hashOfDataAndSeqNr, signature);
             if (!result)
                 log.warn("Signature verification failed at checkSignature. " +
                         "That should not happen.");
@@ -595,8 +679,17 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
     }
 
     private boolean checkSignature(ProtectedStorageEntry protectedStorageEntry) {
-        byte[] hashOfDataAndSeqNr = P2PDataStorage.getHash(new DataAndSeqNrPair(protectedStorageEntry.getProtectedStoragePayload(), protectedStorageEntry.getSequenceNumber()));
-        return checkSignature(protectedStorageEntry.getOwnerPubKey(), hashOfDataAndSeqNr, protectedStorageEntry.getSignature());
+        return checkSignature(protectedStorageEntry.getOwnerPubKey(), getHashOfDataAndSeqNr(protectedStorageEntry),
+                protectedStorageEntry.getSignature());
+    }
+
+    // We use the cached proto message of the payload to avoid serializing it again
+    private static byte[] getHashOfDataAndSeqNr(ProtectedStorageEntry protectedStorageEntry) {
+        return Hash.getSha256Hash(PB.DataAndSeqNrPair.newBuilder()
+                .setPayload(protectedStorageEntry.getStoragePayloadProto())
+                .setSequenceNumber(protectedStorageEntry.getSequenceNumber())
+                .build()
+                .toByteArray());
     }
 
     // Check that the pubkey of the storage entry matches the allowed pubkey for the addition or removal operation
@@ -648,7 +741,7 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             ProtectedMailboxStorageEntry entry = (ProtectedMailboxStorageEntry) storedData;
             // publicKey is not the same (stored: sender, new: receiver)
             boolean result = entry.getReceiversPubKey().equals(receiversPubKey)
-                    && getHashAsByteArray(entry.getProtectedStoragePayload()).equals(hashOfData);
+                    && getHashAsByteArray(entry).equals(hashOfData);
             if (!result)
                 log.warn("New data entry does not match our stored data. entry.receiversPubKey=" + entry.getReceiversPubKey()
                         + ", receiversPubKey=" + receiversPubKey);
@@ -669,6 +762,10 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
         return new ByteArray(P2PDataStorage.getHash(data));
     }
 
+    private ByteArray getHashAsByteArray(ProtectedStorageEntry protectedStorageEntry) {
+        return new ByteArray(protectedStorageEntry.getHashOfPayload());
+    }
+
     // Get a new map with entries older than PURGE_AGE_DAYS purged from the given map.
     private Map<ByteArray, MapValue> getPurgedSequenceNumberMap(Map<ByteArray, MapValue> persisted) {
         Map<ByteArray, MapValue> purged = new HashMap<>();
@@ -686,13 +783,13 @@ public class P2PDataStorage implements MessageListener, ConnectionListener, Pers
             sb.append("Data set ").append(info).append(" operation");
             // We print the items sorted by hash with the payload class name and id
             List<Tuple2<String, ProtectedStorageEntry>> tempList = map.values().stream()
-                    .map(e -> new Tuple2<>(org.bitcoinj.core.Utils.HEX.encode(getHashAsByteArray(e.getProtectedStoragePayload()).bytes), e))
+                    .map(e -> new Tuple2<>(org.bitcoinj.core.Utils.HEX.encode(e.getHashOfPayload()), e))
                     .collect(Collectors.toList());
             tempList.sort((o1, o2) -> o1.first.compareTo(o2.first));
             tempList.stream().forEach(e -> {
                 final ProtectedStorageEntry storageEntry = e.second;
                 final ProtectedStoragePayload protectedStoragePayload = storageEntry.getProtectedStoragePayload();
-                final MapValue mapValue = sequenceNumberMap.get(getHashAsByteArray(protectedStoragePayload));
+                final MapValue mapValue = sequenceNumberMap.get(getHashAsByteArray(storageEntry));
                 sb.append("\n")
                         .append("Hash=")
                         .append(e.first)
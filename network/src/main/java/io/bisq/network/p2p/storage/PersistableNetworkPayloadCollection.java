@@ -42,6 +42,11 @@ public class PersistableNetworkPayloadCollection implements PersistableEnvelope
     public PersistableNetworkPayloadCollection() {
     }
 
+    // Items of the store get decoded on access, new items are held in memory
+    PersistableNetworkPayloadCollection(MappedPayloadStore store) {
+        map = new MappedPayloadMap(store);
+    }
+
 
     ///////////////////////////////////////////////////////////////////////////////////////////
     // PROTO BUFFER
@@ -0,0 +1,188 @@
+package io.bisq.network.p2p.storage;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.bisq.common.proto.persistable.PersistenceProtoResolver;
+import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Append only log for the PersistableNetworkPayload items (TradeStatistics2, AccountAgeWitness). Those items never
+ * get removed, so instead of writing the whole collection at each new item we append the item to a log file next to
+ * the MappedPayloadStore file.
+ * Once COMPACTION_THRESHOLD items are in the log we write a new store to the pending store file and delete the log.
+ * The pending store file replaces the store at the next startup.
+ * At startup the items of the log get added to the collection read from the store.
+ */
+@Slf4j
+class PersistableNetworkPayloadLog {
+    private static final int COMPACTION_THRESHOLD = 1000;
+
+    private final File logFile;
+    private final File pendingStoreFile;
+    private final PersistenceProtoResolver persistenceProtoResolver;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("PersistableNetworkPayloadLog")
+            .setDaemon(true)
+            .build());
+    private final LinkedBlockingQueue<PersistableNetworkPayload> pendingItems = new LinkedBlockingQueue<>();
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+    private PersistableNetworkPayloadCollection collection;
+    // Only accessed from the executor after replay
+    private FileOutputStream outputStream;
+    private int numItemsInLog;
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Constructor
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    PersistableNetworkPayloadLog(File storageDir,
+                                 String storageFileName,
+                                 File pendingStoreFile,
+                                 PersistenceProtoResolver persistenceProtoResolver) {
+        this.logFile = new File(storageDir, storageFileName + "_log");
+        this.pendingStoreFile = pendingStoreFile;
+        this.persistenceProtoResolver = persistenceProtoResolver;
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Adds the items of the log to the collection read from the store and returns the items which have not been
+    // in the store. Must be called before append.
+    List<PersistableNetworkPayload> replay(PersistableNetworkPayloadCollection collection) {
+        this.collection = collection;
+        List<PersistableNetworkPayload> addedItems = new ArrayList<>();
+        if (!logFile.exists())
+            return addedItems;
+
+        boolean complete = true;
+        try (FileInputStream inputStream = new FileInputStream(logFile)) {
+            PB.PersistableNetworkPayload proto;
+            while ((proto = PB.PersistableNetworkPayload.parseDelimitedFrom(inputStream)) != null) {
+                PersistableNetworkPayload payload = PersistableNetworkPayload.fromProto(proto, persistenceProtoResolver);
+                if (collection.getMap().putIfAbsent(new P2PDataStorage.ByteArray(payload.getHash()), payload) == null)
+                    addedItems.add(payload);
+                numItemsInLog++;
+            }
+        } catch (Throwable t) {
+            // A crash while appending can leave an incomplete item at the end of the log
+            log.warn("Could not read all items of {}. We keep the {} items read so far. Error={}",
+                    logFile.getName(), numItemsInLog, t.toString());
+            complete = false;
+        }
+        log.info("Replayed {} items from {}", numItemsInLog, logFile.getName());
+
+        // Further appends would be unreadable after an incomplete item, so we write a new store and start a new log
+        if (!complete)
+            executor.execute(this::compact);
+
+        return addedItems;
+    }
+
+    // Can be called from any thread. Items are written in batches at the executor.
+    void append(PersistableNetworkPayload payload) {
+        pendingItems.add(payload);
+        if (!writeScheduled.getAndSet(true))
+            executor.execute(this::writePendingItems);
+    }
+
+    void shutDown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeOutputStream();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void writePendingItems() {
+        writeScheduled.set(false);
+        List<PersistableNetworkPayload> items = new ArrayList<>();
+        pendingItems.drainTo(items);
+        if (items.isEmpty())
+            return;
+
+        try {
+            if (outputStream == null)
+                outputStream = new FileOutputStream(logFile, true);
+
+            for (PersistableNetworkPayload item : items)
+                item.toProtoMessage().writeDelimitedTo(outputStream);
+
+            outputStream.flush();
+            outputStream.getFD().sync();
+            numItemsInLog += items.size();
+        } catch (IOException e) {
+            log.error("Could not append to " + logFile.getName() + ". We write a new store instead.", e);
+            closeOutputStream();
+            compact();
+            return;
+        }
+
+        if (numItemsInLog >= COMPACTION_THRESHOLD)
+            compact();
+    }
+
+    // Items added to the collection while we write the store might be in the store and in the log after
+    // compaction. That is no problem as replay ignores items we have already.
+    private void compact() {
+        long ts = System.currentTimeMillis();
+        try {
+            // Only the items added since startup need to be encoded, the others get copied from the current store
+            Map<P2PDataStorage.ByteArray, PersistableNetworkPayload> map = collection.getMap();
+            if (map instanceof MappedPayloadMap) {
+                MappedPayloadMap mappedPayloadMap = (MappedPayloadMap) map;
+                MappedPayloadStore.write(pendingStoreFile, mappedPayloadMap.getStore(),
+                        mappedPayloadMap.getAddedItems().values());
+            } else {
+                MappedPayloadStore.write(pendingStoreFile, null, map.values());
+            }
+        } catch (Throwable t) {
+            log.error("Writing " + pendingStoreFile.getName() + " failed. We keep the log file.", t);
+            return;
+        }
+
+        closeOutputStream();
+        if (logFile.exists() && !logFile.delete())
+            log.error("Could not delete " + logFile.getName());
+
+        log.info("Compacted {} items of {} into {} in {} ms", numItemsInLog, logFile.getName(),
+                pendingStoreFile.getName(), System.currentTimeMillis() - ts);
+        numItemsInLog = 0;
+    }
+
+    private void closeOutputStream() {
+        if (outputStream != null) {
+            try {
+                outputStream.close();
+            } catch (IOException e) {
+                log.error("Cannot close " + logFile.getName() + ". " + e.getMessage());
+            }
+            outputStream = null;
+        }
+    }
+}
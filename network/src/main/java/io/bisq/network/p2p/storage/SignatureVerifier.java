@@ -0,0 +1,134 @@
+package io.bisq.network.p2p.storage;
+
+import com.google.common.primitives.Bytes;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.bisq.common.UserThread;
+import io.bisq.common.crypto.CryptoException;
+import io.bisq.common.crypto.Hash;
+import io.bisq.common.crypto.Sig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.security.PublicKey;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies the signatures of storage entries at a pool of worker threads so the UserThread does not get blocked when
+ * we receive many entries (e.g. GetDataResponse at startup).
+ * Successful verifications are kept in a bounded cache, so the checks in P2PDataStorage which run afterwards at the
+ * UserThread only need a cache lookup. The result handlers are called at the UserThread in the same order as they
+ * have been passed to execute, independent of which verification finishes first.
+ */
+@Slf4j
+class SignatureVerifier {
+    private static final int MAX_CACHE_SIZE = 10000;
+    private static final int NUM_THREADS = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+
+    private final ListeningExecutorService executor = MoreExecutors.listeningDecorator(
+            Executors.newFixedThreadPool(NUM_THREADS, new ThreadFactoryBuilder()
+                    .setNameFormat("SignatureVerifier-%d")
+                    .setDaemon(true)
+                    .build()));
+
+    // Cache key is the hash of the public key, the signed data and the signature
+    private final Set<P2PDataStorage.ByteArray> verifiedSignatures = Collections.newSetFromMap(Collections.synchronizedMap(
+            new LinkedHashMap<P2PDataStorage.ByteArray, Boolean>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<P2PDataStorage.ByteArray, Boolean> eldest) {
+                    return size() > MAX_CACHE_SIZE;
+                }
+            }));
+
+    // Only accessed from the UserThread
+    private final Queue<PendingResult> pendingResults = new ArrayDeque<>();
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // API
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Can be called from any thread
+    boolean verify(PublicKey publicKey, byte[] data, byte[] signature) throws CryptoException {
+        if (publicKey == null)
+            throw new CryptoException("Signature verification failed. publicKey is null");
+
+        P2PDataStorage.ByteArray key = new P2PDataStorage.ByteArray(Hash.getSha256Hash(
+                Bytes.concat(publicKey.getEncoded(), data, signature)));
+        if (verifiedSignatures.contains(key))
+            return true;
+
+        boolean result = Sig.verify(publicKey, data, signature);
+        if (result)
+            verifiedSignatures.add(key);
+        return result;
+    }
+
+    /**
+     * Runs the verifications at the worker threads and calls the resultHandler at the UserThread once all are
+     * completed and all result handlers passed in before have been called. The result of the verifications is not
+     * passed to the resultHandler, it is expected to verify again which will hit the cache.
+     * If there is nothing to verify and no earlier verification is still running the resultHandler is called
+     * immediately. After shutDown the resultHandler is called immediately and verifies at the UserThread.
+     * Must be called from the UserThread.
+     *
+     * @param verifications Tasks calling verify
+     * @param resultHandler Called at the UserThread
+     */
+    void execute(List<Callable<Boolean>> verifications, Runnable resultHandler) {
+        if (executor.isShutdown()) {
+            log.debug("SignatureVerifier is shut down. We apply the result without verifying at the worker threads.");
+            resultHandler.run();
+            return;
+        }
+
+        List<ListenableFuture<Boolean>> futures = verifications.stream()
+                .map(executor::submit)
+                .collect(Collectors.toList());
+        // We don't care about failures as the result handler will verify again
+        ListenableFuture<List<Boolean>> future = Futures.successfulAsList(futures);
+        pendingResults.add(new PendingResult(future, resultHandler));
+        if (future.isDone())
+            applyCompletedResults();
+        else
+            future.addListener(() -> UserThread.execute(this::applyCompletedResults), MoreExecutors.directExecutor());
+    }
+
+    // Must be called from the UserThread. Result handlers of verifications still running are not called anymore.
+    void shutDown() {
+        executor.shutdownNow();
+        pendingResults.clear();
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void applyCompletedResults() {
+        while (!pendingResults.isEmpty() && pendingResults.peek().future.isDone()) {
+            PendingResult pendingResult = pendingResults.poll();
+            try {
+                pendingResult.resultHandler.run();
+            } catch (Throwable t) {
+                log.error("Error at applying verification result: " + t.toString());
+                t.printStackTrace();
+            }
+        }
+    }
+
+    private static final class PendingResult {
+        private final ListenableFuture<?> future;
+        private final Runnable resultHandler;
+
+        PendingResult(ListenableFuture<?> future, Runnable resultHandler) {
+            this.future = future;
+            this.resultHandler = resultHandler;
+        }
+    }
+}
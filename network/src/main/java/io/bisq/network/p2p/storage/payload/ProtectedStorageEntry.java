@@ -2,6 +2,7 @@ package io.bisq.network.p2p.storage.payload;
 
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Message;
+import io.bisq.common.crypto.Hash;
 import io.bisq.common.crypto.Sig;
 import io.bisq.common.proto.network.NetworkPayload;
 import io.bisq.common.proto.network.NetworkProtoResolver;
@@ -24,6 +25,11 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
     private byte[] signature;
     private long creationTimeStamp;
 
+    // The payload is immutable, so we cache its proto message and hash. Both are used at each add, remove and
+    // refresh of the entry and would require to serialize the whole payload again.
+    transient private volatile PB.StoragePayload storagePayloadProto;
+    transient private volatile byte[] hashOfPayload;
+
     public ProtectedStorageEntry(ProtectedStoragePayload protectedStoragePayload,
                                  PublicKey ownerPubKey,
                                  int sequenceNumber,
@@ -60,7 +66,7 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
 
     public Message toProtoMessage() {
         return PB.ProtectedStorageEntry.newBuilder()
-                .setStoragePayload((PB.StoragePayload) protectedStoragePayload.toProtoMessage())
+                .setStoragePayload(getStoragePayloadProto())
                 .setOwnerPubKeyBytes(ByteString.copyFrom(ownerPubKeyBytes))
                 .setSequenceNumber(sequenceNumber)
                 .setSignature(ByteString.copyFrom(signature))
@@ -82,6 +88,19 @@ public class ProtectedStorageEntry implements NetworkPayload, PersistablePayload
     // API
     ///////////////////////////////////////////////////////////////////////////////////////////
 
+    public PB.StoragePayload getStoragePayloadProto() {
+        if (storagePayloadProto == null)
+            storagePayloadProto = (PB.StoragePayload) protectedStoragePayload.toProtoMessage();
+        return storagePayloadProto;
+    }
+
+    // Same result as P2PDataStorage.getHash(protectedStoragePayload)
+    public byte[] getHashOfPayload() {
+        if (hashOfPayload == null)
+            hashOfPayload = Hash.getSha256Hash(getStoragePayloadProto().toByteArray());
+        return hashOfPayload;
+    }
+
     public void maybeAdjustCreationTimeStamp() {
         // We don't allow creation date in the future, but we cannot be too strict as clocks are not synced
         if (creationTimeStamp > System.currentTimeMillis())
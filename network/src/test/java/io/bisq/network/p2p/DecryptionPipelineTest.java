@@ -0,0 +1,146 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.bisq.common.UserThread;
+import io.bisq.common.crypto.CryptoException;
+import io.bisq.common.crypto.SealedAndSigned;
+import io.bisq.common.crypto.Sig;
+import io.bisq.network.crypto.EncryptionService;
+import io.bisq.network.p2p.peers.keepalive.messages.Ping;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.PublicKey;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.*;
+
+public class DecryptionPipelineTest {
+    private ExecutorService userThreadExecutor;
+    private DecryptionPipeline decryptionPipeline;
+    private PublicKey publicKey;
+
+    @Before
+    public void setup() {
+        userThreadExecutor = Executors.newSingleThreadExecutor();
+        UserThread.setExecutor(userThreadExecutor);
+        Security.addProvider(new BouncyCastleProvider());
+        publicKey = Sig.generateKeyPair().getPublic();
+
+        // The first byte of the signature is the nonce of the decrypted Ping. Odd nonces fail, lower nonces take
+        // longer to decrypt.
+        EncryptionService encryptionService = new EncryptionService(null, null) {
+            @Override
+            public DecryptedMessageWithPubKey decryptAndVerify(SealedAndSigned sealedAndSigned) throws CryptoException {
+                int nonce = sealedAndSigned.getSignature()[0];
+                try {
+                    Thread.sleep(20 - nonce);
+                } catch (InterruptedException ignore) {
+                }
+                if (nonce % 2 == 1)
+                    throw new CryptoException("Not for us");
+                return new DecryptedMessageWithPubKey(new Ping(nonce, 0), sealedAndSigned.getSigPublicKey());
+            }
+        };
+        decryptionPipeline = new DecryptionPipeline(encryptionService, 4);
+    }
+
+    @After
+    public void tearDown() {
+        decryptionPipeline.shutDown();
+        userThreadExecutor.shutdownNow();
+        UserThread.setExecutor(MoreExecutors.directExecutor());
+    }
+
+    @Test
+    public void testResultsInSubmitOrder() throws InterruptedException {
+        int numMessages = 20;
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(numMessages / 2);
+        UserThread.execute(() -> {
+            for (int i = 0; i < numMessages; i++) {
+                decryptionPipeline.decrypt(new SealedAndSigned(new byte[0], new byte[0], new byte[]{(byte) i}, publicKey),
+                        decryptedMessageWithPubKey -> {
+                            results.add(((Ping) decryptedMessageWithPubKey.getNetworkEnvelope()).getNonce());
+                            latch.countDown();
+                        });
+            }
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(numMessages / 2, results.size());
+        for (int i = 0; i < results.size(); i++)
+            assertEquals(2 * i, (int) results.get(i));
+    }
+
+    @Test
+    public void testLargeBacklogNotDecryptedAtUserThread() throws Exception {
+        Thread userThread = userThreadExecutor.submit(Thread::currentThread).get();
+        AtomicBoolean decryptedAtUserThread = new AtomicBoolean();
+        DecryptionPipeline pipeline = new DecryptionPipeline(new EncryptionService(null, null) {
+            @Override
+            public DecryptedMessageWithPubKey decryptAndVerify(SealedAndSigned sealedAndSigned) {
+                if (Thread.currentThread() == userThread)
+                    decryptedAtUserThread.set(true);
+                return new DecryptedMessageWithPubKey(new Ping(0, 0), sealedAndSigned.getSigPublicKey());
+            }
+        }, 1);
+        try {
+            int numMessages = 5000;
+            CountDownLatch latch = new CountDownLatch(numMessages);
+            UserThread.execute(() -> {
+                for (int i = 0; i < numMessages; i++)
+                    pipeline.decrypt(new SealedAndSigned(new byte[0], new byte[0], new byte[0], publicKey),
+                            decryptedMessageWithPubKey -> latch.countDown());
+            });
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertFalse(decryptedAtUserThread.get());
+        } finally {
+            pipeline.shutDown();
+        }
+    }
+
+    @Test
+    public void testDiscardedAfterShutDown() throws InterruptedException {
+        decryptionPipeline.shutDown();
+        AtomicBoolean delivered = new AtomicBoolean();
+        CountDownLatch latch = new CountDownLatch(1);
+        UserThread.execute(() -> {
+            decryptionPipeline.decrypt(new SealedAndSigned(new byte[0], new byte[0], new byte[]{0}, publicKey),
+                    decryptedMessageWithPubKey -> delivered.set(true));
+            // Runs after the delivery of the discarded decryption
+            UserThread.execute(latch::countDown);
+        });
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertFalse(delivered.get());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.network;
+
+import com.google.protobuf.ByteString;
+import io.bisq.common.util.Utilities;
+import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.p2p.NodeAddress;
+import io.bisq.network.p2p.peers.getdata.messages.GetDataResponse;
+import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConnectionLoggingTest {
+    private static final Optional<NodeAddress> PEER = Optional.of(new NodeAddress("localhost", 8000));
+
+    @Test
+    public void testMessageSummary() {
+        GetDataResponse getDataResponse = createGetDataResponse(1);
+        assertEquals("GetDataResponse / size=100 / peer=localhost:8000 / uid=uid",
+                Connection.getMessageSummary(getDataResponse, 100, PEER, "uid"));
+        assertEquals("GetDataResponse / size=100 / peer=null / uid=uid",
+                Connection.getMessageSummary(getDataResponse, 100, Optional.empty(), "uid"));
+    }
+
+    // Writes and parses a GetDataResponse with 5000 items (about 660 KB) like the send and receive path of
+    // Connection and compares the allocated bytes of the former text dump of each message with the summary.
+    // Not run by default as it takes a few seconds.
+    @Ignore
+    @Test
+    public void benchmark() throws IOException {
+        GetDataResponse getDataResponse = createGetDataResponse(5000);
+        for (int i = 0; i < 3; i++) {
+            runBenchmark("Text dump", getDataResponse, (networkEnvelope, proto) ->
+                    Utilities.toTruncatedString(proto.toString(), 10000) + Utilities.toTruncatedString(networkEnvelope));
+            runBenchmark("Summary", getDataResponse, (networkEnvelope, proto) ->
+                    Connection.getMessageSummary(networkEnvelope, proto.getSerializedSize(), PEER, "uid"));
+        }
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    private void runBenchmark(String name,
+                              GetDataResponse getDataResponse,
+                              BiFunction<GetDataResponse, PB.NetworkEnvelope, String> logDescription) throws IOException {
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int numRoundTrips = 20;
+        long descriptionLength = 0;
+        long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId);
+        long ts = System.nanoTime();
+        for (int i = 0; i < numRoundTrips; i++) {
+            // Send path
+            PB.NetworkEnvelope proto = getDataResponse.toProtoNetworkEnvelope();
+            descriptionLength += logDescription.apply(getDataResponse, proto).length();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(proto.getSerializedSize() + 8);
+            proto.writeDelimitedTo(outputStream);
+
+            // Receive path
+            PB.NetworkEnvelope receivedProto = PB.NetworkEnvelope.parseDelimitedFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+            descriptionLength += logDescription.apply(getDataResponse, receivedProto).length();
+        }
+        long duration = System.nanoTime() - ts;
+        allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBytes;
+
+        System.out.println(name + ": " + numRoundTrips + " round trips of " +
+                getDataResponse.toProtoNetworkEnvelope().getSerializedSize() / 1024 + " KB, allocated " +
+                allocatedBytes / numRoundTrips / 1024 + " KB and " + duration / numRoundTrips / 1000 +
+                " us per round trip (description length " + descriptionLength + ")");
+    }
+
+    private static GetDataResponse createGetDataResponse(int numItems) {
+        Set<PersistableNetworkPayload> payloads = new HashSet<>();
+        for (int i = 0; i < numItems; i++)
+            payloads.add(new TestPayload(i));
+        return new GetDataResponse(new HashSet<>(), payloads, 1, false);
+    }
+
+    // Has the size of a trade statistics item
+    private static final class TestPayload implements PersistableNetworkPayload {
+        private final int index;
+        private final byte[] hash;
+
+        TestPayload(int index) {
+            this.index = index;
+            hash = new byte[20];
+            hash[0] = (byte) index;
+            hash[1] = (byte) (index >> 8);
+        }
+
+        @Override
+        public PB.PersistableNetworkPayload toProtoMessage() {
+            return PB.PersistableNetworkPayload.newBuilder()
+                    .setTradeStatistics2(PB.TradeStatistics2.newBuilder()
+                            .setBaseCurrency("BTC")
+                            .setCounterCurrency("EUR")
+                            .setTradePrice(40000000L + index)
+                            .setTradeAmount(1000000L)
+                            .setTradeDate(1500000000000L + index)
+                            .setPaymentMethodId("SEPA")
+                            .setOfferDate(1500000000000L)
+                            .setOfferAmount(1000000L)
+                            .setOfferMinAmount(500000L)
+                            .setOfferId("offer-id-" + index + "-0123456789abcdef0123456789abcdef")
+                            .setDepositTxId("0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef")
+                            .setHash(ByteString.copyFrom(hash)))
+                    .build();
+        }
+
+        @Override
+        public byte[] getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean verifyHashSize() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.bisq.network.p2p.network;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getPercentile(50));
+    }
+
+    @Test
+    public void testPercentiles() {
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < 90; i++)
+            histogram.record(100);
+        for (int i = 0; i < 10; i++)
+            histogram.record(5000);
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(590, histogram.getMean());
+        // 100 is in bucket [64, 128), 5000 in bucket [4096, 8192)
+        assertEquals(127, histogram.getPercentile(50));
+        assertEquals(127, histogram.getPercentile(90));
+        assertEquals(8191, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testZeroAndNegativeValues() {
+        Histogram histogram = new Histogram();
+        histogram.record(0);
+        histogram.record(-5);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getPercentile(100));
+    }
+}
@@ -0,0 +1,22 @@
+package io.bisq.network.p2p.network;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TokenBucketTest {
+
+    @Test
+    public void testBurstAndRefill() throws InterruptedException {
+        TokenBucket tokenBucket = new TokenBucket(10, 100);
+        for (int i = 0; i < 10; i++)
+            assertTrue(tokenBucket.tryAcquire());
+
+        assertFalse(tokenBucket.tryAcquire());
+        assertTrue(tokenBucket.getMillisUntilNextToken() > 0);
+
+        Thread.sleep(50);
+        assertTrue(tokenBucket.tryAcquire());
+    }
+}
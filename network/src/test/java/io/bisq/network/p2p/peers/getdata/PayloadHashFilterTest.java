@@ -0,0 +1,44 @@
+package io.bisq.network.p2p.peers.getdata;
+
+import io.bisq.common.crypto.Hash;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PayloadHashFilterTest {
+
+    @Test
+    public void testNoFalseNegatives() {
+        List<byte[]> keys = getKeys(0, 5000);
+        PayloadHashFilter filter = PayloadHashFilter.fromKeys(keys);
+        keys.forEach(key -> assertTrue(filter.mightContain(key)));
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        PayloadHashFilter filter = PayloadHashFilter.fromKeys(getKeys(0, 5000));
+        long falsePositives = getKeys(5000, 15000).stream().filter(filter::mightContain).count();
+        // Expected rate is about 0.1 %, we accept up to 0.5 %
+        assertTrue("falsePositives=" + falsePositives, falsePositives < 50);
+    }
+
+    @Test
+    public void testProtoRoundTrip() {
+        List<byte[]> keys = getKeys(0, 100);
+        PayloadHashFilter filter = PayloadHashFilter.fromKeys(keys);
+        PayloadHashFilter fromProto = PayloadHashFilter.fromProto(filter.toProtoMessage());
+        assertEquals(filter, fromProto);
+        keys.forEach(key -> assertTrue(fromProto.mightContain(key)));
+    }
+
+    private List<byte[]> getKeys(int from, int to) {
+        List<byte[]> keys = new ArrayList<>();
+        for (int i = from; i < to; i++)
+            keys.add(Hash.getSha256Ripemd160hash(String.valueOf(i).getBytes()));
+        return keys;
+    }
+}
@@ -0,0 +1,154 @@
+package io.bisq.network.p2p.storage;
+
+import com.google.protobuf.ByteString;
+import io.bisq.common.Payload;
+import io.bisq.common.crypto.Hash;
+import io.bisq.common.proto.persistable.PersistableEnvelope;
+import io.bisq.common.proto.persistable.PersistenceProtoResolver;
+import io.bisq.generated.protobuffer.PB;
+import io.bisq.network.p2p.storage.payload.PersistableNetworkPayload;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class MappedPayloadStoreTest {
+    private File dir;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("MappedPayloadStoreTest").toFile();
+        file = new File(dir, "PersistableNetworkPayloadStore");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null)
+            Arrays.stream(files).forEach(File::delete);
+        dir.delete();
+    }
+
+    @Test
+    public void testWriteAndLookup() throws IOException {
+        List<PersistableNetworkPayload> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+            items.add(new TestPayload(i));
+        MappedPayloadStore.write(file, null, items);
+
+        MappedPayloadStore store = MappedPayloadStore.open(file, new TestResolver());
+        assertEquals(100, store.size());
+        for (PersistableNetworkPayload item : items) {
+            P2PDataStorage.ByteArray hash = new P2PDataStorage.ByteArray(item.getHash());
+            assertTrue(store.containsKey(hash));
+            assertEquals(item, store.get(hash));
+        }
+        assertFalse(store.containsKey(new TestPayload(100).getHashAsByteArray()));
+        assertNull(store.get(new TestPayload(100).getHashAsByteArray()));
+    }
+
+    @Test
+    public void testWriteMergesStore() throws IOException {
+        MappedPayloadStore.write(file, null, Arrays.asList(new TestPayload(1), new TestPayload(2)));
+        MappedPayloadStore store = MappedPayloadStore.open(file, new TestResolver());
+
+        File newFile = new File(dir, "PersistableNetworkPayloadStore.new");
+        MappedPayloadStore.write(newFile, store, Arrays.asList(new TestPayload(2), new TestPayload(3)));
+        MappedPayloadStore newStore = MappedPayloadStore.open(newFile, new TestResolver());
+        assertEquals(3, newStore.size());
+        assertEquals(new TestPayload(1), newStore.get(new TestPayload(1).getHashAsByteArray()));
+        assertEquals(new TestPayload(3), newStore.get(new TestPayload(3).getHashAsByteArray()));
+    }
+
+    @Test
+    public void testMappedPayloadMap() throws IOException {
+        MappedPayloadStore.write(file, null, Arrays.asList(new TestPayload(1), new TestPayload(2)));
+        MappedPayloadMap map = new MappedPayloadMap(MappedPayloadStore.open(file, new TestResolver()));
+
+        assertEquals(new TestPayload(1), map.putIfAbsent(new TestPayload(1).getHashAsByteArray(), new TestPayload(1)));
+        assertNull(map.putIfAbsent(new TestPayload(3).getHashAsByteArray(), new TestPayload(3)));
+        assertEquals(3, map.size());
+        assertEquals(1, map.getAddedItems().size());
+        assertTrue(map.containsKey(new TestPayload(2).getHashAsByteArray()));
+        assertEquals(new HashSet<>(Arrays.asList(new TestPayload(1), new TestPayload(2), new TestPayload(3))),
+                new HashSet<>(map.values()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testOpenInvalidFile() throws IOException {
+        Files.write(file.toPath(), new byte[]{1, 2, 3});
+        MappedPayloadStore.open(file, new TestResolver());
+    }
+
+    private static final class TestPayload implements PersistableNetworkPayload, PersistableEnvelope {
+        private final byte[] hash;
+        private final long date;
+
+        TestPayload(long date) {
+            this(Hash.getSha256Ripemd160hash(Long.toString(date).getBytes()), date);
+        }
+
+        TestPayload(byte[] hash, long date) {
+            this.hash = hash;
+            this.date = date;
+        }
+
+        P2PDataStorage.ByteArray getHashAsByteArray() {
+            return new P2PDataStorage.ByteArray(hash);
+        }
+
+        @Override
+        public PB.PersistableNetworkPayload toProtoMessage() {
+            return PB.PersistableNetworkPayload.newBuilder()
+                    .setAccountAgeWitness(PB.AccountAgeWitness.newBuilder()
+                            .setHash(ByteString.copyFrom(hash))
+                            .setDate(date))
+                    .build();
+        }
+
+        @Override
+        public byte[] getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean verifyHashSize() {
+            return hash.length == 20;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TestPayload && date == ((TestPayload) o).date && Arrays.equals(hash, ((TestPayload) o).hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(hash);
+        }
+    }
+
+    private static final class TestResolver implements PersistenceProtoResolver {
+        @Override
+        public PersistableEnvelope fromProto(PB.PersistableEnvelope persistable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Payload fromProto(PB.PaymentAccountPayload proto) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PersistableEnvelope fromProto(PB.PersistableNetworkPayload proto) {
+            return new TestPayload(proto.getAccountAgeWitness().getHash().toByteArray(),
+                    proto.getAccountAgeWitness().getDate());
+        }
+    }
+}
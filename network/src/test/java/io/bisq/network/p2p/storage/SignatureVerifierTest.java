@@ -0,0 +1,162 @@
+/*
+ * This file is part of Bisq.
+ *
+ * Bisq is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or (at
+ * your option) any later version.
+ *
+ * Bisq is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE. See the GNU Affero General Public
+ * License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with Bisq. If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.bisq.network.p2p.storage;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.bisq.common.UserThread;
+import io.bisq.common.crypto.Sig;
+import mockit.Expectations;
+import mockit.Verifications;
+import mockit.integration.junit4.JMockit;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@RunWith(JMockit.class)
+public class SignatureVerifierTest {
+    private ExecutorService userThreadExecutor;
+    private SignatureVerifier signatureVerifier;
+
+    @Before
+    public void setup() {
+        userThreadExecutor = Executors.newSingleThreadExecutor();
+        UserThread.setExecutor(userThreadExecutor);
+        Security.addProvider(new BouncyCastleProvider());
+        signatureVerifier = new SignatureVerifier();
+    }
+
+    @After
+    public void tearDown() {
+        signatureVerifier.shutDown();
+        userThreadExecutor.shutdownNow();
+        UserThread.setExecutor(MoreExecutors.directExecutor());
+    }
+
+    @Test
+    public void testResultsAppliedInOrder() throws InterruptedException {
+        CountDownLatch firstVerificationLatch = new CountDownLatch(1);
+        CountDownLatch secondVerificationDone = new CountDownLatch(1);
+        CountDownLatch allApplied = new CountDownLatch(1);
+        List<String> applied = Collections.synchronizedList(new ArrayList<>());
+
+        UserThread.execute(() -> {
+            signatureVerifier.execute(Collections.singletonList(() -> firstVerificationLatch.await(5, TimeUnit.SECONDS)),
+                    () -> applied.add("first"));
+            signatureVerifier.execute(Collections.singletonList(() -> {
+                        secondVerificationDone.countDown();
+                        return true;
+                    }),
+                    () -> applied.add("second"));
+            // Nothing to verify but has to wait for the earlier results
+            signatureVerifier.execute(Collections.emptyList(), () -> {
+                applied.add("third");
+                allApplied.countDown();
+            });
+        });
+
+        assertTrue(secondVerificationDone.await(5, TimeUnit.SECONDS));
+        // The second verification completed first but is not applied before the first one
+        flushUserThread();
+        assertTrue(applied.isEmpty());
+
+        firstVerificationLatch.countDown();
+        assertTrue(allApplied.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("first", "second", "third"), applied);
+    }
+
+    @Test
+    public void testAppliedImmediatelyIfNothingPending() throws InterruptedException {
+        List<String> applied = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(1);
+
+        UserThread.execute(() -> {
+            signatureVerifier.execute(Collections.emptyList(), () -> applied.add("first"));
+            // Called within the execute call, not deferred to a later UserThread task
+            assertEquals(Collections.singletonList("first"), applied);
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Collections.singletonList("first"), applied);
+    }
+
+    @Test
+    public void testAppliedImmediatelyAfterShutDown() throws Exception {
+        signatureVerifier.shutDown();
+
+        List<String> applied = new ArrayList<>();
+        List<Callable<Boolean>> verifications = Collections.singletonList(() -> true);
+        signatureVerifier.execute(verifications, () -> applied.add("first"));
+
+        assertEquals(Collections.singletonList("first"), applied);
+    }
+
+    @Test
+    public void testVerifiedSignatureIsCached() throws Exception {
+        KeyPair keyPair = Sig.generateKeyPair();
+        PublicKey publicKey = keyPair.getPublic();
+        byte[] data = new byte[]{1, 2, 3};
+        byte[] signature = Sig.sign(keyPair.getPrivate(), data);
+        byte[] invalidSignature = Sig.sign(keyPair.getPrivate(), new byte[]{4, 5, 6});
+
+        new Expectations(Sig.class) {{
+        }};
+
+        assertTrue(signatureVerifier.verify(publicKey, data, signature));
+        assertTrue(signatureVerifier.verify(publicKey, data, signature));
+        // Failed verifications are not cached
+        assertFalse(signatureVerifier.verify(publicKey, data, invalidSignature));
+        assertFalse(signatureVerifier.verify(publicKey, data, invalidSignature));
+
+        new Verifications() {{
+            Sig.verify(publicKey, data, signature);
+            times = 1;
+            Sig.verify(publicKey, data, invalidSignature);
+            times = 2;
+        }};
+    }
+
+
+    ///////////////////////////////////////////////////////////////////////////////////////////
+    // Private
+    ///////////////////////////////////////////////////////////////////////////////////////////
+
+    // Waits until the tasks queued at the UserThread so far are executed
+    private void flushUserThread() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        UserThread.execute(latch::countDown);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+}
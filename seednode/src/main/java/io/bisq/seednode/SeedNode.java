@@ -107,14 +107,18 @@ public class SeedNode {
                     Capabilities.Capability.TRADE_STATISTICS_2.ordinal(),
                     Capabilities.Capability.ACCOUNT_AGE_WITNESS.ordinal(),
                     Capabilities.Capability.SEED_NODE.ordinal(),
-                    Capabilities.Capability.DAO_FULL_NODE.ordinal()
+                    Capabilities.Capability.DAO_FULL_NODE.ordinal(),
+                    Capabilities.Capability.GET_DATA_FILTER.ordinal(),
+                    Capabilities.Capability.CHUNKED_GET_DATA_RESPONSE.ordinal()
             )));
         else
             Capabilities.setSupportedCapabilities(new ArrayList<>(Arrays.asList(
                     Capabilities.Capability.TRADE_STATISTICS.ordinal(),
                     Capabilities.Capability.TRADE_STATISTICS_2.ordinal(),
                     Capabilities.Capability.ACCOUNT_AGE_WITNESS.ordinal(),
-                    Capabilities.Capability.SEED_NODE.ordinal()
+                    Capabilities.Capability.SEED_NODE.ordinal(),
+                    Capabilities.Capability.GET_DATA_FILTER.ordinal(),
+                    Capabilities.Capability.CHUNKED_GET_DATA_RESPONSE.ordinal()
             )));
         appSetup.start();
     }
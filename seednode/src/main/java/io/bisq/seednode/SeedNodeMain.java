@@ -19,12 +19,14 @@ package io.bisq.seednode;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.bisq.common.UserThread;
+import io.bisq.common.storage.StorageScheduler;
 import io.bisq.common.util.Profiler;
 import io.bisq.common.util.RestartUtil;
 import io.bisq.common.util.Utilities;
 import io.bisq.core.app.AppOptionKeys;
 import io.bisq.core.app.BisqEnvironment;
 import io.bisq.core.app.BisqExecutable;
+import io.bisq.network.p2p.network.Statistic;
 import joptsimple.OptionException;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
@@ -100,6 +102,22 @@ public class SeedNodeMain extends BisqExecutable {
         final BisqEnvironment bisqEnvironment = getBisqEnvironment(options);
         SeedNode.setEnvironment(bisqEnvironment);
 
+        String numUserThreadsOption = bisqEnvironment.getProperty(AppOptionKeys.NUM_USER_THREADS);
+        if (numUserThreadsOption != null && !numUserThreadsOption.isEmpty()) {
+            try {
+                int numUserThreads = Integer.parseInt(numUserThreadsOption);
+                if (numUserThreads > 1) {
+                    log.info("We use {} user threads", numUserThreads);
+                    UserThread.setKeyedExecutor(numUserThreads, new ThreadFactoryBuilder()
+                            .setNameFormat("SeedNodeMain-%d")
+                            .setDaemon(true)
+                            .build());
+                }
+            } catch (Throwable t) {
+                log.error(t.getMessage());
+            }
+        }
+
         UserThread.execute(() -> {
             try {
                 seedNode = new SeedNode();
@@ -138,6 +156,8 @@ public class SeedNodeMain extends BisqExecutable {
 
         UserThread.runPeriodically(() -> {
             Profiler.printSystemLoad(log);
+            log.info(Statistic.getReceivedMessageHistogramsAsString());
+            log.info(StorageScheduler.getSaveMetricsAsString());
             if (!stopped) {
                 long usedMemoryInMB = Profiler.getUsedMemoryInMB();
                 if (usedMemoryInMB > (maxMemory * 0.8)) {
@@ -129,7 +129,9 @@ public class Statistics {
         Capabilities.setSupportedCapabilities(new ArrayList<>(Arrays.asList(
                 Capabilities.Capability.TRADE_STATISTICS.ordinal(),
                 Capabilities.Capability.TRADE_STATISTICS_2.ordinal(),
-                Capabilities.Capability.ACCOUNT_AGE_WITNESS.ordinal()
+                Capabilities.Capability.ACCOUNT_AGE_WITNESS.ordinal(),
+                Capabilities.Capability.GET_DATA_FILTER.ordinal(),
+                Capabilities.Capability.CHUNKED_GET_DATA_RESPONSE.ordinal()
         )));
         appSetup.start();
     }